@@ -0,0 +1,47 @@
+package myapp.benchmark;
+
+import myapp.SampleApp;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * The application, started once per benchmark fork on a random port.
+ * <p>
+ * It uses the {@code testdev} configuration on a private in-memory H2 database loaded with the faker data,
+ * with the Hibernate second-level and query caches enabled as in the dev and prod profiles.
+ */
+@State(Scope.Benchmark)
+public class ApplicationContextState {
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(SampleApp.class)
+            .profiles("testdev")
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                "spring.liquibase.contexts=test,faker",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+                "logging.level.ROOT=WARN",
+                "logging.level.myapp=WARN"
+            )
+            .run();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
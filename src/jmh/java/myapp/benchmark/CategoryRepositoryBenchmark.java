@@ -0,0 +1,75 @@
+package myapp.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import myapp.domain.Category;
+import myapp.repository.CategoryRepository;
+import myapp.service.CategoryService;
+import myapp.service.dto.CategorySummaryDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmark of the {@code fetchProducts} queries of {@link myapp.repository.CategoryRepositoryWithBagRelationshipsImpl},
+ * through the {@link CategoryRepository} methods using them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryRepositoryBenchmark {
+
+    private static final long CATEGORY_ID = 1L;
+
+    private CategoryRepository categoryRepository;
+
+    private CategoryService categoryService;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationContextState application) {
+        categoryRepository = application.getBean(CategoryRepository.class);
+        categoryService = application.getBean(CategoryService.class);
+        readOnlyTransaction = new TransactionTemplate(application.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * The category is loaded in its own transaction, so its products are join fetched.
+     */
+    @Benchmark
+    public Optional<Category> fetchProductsDetached() {
+        return categoryRepository.findOneWithEagerRelationships(CATEGORY_ID);
+    }
+
+    /**
+     * The category is managed, as in {@link myapp.service.CategoryService#findOne(Long)}.
+     */
+    @Benchmark
+    public Integer fetchProductsManaged() {
+        return readOnlyTransaction.execute(status ->
+            categoryRepository.findOneWithEagerRelationships(CATEGORY_ID).map(category -> category.getProducts().size()).orElse(0)
+        );
+    }
+
+    @Benchmark
+    public List<Category> fetchProductsPage() {
+        Page<Category> page = categoryRepository.findAllWithEagerRelationships(PageRequest.of(0, 20));
+        return page.getContent();
+    }
+
+    /**
+     * The two-phase listing of {@code GET /api/categories}: ids, then categories and their first products.
+     */
+    @Benchmark
+    public List<CategorySummaryDTO> findAllSummariesPage() {
+        return categoryService.findAllSummaries(PageRequest.of(0, 20), true).getContent();
+    }
+}
@@ -0,0 +1,34 @@
+package myapp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import myapp.security.DomainUserDetailsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Benchmark of {@link DomainUserDetailsService#loadUserByUsername(String)} against the embedded H2 database,
+ * i.e. the user lookup done on every authentication.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DomainUserDetailsServiceBenchmark {
+
+    @Param({ "admin", "admin@localhost" })
+    private String login;
+
+    private DomainUserDetailsService userDetailsService;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationContextState application) {
+        userDetailsService = application.getBean(DomainUserDetailsService.class);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userDetailsService.loadUserByUsername(login);
+    }
+}
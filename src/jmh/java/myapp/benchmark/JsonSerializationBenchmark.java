@@ -0,0 +1,112 @@
+package myapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import myapp.config.JacksonConfiguration;
+import myapp.domain.Address;
+import myapp.domain.Category;
+import myapp.domain.Customer;
+import myapp.domain.Order;
+import myapp.domain.Product;
+import myapp.domain.WishList;
+import myapp.domain.enumeration.CategoryStatus;
+import myapp.domain.enumeration.ProductStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmark of the JSON serialization of {@link Product}, {@link Order} and {@link Category} with their
+ * {@code @JsonIgnoreProperties} relationship graphs, using the same Jackson modules as the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({ "10", "100" })
+    private int relationships;
+
+    private ObjectMapper objectMapper;
+
+    private Product product;
+
+    private Order order;
+
+    private Category category;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modules(jacksonConfiguration.javaTimeModule(), jacksonConfiguration.jdk8TimeModule(), jacksonConfiguration.hibernate6Module())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+        Customer customer = new Customer().id(1L).firstName("Jane").lastName("Doe").email("jane@localhost").telephone("555-0100");
+        Address address = new Address().id(1L).address1("1 Main Street").city("Campinas").postcode("13083").country("Brazil");
+        WishList wishList = new WishList().id(1L).title("Birthday").restricted(false).customer(customer);
+        order = new Order()
+            .id(1L)
+            .orderDate(Instant.now())
+            .status("PENDING")
+            .totalAmount(BigDecimal.valueOf(1234.56))
+            .shippingCost(BigDecimal.TEN)
+            .shippingAddress(address)
+            .customer(customer);
+        category = newCategory(1L).parent(newCategory(0L));
+        for (long i = 1; i <= relationships; i++) {
+            Product related = newProduct(i).wishList(wishList).order(order);
+            related.addCategory(category);
+            related.addCategory(newCategory(i + 1));
+            order.addProduct(related);
+        }
+        product = order.getProducts().iterator().next();
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] serializeOrder() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] serializeCategory() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(category);
+    }
+
+    private static Product newProduct(long id) {
+        return new Product()
+            .id(id)
+            .title("Product " + id)
+            .keywords("sample, benchmark")
+            .description("A product used to benchmark the JSON serialization of the catalog")
+            .rating(4)
+            .price(BigDecimal.valueOf(id * 100 + 99, 2))
+            .quantityInStock(100)
+            .status(ProductStatus.IN_STOCK)
+            .weight(1.5)
+            .dimensions("10x20x30")
+            .dateAdded(Instant.now())
+            .dateModified(Instant.now());
+    }
+
+    private static Category newCategory(long id) {
+        return new Category()
+            .id(id)
+            .description("Category " + id)
+            .sortOrder((int) id)
+            .dateAdded(Instant.now())
+            .status(CategoryStatus.AVAILABLE);
+    }
+}
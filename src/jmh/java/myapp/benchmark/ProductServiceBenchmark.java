@@ -0,0 +1,52 @@
+package myapp.benchmark;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import myapp.domain.Product;
+import myapp.domain.enumeration.ProductStatus;
+import myapp.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark of {@link ProductService#partialUpdate(Product)}: load, merge, flush and commit of a single field change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private ProductService productService;
+
+    private Long productId;
+
+    private int stock;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationContextState application) {
+        productService = application.getBean(ProductService.class);
+        // The faker products do not pass bean validation, which partialUpdate applies on flush
+        productId = productService
+            .save(
+                new Product()
+                    .title("Benchmark product")
+                    .description("A product created to benchmark partial updates of the catalog entries")
+                    .price(BigDecimal.TEN)
+                    .quantityInStock(0)
+                    .status(ProductStatus.IN_STOCK)
+                    .dateAdded(Instant.now())
+            )
+            .getId();
+    }
+
+    @Benchmark
+    public Optional<Product> partialUpdate() {
+        // A different value each time, so that every call really flushes an update
+        stock = (stock + 1) % 1000;
+        return productService.partialUpdate(new Product().id(productId).quantityInStock(stock));
+    }
+}
@@ -0,0 +1,59 @@
+package myapp.benchmark;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import myapp.domain.Authority;
+import myapp.domain.User;
+import myapp.security.AuthoritiesConstants;
+import myapp.service.dto.UserDTO;
+import myapp.service.mapper.UserMapper;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark of {@link UserMapper#usersToUserDTOs(List)}, as used by the public user listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    @Param({ "20", "1000" })
+    private int size;
+
+    private final UserMapper userMapper = new UserMapper();
+
+    private List<User> users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Set<Authority> authorities = Set.of(
+            new Authority().name(AuthoritiesConstants.USER),
+            new Authority().name(AuthoritiesConstants.ADMIN)
+        );
+        users = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            User user = new User();
+            user.setId(i);
+            user.setLogin("user-" + i);
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setEmail("user-" + i + "@localhost");
+            user.setActivated(true);
+            user.setLangKey("en");
+            user.setCreatedDate(Instant.now());
+            user.setAuthorities(authorities);
+            users.add(user);
+        }
+    }
+
+    @Benchmark
+    public List<UserDTO> usersToUserDTOs() {
+        return userMapper.usersToUserDTOs(users);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * JMH benchmarks, run with the {@code jmh} Maven profile.
+ */
+package myapp.benchmark;
@@ -3,29 +3,33 @@ package myapp.aop.logging;
 import java.util.Arrays;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.env.Environment;
-import org.springframework.core.env.Profiles;
-import tech.jhipster.config.JHipsterConstants;
 
 /**
  * Aspect for logging execution of service and repository Spring components.
  *
- * By default, it only runs with the "dev" profile.
+ * By default, it only runs with the "dev" profile, exceptions being logged where they end a request, by
+ * {@link myapp.web.rest.errors.ExceptionTranslator}.
  */
 @Aspect
 public class LoggingAspect {
 
-    private final Environment env;
+    /**
+     * Pointcut expression matching the beans advised by the logging aspect and the method timing interceptor.
+     */
+    public static final String APPLICATION_BEANS =
+        "myapp.aop.logging.LoggingAspect.applicationPackagePointcut() && myapp.aop.logging.LoggingAspect.springBeanPointcut()";
 
-    public LoggingAspect(Environment env) {
-        this.env = env;
-    }
+    private static final ClassValue<Logger> LOGGERS = new ClassValue<>() {
+        @Override
+        protected Logger computeValue(Class<?> type) {
+            return LoggerFactory.getLogger(type);
+        }
+    };
 
     /**
      * Pointcut that matches all repositories, services and Web REST endpoints.
@@ -48,38 +52,13 @@ public class LoggingAspect {
     }
 
     /**
-     * Retrieves the {@link Logger} associated to the given {@link JoinPoint}.
+     * Retrieves the {@link Logger} associated to the given {@link JoinPoint}, looked up once per declaring type.
      *
      * @param joinPoint join point we want the logger for.
      * @return {@link Logger} associated to the given {@link JoinPoint}.
      */
-    private Logger logger(JoinPoint joinPoint) {
-        return LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
-    }
-
-    /**
-     * Advice that logs methods throwing exceptions.
-     *
-     * @param joinPoint join point for advice.
-     * @param e exception.
-     */
-    @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
-    public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
-        if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
-            logger(joinPoint).error(
-                "Exception in {}() with cause = '{}' and exception = '{}'",
-                joinPoint.getSignature().getName(),
-                e.getCause() != null ? e.getCause() : "NULL",
-                e.getMessage(),
-                e
-            );
-        } else {
-            logger(joinPoint).error(
-                "Exception in {}() with cause = {}",
-                joinPoint.getSignature().getName(),
-                e.getCause() != null ? String.valueOf(e.getCause()) : "NULL"
-            );
-        }
+    static Logger logger(JoinPoint joinPoint) {
+        return LOGGERS.get(joinPoint.getSignature().getDeclaringType());
     }
 
     /**
@@ -0,0 +1,87 @@
+package myapp.aop.logging;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import myapp.config.ApplicationProperties;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Interceptor timing a sample of the calls to the service, repository and Web REST Spring components, in the
+ * {@code method.timed} timer tagged by class, method and exception.
+ * <p>
+ * Only {@code application.method-timing.sample-rate} of the calls are timed: the other ones cost a random draw, and the
+ * counts of the timers are to be divided by the sample rate. Being a plain method interceptor, it does not build any
+ * join point.
+ */
+public class MethodTimingInterceptor implements MethodInterceptor {
+
+    public static final String METER_NAME = "method.timed";
+
+    private static final String METER_DESCRIPTION = "Durations of a sample of the calls to the application components";
+
+    private static final String NO_EXCEPTION = "none";
+
+    private static final ClassValue<String> TYPE_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            if (Proxy.isProxyClass(type) && type.getInterfaces().length > 0) {
+                // Spring Data repositories: the repository interface comes first
+                return type.getInterfaces()[0].getSimpleName();
+            }
+            return ClassUtils.getUserClass(type).getSimpleName();
+        }
+    };
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final ApplicationProperties.MethodTiming properties;
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public MethodTimingInterceptor(ObjectProvider<MeterRegistry> meterRegistry, ApplicationProperties.MethodTiming properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        Class<?> exception = null;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass();
+            throw e;
+        } finally {
+            Object target = invocation instanceof ProxyMethodInvocation proxyInvocation ? proxyInvocation.getProxy() : invocation.getThis();
+            timers
+                .computeIfAbsent(new TimerKey(target.getClass(), invocation.getMethod(), exception), this::timer)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(TimerKey key) {
+        return Timer.builder(METER_NAME)
+            .description(METER_DESCRIPTION)
+            .tag("class", TYPE_NAMES.get(key.type()))
+            .tag("method", key.method().getName())
+            .tag("exception", key.exception() != null ? key.exception().getSimpleName() : NO_EXCEPTION)
+            .publishPercentileHistogram(properties.isPercentileHistogram())
+            .register(meterRegistry.getObject());
+    }
+
+    private record TimerKey(Class<?> type, Method method, Class<?> exception) {}
+}
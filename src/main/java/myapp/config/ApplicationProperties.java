@@ -1,5 +1,11 @@
 package myapp.config;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +19,102 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Cache cache = new Cache();
+
+    private final StockReservation stockReservation = new StockReservation();
+
+    private final JwtCache jwtCache = new JwtCache();
+
+    private final Bulk bulk = new Bulk();
+
+    private final OrderExport orderExport = new OrderExport();
+
+    private final CategoryListing categoryListing = new CategoryListing();
+
+    private final Outbox outbox = new Outbox();
+
+    private final MailQueue mailQueue = new MailQueue();
+
+    private final Threads threads = new Threads();
+
+    private final MethodTiming methodTiming = new MethodTiming();
+
+    private final RequestStatements requestStatements = new RequestStatements();
+
+    private final ReadReplicas readReplicas = new ReadReplicas();
+
+    private final ProductFacets productFacets = new ProductFacets();
+
+    private final CustomerOverview customerOverview = new CustomerOverview();
+
+    private final OrderPartitions orderPartitions = new OrderPartitions();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Cache getCache() {
+        return cache;
+    }
+
+    public StockReservation getStockReservation() {
+        return stockReservation;
+    }
+
+    public JwtCache getJwtCache() {
+        return jwtCache;
+    }
+
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public OrderExport getOrderExport() {
+        return orderExport;
+    }
+
+    public CategoryListing getCategoryListing() {
+        return categoryListing;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public MailQueue getMailQueue() {
+        return mailQueue;
+    }
+
+    public Threads getThreads() {
+        return threads;
+    }
+
+    public MethodTiming getMethodTiming() {
+        return methodTiming;
+    }
+
+    public RequestStatements getRequestStatements() {
+        return requestStatements;
+    }
+
+    public ReadReplicas getReadReplicas() {
+        return readReplicas;
+    }
+
+    public ProductFacets getProductFacets() {
+        return productFacets;
+    }
+
+    public CustomerOverview getCustomerOverview() {
+        return customerOverview;
+    }
+
+    public OrderPartitions getOrderPartitions() {
+        return orderPartitions;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +129,795 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Cache {
+
+        /**
+         * Per-region overrides of the {@code jhipster.cache.caffeine} defaults, keyed by cache (region) name.
+         */
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public static class Region {
+
+            private Long maxEntries;
+
+            private Long timeToLiveSeconds;
+
+            private Long timeToIdleSeconds;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public Long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public Long getTimeToIdleSeconds() {
+                return timeToIdleSeconds;
+            }
+
+            public void setTimeToIdleSeconds(Long timeToIdleSeconds) {
+                this.timeToIdleSeconds = timeToIdleSeconds;
+            }
+        }
+    }
+
+    public static class StockReservation {
+
+        /**
+         * How long the stock of a placed order stays reserved if the order is not confirmed.
+         */
+        private Duration timeToLive = Duration.ofMinutes(15);
+
+        /**
+         * Delay between two runs of the job releasing expired reservations.
+         */
+        private Duration releaseInterval = Duration.ofSeconds(30);
+
+        /**
+         * Maximum number of orders released by one run of the job.
+         */
+        private int releaseBatchSize = 100;
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Duration getReleaseInterval() {
+            return releaseInterval;
+        }
+
+        public void setReleaseInterval(Duration releaseInterval) {
+            this.releaseInterval = releaseInterval;
+        }
+
+        public int getReleaseBatchSize() {
+            return releaseBatchSize;
+        }
+
+        public void setReleaseBatchSize(int releaseBatchSize) {
+            this.releaseBatchSize = releaseBatchSize;
+        }
+    }
+
+    public static class JwtCache {
+
+        /**
+         * Maximum number of decoded tokens kept until they expire.
+         */
+        private long maxEntries = 10000;
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    public static class Bulk {
+
+        /**
+         * Number of rows sent in one JDBC batch, and written between two clears of the persistence context.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Maximum number of rows accepted by one bulk request.
+         */
+        private int maxRows = 10000;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxRows() {
+            return maxRows;
+        }
+
+        public void setMaxRows(int maxRows) {
+            this.maxRows = maxRows;
+        }
+    }
+
+    public static class OrderExport {
+
+        /**
+         * Number of rows fetched from the database cursor in one round-trip.
+         */
+        private int fetchSize = 500;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+    }
+
+    public static class CategoryListing {
+
+        /**
+         * Maximum number of products listed with each category.
+         */
+        private int maxProductsPerCategory = 20;
+
+        /**
+         * Maximum number of categories whose products are read by one query.
+         */
+        private int batchSize = 50;
+
+        public int getMaxProductsPerCategory() {
+            return maxProductsPerCategory;
+        }
+
+        public void setMaxProductsPerCategory(int maxProductsPerCategory) {
+            this.maxProductsPerCategory = maxProductsPerCategory;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class Outbox {
+
+        /**
+         * Delay between two polls of the outbox by the relay.
+         */
+        private Duration relayInterval = Duration.ofSeconds(1);
+
+        /**
+         * Maximum number of events read, delivered and marked by one relay transaction.
+         */
+        private int batchSize = 200;
+
+        /**
+         * Delay between two compactions of the delivered events.
+         */
+        private Duration compactionInterval = Duration.ofHours(1);
+
+        /**
+         * How long delivered events are kept before being compacted: only the latest event of each aggregate
+         * is kept past this, until it is a deletion.
+         */
+        private Duration retention = Duration.ofDays(7);
+
+        /**
+         * Delay before the first retry of an event a sink failed to deliver, doubled after each failed attempt.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(1);
+
+        /**
+         * Maximum delay between two attempts of an event.
+         */
+        private Duration maxBackoff = Duration.ofMinutes(5);
+
+        private final InProcessSink inProcessSink = new InProcessSink();
+
+        private final FileSink fileSink = new FileSink();
+
+        public Duration getRelayInterval() {
+            return relayInterval;
+        }
+
+        public void setRelayInterval(Duration relayInterval) {
+            this.relayInterval = relayInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getCompactionInterval() {
+            return compactionInterval;
+        }
+
+        public void setCompactionInterval(Duration compactionInterval) {
+            this.compactionInterval = compactionInterval;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public InProcessSink getInProcessSink() {
+            return inProcessSink;
+        }
+
+        public FileSink getFileSink() {
+            return fileSink;
+        }
+
+        public static class InProcessSink {
+
+            /**
+             * Whether events are published to the {@code @EventListener}s of the application.
+             */
+            private boolean enabled = true;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+        }
+
+        public static class FileSink {
+
+            /**
+             * Whether events are appended to a newline-delimited JSON file, for consumers outside the application.
+             */
+            private boolean enabled = false;
+
+            /**
+             * The file events are appended to.
+             */
+            private String path = "outbox/events.ndjson";
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getPath() {
+                return path;
+            }
+
+            public void setPath(String path) {
+                this.path = path;
+            }
+        }
+    }
+
+    public static class MailQueue {
+
+        /**
+         * Number of threads sending the queued emails.
+         */
+        private int senderThreads = 2;
+
+        /**
+         * Maximum number of emails claimed by a sender and sent over one SMTP connection.
+         */
+        private int batchSize = 50;
+
+        /**
+         * Delay between two polls of the queue for emails due, on top of the sends started when emails are queued.
+         */
+        private Duration pollInterval = Duration.ofSeconds(5);
+
+        /**
+         * How long an email claimed by a sender is left to it, before another sender takes it over.
+         */
+        private Duration claimTimeout = Duration.ofMinutes(5);
+
+        /**
+         * Number of attempts after which an email is given up.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Delay before the first retry of an email, doubled after each failed attempt.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        /**
+         * Maximum delay between two attempts of an email.
+         */
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        /**
+         * How long sent emails are kept in the queue.
+         */
+        private Duration retention = Duration.ofDays(7);
+
+        public int getSenderThreads() {
+            return senderThreads;
+        }
+
+        public void setSenderThreads(int senderThreads) {
+            this.senderThreads = senderThreads;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public Duration getClaimTimeout() {
+            return claimTimeout;
+        }
+
+        public void setClaimTimeout(Duration claimTimeout) {
+            this.claimTimeout = claimTimeout;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
+
+    public static class Threads {
+
+        /**
+         * Maximum number of JDBC connections held at once in virtual-thread mode, the maximum size of the Hikari pool if not set.
+         */
+        private Integer jdbcPermits;
+
+        /**
+         * How long a thread waits for a JDBC connection permit before failing.
+         */
+        private Duration jdbcPermitTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Minimum duration of the virtual thread pinnings recorded in the {@code jvm.threads.virtual.pinned} metric.
+         */
+        private Duration pinnedThreshold = Duration.ofMillis(20);
+
+        public Integer getJdbcPermits() {
+            return jdbcPermits;
+        }
+
+        public void setJdbcPermits(Integer jdbcPermits) {
+            this.jdbcPermits = jdbcPermits;
+        }
+
+        public Duration getJdbcPermitTimeout() {
+            return jdbcPermitTimeout;
+        }
+
+        public void setJdbcPermitTimeout(Duration jdbcPermitTimeout) {
+            this.jdbcPermitTimeout = jdbcPermitTimeout;
+        }
+
+        public Duration getPinnedThreshold() {
+            return pinnedThreshold;
+        }
+
+        public void setPinnedThreshold(Duration pinnedThreshold) {
+            this.pinnedThreshold = pinnedThreshold;
+        }
+    }
+
+    public static class MethodTiming {
+
+        /**
+         * Whether a sample of the calls to the repositories, services and Web REST endpoints are timed.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Share of the calls timed, between 0 and 1.
+         */
+        private double sampleRate = 0.01;
+
+        /**
+         * Whether the timers publish a percentile histogram: it adds dozens of bucket series to each class, method and
+         * exception timed.
+         */
+        private boolean percentileHistogram = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public boolean isPercentileHistogram() {
+            return percentileHistogram;
+        }
+
+        public void setPercentileHistogram(boolean percentileHistogram) {
+            this.percentileHistogram = percentileHistogram;
+        }
+    }
+
+    public static class RequestStatements {
+
+        /**
+         * Whether the SQL statements issued by each request to the REST API are counted.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of statements loading the same association one owner at a time from which a request is logged as N+1.
+         */
+        private int nPlusOneThreshold = 10;
+
+        /**
+         * Whether the per-request meters publish a percentile histogram.
+         */
+        private boolean percentileHistogram = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getNPlusOneThreshold() {
+            return nPlusOneThreshold;
+        }
+
+        public void setNPlusOneThreshold(int nPlusOneThreshold) {
+            this.nPlusOneThreshold = nPlusOneThreshold;
+        }
+
+        public boolean isPercentileHistogram() {
+            return percentileHistogram;
+        }
+
+        public void setPercentileHistogram(boolean percentileHistogram) {
+            this.percentileHistogram = percentileHistogram;
+        }
+    }
+
+    public static class ReadReplicas {
+
+        /**
+         * Whether read-only transactions are routed to the replicas.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The replicas read-only transactions are balanced over.
+         */
+        private final List<Replica> replicas = new ArrayList<>();
+
+        /**
+         * Delay between two health checks of the replicas.
+         */
+        private Duration healthCheckInterval = Duration.ofSeconds(10);
+
+        /**
+         * How long a replica has to answer a health check.
+         */
+        private Duration healthCheckTimeout = Duration.ofSeconds(2);
+
+        /**
+         * How long the read-only transactions of a user go to the primary after that user wrote, so that the user
+         * reads their own writes despite the replication lag.
+         */
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<Replica> getReplicas() {
+            return replicas;
+        }
+
+        public Duration getHealthCheckInterval() {
+            return healthCheckInterval;
+        }
+
+        public void setHealthCheckInterval(Duration healthCheckInterval) {
+            this.healthCheckInterval = healthCheckInterval;
+        }
+
+        public Duration getHealthCheckTimeout() {
+            return healthCheckTimeout;
+        }
+
+        public void setHealthCheckTimeout(Duration healthCheckTimeout) {
+            this.healthCheckTimeout = healthCheckTimeout;
+        }
+
+        public Duration getReadYourWritesWindow() {
+            return readYourWritesWindow;
+        }
+
+        public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+            this.readYourWritesWindow = readYourWritesWindow;
+        }
+
+        public static class Replica {
+
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            /**
+             * Maximum size of the connection pool of the replica.
+             */
+            private int maximumPoolSize = 10;
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+
+            public int getMaximumPoolSize() {
+                return maximumPoolSize;
+            }
+
+            public void setMaximumPoolSize(int maximumPoolSize) {
+                this.maximumPoolSize = maximumPoolSize;
+            }
+        }
+    }
+
+    public static class ProductFacets {
+
+        /**
+         * Upper bounds, exclusive and in increasing order, of the price bands products are faceted by.
+         */
+        private List<BigDecimal> priceBands = new ArrayList<>(
+            List.of(new BigDecimal("25"), new BigDecimal("50"), new BigDecimal("100"), new BigDecimal("250"), new BigDecimal("1000"))
+        );
+
+        /**
+         * Upper bounds, exclusive and in increasing order, of the weight bands products are faceted by.
+         */
+        private List<Double> weightBands = new ArrayList<>(List.of(0.5, 1d, 2d, 5d, 10d, 20d));
+
+        public List<BigDecimal> getPriceBands() {
+            return priceBands;
+        }
+
+        public void setPriceBands(List<BigDecimal> priceBands) {
+            this.priceBands = priceBands;
+        }
+
+        public List<Double> getWeightBands() {
+            return weightBands;
+        }
+
+        public void setWeightBands(List<Double> weightBands) {
+            this.weightBands = weightBands;
+        }
+    }
+
+    public static class CustomerOverview {
+
+        /**
+         * Number of most recent orders listed in the overview of a customer.
+         */
+        private int recentOrders = 10;
+
+        public int getRecentOrders() {
+            return recentOrders;
+        }
+
+        public void setRecentOrders(int recentOrders) {
+            this.recentOrders = recentOrders;
+        }
+    }
+
+    public static class OrderPartitions {
+
+        /**
+         * Number of months, the current one included, read when listing the recent orders.
+         */
+        private int hotMonths = 3;
+
+        /**
+         * Whether orders are moved to the archive once old enough. Off by default: archived orders are only readable
+         * by id and no longer show up in the order listings.
+         */
+        private boolean archiveEnabled = false;
+
+        /**
+         * Number of months, the current one excluded, after which orders are moved to the archive.
+         */
+        private int archiveAfterMonths = 12;
+
+        /**
+         * Maximum number of orders moved to the archive by one transaction, where {@code jhi_order} is not partitioned.
+         */
+        private int archiveBatchSize = 1000;
+
+        /**
+         * Number of monthly partitions created ahead of the current month.
+         */
+        private int monthsAhead = 2;
+
+        /**
+         * Delay between two runs of the job maintaining the partitions and the archive.
+         */
+        private Duration maintenanceInterval = Duration.ofHours(1);
+
+        public int getHotMonths() {
+            return hotMonths;
+        }
+
+        public void setHotMonths(int hotMonths) {
+            this.hotMonths = hotMonths;
+        }
+
+        public boolean isArchiveEnabled() {
+            return archiveEnabled;
+        }
+
+        public void setArchiveEnabled(boolean archiveEnabled) {
+            this.archiveEnabled = archiveEnabled;
+        }
+
+        public int getArchiveAfterMonths() {
+            return archiveAfterMonths;
+        }
+
+        public void setArchiveAfterMonths(int archiveAfterMonths) {
+            this.archiveAfterMonths = archiveAfterMonths;
+        }
+
+        public int getArchiveBatchSize() {
+            return archiveBatchSize;
+        }
+
+        public void setArchiveBatchSize(int archiveBatchSize) {
+            this.archiveBatchSize = archiveBatchSize;
+        }
+
+        public int getMonthsAhead() {
+            return monthsAhead;
+        }
+
+        public void setMonthsAhead(int monthsAhead) {
+            this.monthsAhead = monthsAhead;
+        }
+
+        public Duration getMaintenanceInterval() {
+            return maintenanceInterval;
+        }
+
+        public void setMaintenanceInterval(Duration maintenanceInterval) {
+            this.maintenanceInterval = maintenanceInterval;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
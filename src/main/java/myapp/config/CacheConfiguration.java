@@ -0,0 +1,110 @@
+package myapp.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.boot.info.GitProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.*;
+import tech.jhipster.config.JHipsterProperties;
+import tech.jhipster.config.cache.PrefixedKeyGenerator;
+
+/**
+ * In-process Caffeine caches, exposed through JCache to Spring and to the Hibernate second-level cache.
+ * <p>
+ * Every cache uses the {@code jhipster.cache.caffeine} defaults unless it has an entry under
+ * {@code application.cache.regions}. Statistics are enabled so that Spring Boot binds hit/miss meters
+ * ({@code cache.gets}) for each cache to Micrometer.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    private GitProperties gitProperties;
+    private BuildProperties buildProperties;
+
+    private final JHipsterProperties.Cache.Caffeine caffeine;
+
+    private final ApplicationProperties.Cache cacheProperties;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.caffeine = jHipsterProperties.getCache().getCaffeine();
+        this.cacheProperties = applicationProperties.getCache();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernatePropertiesCustomizer(javax.cache.CacheManager cacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    @Bean
+    public JCacheManagerCustomizer cacheManagerCustomizer() {
+        return cm -> {
+            createCache(cm, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+            createCache(cm, myapp.repository.UserRepository.USERS_BY_LOGIN_CACHE);
+            createCache(cm, myapp.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, myapp.domain.Authority.class.getName());
+            createCache(cm, myapp.domain.User.class.getName() + ".authorities");
+            createCache(cm, myapp.domain.Category.class.getName());
+            createCache(cm, myapp.domain.Category.class.getName() + ".products");
+            createCache(cm, myapp.domain.Product.class.getName());
+            // jhipster-needle-caffeine-add-entry
+            // Query results are only valid as long as their update timestamps are kept, so this one never expires.
+            createCache(cm, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, new CaffeineConfiguration<>());
+        };
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, jcacheConfiguration(cacheName));
+    }
+
+    private void createCache(
+        javax.cache.CacheManager cm,
+        String cacheName,
+        CaffeineConfiguration<Object, Object> jcacheConfiguration
+    ) {
+        jcacheConfiguration.setStatisticsEnabled(true);
+        javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        } else {
+            cm.createCache(cacheName, jcacheConfiguration);
+        }
+    }
+
+    private CaffeineConfiguration<Object, Object> jcacheConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Region region = cacheProperties.getRegions().getOrDefault(cacheName, new ApplicationProperties.Cache.Region());
+        long maxEntries = region.getMaxEntries() != null ? region.getMaxEntries() : caffeine.getMaxEntries();
+        long timeToLiveSeconds = region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : caffeine.getTimeToLiveSeconds();
+
+        CaffeineConfiguration<Object, Object> caffeineConfiguration = new CaffeineConfiguration<>();
+        caffeineConfiguration.setMaximumSize(OptionalLong.of(maxEntries));
+        caffeineConfiguration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(timeToLiveSeconds)));
+        if (region.getTimeToIdleSeconds() != null) {
+            caffeineConfiguration.setExpireAfterAccess(OptionalLong.of(TimeUnit.SECONDS.toNanos(region.getTimeToIdleSeconds())));
+        }
+        return caffeineConfiguration;
+    }
+
+    @Autowired(required = false)
+    public void setGitProperties(GitProperties gitProperties) {
+        this.gitProperties = gitProperties;
+    }
+
+    @Autowired(required = false)
+    public void setBuildProperties(BuildProperties buildProperties) {
+        this.buildProperties = buildProperties;
+    }
+
+    @Bean
+    public KeyGenerator keyGenerator() {
+        return new PrefixedKeyGenerator(this.gitProperties, this.buildProperties);
+    }
+}
@@ -0,0 +1,137 @@
+package myapp.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * A {@link DataSource} handing out at most a given number of connections at once.
+ * <p>
+ * Threads wait for a permit in arrival order, and a permit is given back when its connection is closed. With virtual
+ * threads, thousands of requests may ask for a connection at the same time: they queue here, cheaply, instead of
+ * piling up in the connection pool and timing out there.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource implements MeterBinder {
+
+    public static final String PERMITS_METER_NAME = "jdbc.permits";
+    public static final String PERMITS_WAIT_METER_NAME = "jdbc.permits.wait";
+
+    private final Semaphore permits;
+
+    private final int maxPermits;
+
+    private final Duration permitTimeout;
+
+    private volatile Timer waitTimer;
+
+    public ConcurrencyLimitedDataSource(DataSource targetDataSource, int maxPermits, Duration permitTimeout) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxPermits, true);
+        this.maxPermits = maxPermits;
+        this.permitTimeout = permitTimeout;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquirePermit();
+        try {
+            return releasingPermitOnClose(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquirePermit();
+        try {
+            return releasingPermitOnClose(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public int getMaxPermits() {
+        return maxPermits;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(PERMITS_METER_NAME, permits, Semaphore::availablePermits)
+            .description("Indicates the number of JDBC connections that can still be handed out.")
+            .tag("state", "available")
+            .register(registry);
+        Gauge.builder(PERMITS_METER_NAME, permits, Semaphore::getQueueLength)
+            .description("Indicates the number of threads waiting for a JDBC connection permit.")
+            .tag("state", "waiting")
+            .register(registry);
+        waitTimer = Timer.builder(PERMITS_WAIT_METER_NAME)
+            .description("Indicates the time spent waiting for a JDBC connection permit.")
+            .register(registry);
+    }
+
+    private void acquirePermit() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(permitTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException(
+                    "No JDBC connection permit available within " + permitTimeout + ", " + permits.getQueueLength() + " threads waiting"
+                );
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a JDBC connection permit", e);
+        } finally {
+            Timer timer = waitTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private Connection releasingPermitOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+            ConcurrencyLimitedDataSource.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                try {
+                    return switch (method.getName()) {
+                        case "close" -> {
+                            try {
+                                yield method.invoke(connection, args);
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    permits.release();
+                                }
+                            }
+                        }
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        default -> method.invoke(connection, args);
+                    };
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            }
+        );
+    }
+}
@@ -1,6 +1,14 @@
 package myapp.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import myapp.aop.logging.LoggingAspect;
+import myapp.aop.logging.MethodTimingInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import tech.jhipster.config.JHipsterConstants;
@@ -11,7 +19,23 @@ public class LoggingAspectConfiguration {
 
     @Bean
     @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
-    public LoggingAspect loggingAspect(Environment env) {
-        return new LoggingAspect(env);
+    public LoggingAspect loggingAspect() {
+        return new LoggingAspect();
+    }
+
+    /**
+     * Times a sample of the calls. Advisors are created along with the bean post-processors, so the properties are bound
+     * here and the meter registry is only looked up once a call is timed.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.method-timing", name = "enabled", havingValue = "true")
+    public static Advisor methodTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistry, Environment env) {
+        ApplicationProperties.MethodTiming properties = Binder.get(env).bindOrCreate(
+            "application.method-timing",
+            ApplicationProperties.MethodTiming.class
+        );
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(LoggingAspect.APPLICATION_BEANS);
+        return new DefaultPointcutAdvisor(pointcut, new MethodTimingInterceptor(meterRegistry, properties));
     }
 }
@@ -0,0 +1,76 @@
+package myapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Routes read-only transactions to the read replicas of {@code application.read-replicas.replicas}, see
+ * {@link ReadReplicaRouter}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReadReplicaConfiguration.class);
+
+    @Bean
+    public ReadReplicaRouter readReplicaRouter(ApplicationProperties applicationProperties, Environment environment) {
+        ApplicationProperties.ReadReplicas readReplicasProperties = applicationProperties.getReadReplicas();
+        ApplicationProperties.Threads threadsProperties = applicationProperties.getThreads();
+        boolean virtualThreads = Threading.VIRTUAL.isActive(environment);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ApplicationProperties.ReadReplicas.Replica> replicasProperties = readReplicasProperties.getReplicas();
+        for (int i = 0; i < replicasProperties.size(); i++) {
+            ApplicationProperties.ReadReplicas.Replica replicaProperties = replicasProperties.get(i);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("Hikari-replica-" + (i + 1));
+            replica.setJdbcUrl(replicaProperties.getUrl());
+            replica.setUsername(replicaProperties.getUsername());
+            replica.setPassword(replicaProperties.getPassword());
+            replica.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            replica.setAutoCommit(false);
+            replica.setReadOnly(true);
+            replicas.put(
+                replica.getPoolName(),
+                virtualThreads
+                    ? new ConcurrencyLimitedDataSource(replica, replica.getMaximumPoolSize(), threadsProperties.getJdbcPermitTimeout())
+                    : replica
+            );
+        }
+        return new ReadReplicaRouter(
+            replicas,
+            readReplicasProperties.getHealthCheckTimeout(),
+            readReplicasProperties.getReadYourWritesWindow()
+        );
+    }
+
+    /**
+     * Wraps the primary {@link DataSource}, once the other post-processors such as
+     * {@link ThreadingConfiguration#jdbcPermitsBeanPostProcessor} wrapped it.
+     */
+    @Bean
+    public static BeanPostProcessor readReplicaBeanPostProcessor(ObjectProvider<ReadReplicaRouter> readReplicaRouter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                LOG.debug("Routing read-only transactions of DataSource '{}' to the read replicas", beanName);
+                return readReplicaRouter.getObject().route(dataSource);
+            }
+        };
+    }
+}
@@ -0,0 +1,201 @@
+package myapp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import myapp.security.SecurityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes the connections of read-only transactions to the read replicas, see {@link #route(DataSource)}.
+ * <p>
+ * Read-only transactions are balanced in turn over the healthy replicas, and go to the primary when none is healthy.
+ * A replica failing to give a connection is deemed unhealthy until the next health check, run every
+ * {@code application.read-replicas.health-check-interval}. Once a user committed a write transaction, the read-only
+ * transactions of that user go to the primary for {@code application.read-replicas.read-your-writes-window}, so that
+ * the user reads their own writes despite the replication lag.
+ */
+public class ReadReplicaRouter implements TransactionExecutionListener, MeterBinder, DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReadReplicaRouter.class);
+
+    public static final String CONNECTIONS_METER_NAME = "jdbc.read-replicas.connections";
+    public static final String HEALTHY_METER_NAME = "jdbc.read-replicas.healthy";
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final Duration healthCheckTimeout;
+
+    private final Cache<String, Boolean> recentWriters;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final LongAdder replicaConnections = new LongAdder();
+
+    private final LongAdder readYourWritesConnections = new LongAdder();
+
+    private final LongAdder fallbackConnections = new LongAdder();
+
+    /**
+     * @param replicas the connection pools of the replicas, by name.
+     * @param healthCheckTimeout how long a replica has to answer a health check.
+     * @param readYourWritesWindow how long the read-only transactions of a user go to the primary after that user wrote.
+     */
+    public ReadReplicaRouter(Map<String, DataSource> replicas, Duration healthCheckTimeout, Duration readYourWritesWindow) {
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.healthCheckTimeout = healthCheckTimeout;
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(readYourWritesWindow).build();
+    }
+
+    /**
+     * Wrap the primary {@link DataSource} so that read-only transactions get their connections from the replicas.
+     * <p>
+     * The connection is only obtained when the first statement runs: the transaction, and whether it is read-only, is
+     * known by then.
+     *
+     * @param primary the primary {@link DataSource}.
+     * @return the routing {@link DataSource}.
+     */
+    public DataSource route(DataSource primary) {
+        return new LazyConnectionDataSourceProxy(new RoutingDataSource(primary));
+    }
+
+    /**
+     * Check whether each replica gives a valid connection.
+     * <p>
+     * This is scheduled to get fired every {@code application.read-replicas.health-check-interval}.
+     */
+    @Scheduled(fixedDelayString = "${application.read-replicas.health-check-interval:10s}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy = isValid(replica);
+            if (healthy != replica.healthy) {
+                if (healthy) {
+                    LOG.info("Read replica {} is back", replica.name);
+                } else {
+                    LOG.warn("Read replica {} failed its health check, reads go to the other replicas or the primary", replica.name);
+                }
+                replica.healthy = healthy;
+            }
+        }
+    }
+
+    private boolean isValid(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            return connection.isValid((int) Math.max(1, healthCheckTimeout.toSeconds()));
+        } catch (SQLException | RuntimeException e) {
+            LOG.debug("Read replica {} health check failed: {}", replica.name, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && transaction.isNewTransaction() && !transaction.isReadOnly()) {
+            SecurityUtils.getCurrentUserLogin().ifPresent(login -> recentWriters.put(login, Boolean.TRUE));
+        }
+    }
+
+    private Connection getReadOnlyConnection(DataSource primary) throws SQLException {
+        if (SecurityUtils.getCurrentUserLogin().map(recentWriters::getIfPresent).isPresent()) {
+            readYourWritesConnections.increment();
+            return primary.getConnection();
+        }
+        int count = replicas.size();
+        int first = Math.floorMod(nextReplica.getAndIncrement(), Math.max(count, 1));
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((first + i) % count);
+            if (replica.healthy) {
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replicaConnections.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    LOG.warn("Read replica {} failed to give a connection, deemed unhealthy until the next health check", replica.name, e);
+                    replica.healthy = false;
+                }
+            }
+        }
+        fallbackConnections.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        connectionsCounter(registry, "replica", replicaConnections);
+        connectionsCounter(registry, "read-your-writes", readYourWritesConnections);
+        connectionsCounter(registry, "fallback", fallbackConnections);
+        Gauge.builder(HEALTHY_METER_NAME, replicas, list -> list.stream().filter(replica -> replica.healthy).count())
+            .description("Indicates the number of read replicas passing their health check.")
+            .register(registry);
+    }
+
+    private static void connectionsCounter(MeterRegistry registry, String route, LongAdder count) {
+        FunctionCounter.builder(CONNECTIONS_METER_NAME, count, LongAdder::sum)
+            .description("Indicates where the connections of read-only transactions were taken from.")
+            .tag("route", route)
+            .register(registry);
+    }
+
+    @Override
+    public void destroy() throws SQLException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource.isWrapperFor(HikariDataSource.class)) {
+                replica.dataSource.unwrap(HikariDataSource.class).close();
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    /**
+     * Gives the connections of read-only transactions from the replicas, and the other ones from the primary.
+     */
+    private class RoutingDataSource extends DelegatingDataSource {
+
+        private RoutingDataSource(DataSource primary) {
+            super(primary);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                return getReadOnlyConnection(obtainTargetDataSource());
+            }
+            return obtainTargetDataSource().getConnection();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package myapp.config;
+
+import java.util.List;
+import myapp.management.RequestStatementsInterceptor;
+import myapp.management.RequestStatementsListener;
+import myapp.management.RequestStatementsMetersService;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Counts the SQL statements issued by each request to the REST API, see {@link RequestStatementsInterceptor}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.request-statements", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestStatementsConfiguration implements WebMvcConfigurer {
+
+    private final RequestStatementsMetersService requestStatementsMetersService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public RequestStatementsConfiguration(
+        RequestStatementsMetersService requestStatementsMetersService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.requestStatementsMetersService = requestStatementsMetersService;
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer requestStatementsHibernatePropertiesCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new RequestStatementsListener());
+            hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, RequestStatementsListener.class.getName());
+            hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(new RequestStatementsIntegrator()));
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry
+            .addInterceptor(new RequestStatementsInterceptor(requestStatementsMetersService, applicationProperties))
+            .addPathPatterns("/api/**");
+    }
+
+    private static class RequestStatementsIntegrator implements Integrator {
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+            RequestStatementsListener.register(sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class));
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            // Nothing to release.
+        }
+    }
+}
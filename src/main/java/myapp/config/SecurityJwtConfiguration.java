@@ -7,6 +7,7 @@ import com.nimbusds.jose.util.Base64;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import myapp.management.SecurityMetersService;
+import myapp.security.CachingJwtDecoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,9 +27,9 @@ public class SecurityJwtConfiguration {
     private String jwtKey;
 
     @Bean
-    public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
+    public JwtDecoder jwtDecoder(SecurityMetersService metersService, ApplicationProperties applicationProperties) {
         NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
-        return token -> {
+        JwtDecoder trackingJwtDecoder = token -> {
             try {
                 return jwtDecoder.decode(token);
             } catch (Exception e) {
@@ -48,6 +49,7 @@ public class SecurityJwtConfiguration {
                 throw e;
             }
         };
+        return new CachingJwtDecoder(trackingJwtDecoder, applicationProperties.getJwtCache().getMaxEntries(), metersService);
     }
 
     @Bean
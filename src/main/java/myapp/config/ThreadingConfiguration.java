@@ -0,0 +1,170 @@
+package myapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.SQLException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowDeploymentInfoCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * Configuration of the threads running the application, platform threads or, with
+ * {@code spring.threads.virtual.enabled} on Java 21, virtual threads.
+ * <p>
+ * In virtual-thread mode servlet requests are dispatched by Undertow to a new virtual thread each, {@code @Async}
+ * methods run on virtual threads (see {@link AsyncConfiguration}) and so do {@code @Scheduled} jobs (through Spring
+ * Boot's {@code SimpleAsyncTaskScheduler}). As blocking is then cheap, JDBC connections are the scarce resource: they
+ * are handed out through a {@link ConcurrencyLimitedDataSource} sized to the Hikari pool.
+ * <p>
+ * The {@code application.threading} gauge tells which mode is running, so that throughput can be compared between
+ * both, and the pinnings of virtual threads on their carrier are recorded with JFR.
+ */
+@Configuration
+public class ThreadingConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThreadingConfiguration.class);
+
+    public static final String THREADING_METER_NAME = "application.threading";
+    public static final String PINNED_METER_NAME = "jvm.threads.virtual.pinned";
+    public static final String SUBMIT_FAILED_METER_NAME = "jvm.threads.virtual.submit-failed";
+
+    private final boolean virtualThreads;
+
+    public ThreadingConfiguration(Environment environment) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        if (!virtualThreads && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            LOG.warn(
+                "Virtual threads are enabled but not available on Java {}, running on platform threads",
+                Runtime.version().feature()
+            );
+        }
+    }
+
+    @Bean
+    public MeterBinder threadingMetrics() {
+        return registry ->
+            Gauge.builder(THREADING_METER_NAME, () -> 1)
+                .description("Indicates whether the application runs on platform or virtual threads.")
+                .tag("mode", virtualThreads ? "virtual" : "platform")
+                .register(registry);
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public UndertowDeploymentInfoCustomizer virtualThreadsDeploymentInfoCustomizer() {
+        return deploymentInfo -> deploymentInfo.setExecutor(new VirtualThreadTaskExecutor("undertow-"));
+    }
+
+    /**
+     * Ordered so that it wraps the Hikari pool before the unordered post-processors, such as
+     * {@link ReadReplicaConfiguration#readReplicaBeanPostProcessor}, wrap it further.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public static BeanPostProcessor jdbcPermitsBeanPostProcessor(ObjectProvider<ApplicationProperties> applicationProperties) {
+        return new JdbcPermitsBeanPostProcessor(applicationProperties);
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public MeterBinder jdbcPermitsMetrics(DataSource dataSource) {
+        return registry -> {
+            try {
+                if (dataSource.isWrapperFor(ConcurrencyLimitedDataSource.class)) {
+                    dataSource.unwrap(ConcurrencyLimitedDataSource.class).bindTo(registry);
+                }
+            } catch (SQLException e) {
+                LOG.warn("Could not bind the JDBC permits metrics", e);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public VirtualThreadPinningMetrics virtualThreadPinningMetrics(ApplicationProperties applicationProperties) {
+        return new VirtualThreadPinningMetrics(applicationProperties.getThreads().getPinnedThreshold());
+    }
+
+    private static class JdbcPermitsBeanPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ApplicationProperties> applicationProperties;
+
+        private JdbcPermitsBeanPostProcessor(ObjectProvider<ApplicationProperties> applicationProperties) {
+            this.applicationProperties = applicationProperties;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource hikariDataSource)) {
+                return bean;
+            }
+            ApplicationProperties.Threads threadsProperties = applicationProperties.getObject().getThreads();
+            int permits = threadsProperties.getJdbcPermits() != null
+                ? threadsProperties.getJdbcPermits()
+                : hikariDataSource.getMaximumPoolSize();
+            LOG.debug("Limiting DataSource '{}' to {} concurrent connections", beanName, permits);
+            return new ConcurrencyLimitedDataSource(hikariDataSource, permits, threadsProperties.getJdbcPermitTimeout());
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+
+    /**
+     * Records the {@code jdk.VirtualThreadPinned} and {@code jdk.VirtualThreadSubmitFailed} JFR events as metrics.
+     */
+    public static class VirtualThreadPinningMetrics implements MeterBinder, DisposableBean {
+
+        private final Duration pinnedThreshold;
+
+        private RecordingStream recordingStream;
+
+        public VirtualThreadPinningMetrics(Duration pinnedThreshold) {
+            this.pinnedThreshold = pinnedThreshold;
+        }
+
+        @Override
+        public synchronized void bindTo(MeterRegistry registry) {
+            Timer pinned = Timer.builder(PINNED_METER_NAME)
+                .description("Indicates the time virtual threads stayed pinned to their carrier thread while blocked.")
+                .register(registry);
+            Counter submitFailed = Counter.builder(SUBMIT_FAILED_METER_NAME)
+                .description("Indicates the number of virtual threads that could not be scheduled.")
+                .register(registry);
+            if (recordingStream == null) {
+                recordingStream = new RecordingStream();
+                recordingStream.enable("jdk.VirtualThreadPinned").withThreshold(pinnedThreshold);
+                recordingStream.enable("jdk.VirtualThreadSubmitFailed");
+                recordingStream.onEvent("jdk.VirtualThreadPinned", event -> pinned.record(event.getDuration()));
+                recordingStream.onEvent("jdk.VirtualThreadSubmitFailed", event -> submitFailed.increment());
+                recordingStream.startAsync();
+            }
+        }
+
+        @Override
+        public synchronized void destroy() {
+            if (recordingStream != null) {
+                recordingStream.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package myapp.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+
+/**
+ * A CatalogVersion: a counter incremented by each transaction writing to a collection of the catalog, see
+ * {@link myapp.service.CatalogVersionService}.
+ */
+@Entity
+@Table(name = "catalog_version")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class CatalogVersion implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(max = 50)
+    @Id
+    @Column(name = "name", length = 50, nullable = false)
+    private String name;
+
+    @NotNull
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public String getName() {
+        return this.name;
+    }
+
+    public CatalogVersion name(String name) {
+        this.setName(name);
+        return this;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public CatalogVersion version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CatalogVersion)) {
+            return false;
+        }
+        return getName() != null && getName().equals(((CatalogVersion) o).getName());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CatalogVersion{" +
+            "name='" + getName() + "'" +
+            ", version=" + getVersion() +
+            "}";
+    }
+}
@@ -1,6 +1,8 @@
 package myapp.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
@@ -8,12 +10,18 @@ import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import myapp.domain.enumeration.CategoryStatus;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 /**
  * A Category.
  */
 @Entity
 @Table(name = "category")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(AuditingEntityListener.class)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Category implements Serializable {
 
@@ -38,14 +46,32 @@ public class Category implements Serializable {
     @Column(name = "date_added", nullable = false)
     private Instant dateAdded;
 
+    @LastModifiedDate
     @Column(name = "date_modified")
     private Instant dateModified;
 
+    /**
+     * Maintained by Hibernate and {@link myapp.service.CategoryService}, it versions the ETags of the category.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @JsonIgnore
+    private Long version;
+
     @NotNull
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private CategoryStatus status;
 
+    /**
+     * The ids of the ancestors of the category and of the category itself, root first, as in {@code /1/5/12/}.
+     * Maintained by {@link myapp.service.CategoryService}, so that a subtree is read with one {@code like} query.
+     */
+    @Size(max = 1000)
+    @Column(name = "path", length = 1000)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String path;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "parent", "products" }, allowSetters = true)
     private Category parent;
@@ -56,6 +82,7 @@ public class Category implements Serializable {
         joinColumns = @JoinColumn(name = "category_id"),
         inverseJoinColumns = @JoinColumn(name = "product_id")
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnoreProperties(value = { "wishList", "order", "categories" }, allowSetters = true)
     private Set<Product> products = new HashSet<>();
 
@@ -126,6 +153,19 @@ public class Category implements Serializable {
         this.dateModified = dateModified;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Category version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public CategoryStatus getStatus() {
         return this.status;
     }
@@ -139,6 +179,19 @@ public class Category implements Serializable {
         this.status = status;
     }
 
+    public String getPath() {
+        return this.path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public Category path(String path) {
+        this.setPath(path);
+        return this;
+    }
+
     public Category getParent() {
         return this.parent;
     }
@@ -203,7 +256,9 @@ public class Category implements Serializable {
             ", sortOrder=" + getSortOrder() +
             ", dateAdded='" + getDateAdded() + "'" +
             ", dateModified='" + getDateModified() + "'" +
+            ", version=" + getVersion() +
             ", status='" + getStatus() + "'" +
+            ", path='" + getPath() + "'" +
             "}";
     }
 }
@@ -0,0 +1,261 @@
+package myapp.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import myapp.domain.enumeration.MailMessageStatus;
+import org.hibernate.Length;
+
+/**
+ * A MailMessage: an email queued by {@link myapp.service.MailService}, rendered and ready to be sent by
+ * {@link myapp.service.MailQueueService}.
+ */
+@Entity
+@Table(name = "mail_message")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class MailMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 254)
+    @Column(name = "recipient", length = 254, nullable = false)
+    private String recipient;
+
+    @Size(max = 255)
+    @Column(name = "subject", length = 255)
+    private String subject;
+
+    @Column(name = "content", length = Length.LONG32)
+    private String content;
+
+    @NotNull
+    @Column(name = "multipart", nullable = false)
+    private Boolean multipart;
+
+    @NotNull
+    @Column(name = "html", nullable = false)
+    private Boolean html;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private MailMessageStatus status;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @NotNull
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Size(max = 255)
+    @Column(name = "last_error", length = 255)
+    private String lastError;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public MailMessage id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRecipient() {
+        return this.recipient;
+    }
+
+    public MailMessage recipient(String recipient) {
+        this.setRecipient(recipient);
+        return this;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getSubject() {
+        return this.subject;
+    }
+
+    public MailMessage subject(String subject) {
+        this.setSubject(subject);
+        return this;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getContent() {
+        return this.content;
+    }
+
+    public MailMessage content(String content) {
+        this.setContent(content);
+        return this;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Boolean getMultipart() {
+        return this.multipart;
+    }
+
+    public MailMessage multipart(Boolean multipart) {
+        this.setMultipart(multipart);
+        return this;
+    }
+
+    public void setMultipart(Boolean multipart) {
+        this.multipart = multipart;
+    }
+
+    public Boolean getHtml() {
+        return this.html;
+    }
+
+    public MailMessage html(Boolean html) {
+        this.setHtml(html);
+        return this;
+    }
+
+    public void setHtml(Boolean html) {
+        this.html = html;
+    }
+
+    public MailMessageStatus getStatus() {
+        return this.status;
+    }
+
+    public MailMessage status(MailMessageStatus status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(MailMessageStatus status) {
+        this.status = status;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public MailMessage createdAt(Instant createdAt) {
+        this.setCreatedAt(createdAt);
+        return this;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getNextAttemptAt() {
+        return this.nextAttemptAt;
+    }
+
+    public MailMessage nextAttemptAt(Instant nextAttemptAt) {
+        this.setNextAttemptAt(nextAttemptAt);
+        return this;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Instant getSentAt() {
+        return this.sentAt;
+    }
+
+    public MailMessage sentAt(Instant sentAt) {
+        this.setSentAt(sentAt);
+        return this;
+    }
+
+    public void setSentAt(Instant sentAt) {
+        this.sentAt = sentAt;
+    }
+
+    public Integer getAttempts() {
+        return this.attempts;
+    }
+
+    public MailMessage attempts(Integer attempts) {
+        this.setAttempts(attempts);
+        return this;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return this.lastError;
+    }
+
+    public MailMessage lastError(String lastError) {
+        this.setLastError(lastError);
+        return this;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MailMessage)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((MailMessage) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MailMessage{" +
+            "id=" + getId() +
+            ", recipient='" + getRecipient() + "'" +
+            ", subject='" + getSubject() + "'" +
+            ", multipart='" + getMultipart() + "'" +
+            ", html='" + getHtml() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", createdAt='" + getCreatedAt() + "'" +
+            ", nextAttemptAt='" + getNextAttemptAt() + "'" +
+            ", sentAt='" + getSentAt() + "'" +
+            ", attempts=" + getAttempts() +
+            ", lastError='" + getLastError() + "'" +
+            "}";
+    }
+}
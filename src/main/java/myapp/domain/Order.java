@@ -8,12 +8,14 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * A Order.
  */
 @Entity
 @Table(name = "jhi_order")
+@DynamicUpdate
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Order implements Serializable {
 
@@ -50,6 +52,10 @@ public class Order implements Serializable {
     @Column(name = "tracking_number", length = 50)
     private String trackingNumber;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "order")
     @JsonIgnoreProperties(value = { "wishList", "order", "categories" }, allowSetters = true)
     private Set<Product> products = new HashSet<>();
@@ -155,6 +161,19 @@ public class Order implements Serializable {
         this.trackingNumber = trackingNumber;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Order version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Set<Product> getProducts() {
         return this.products;
     }
@@ -242,6 +261,7 @@ public class Order implements Serializable {
             ", totalAmount=" + getTotalAmount() +
             ", shippingCost=" + getShippingCost() +
             ", trackingNumber='" + getTrackingNumber() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
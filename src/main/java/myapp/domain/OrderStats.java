@@ -0,0 +1,173 @@
+package myapp.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import myapp.domain.enumeration.OrderStatsGranularity;
+
+/**
+ * An OrderStats: the number and amounts of the {@link Order}s of one status placed in one hour or day, maintained by
+ * {@link myapp.service.OrderStatsService}.
+ */
+@Entity
+@Table(name = "order_stats")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class OrderStats implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", length = 10, nullable = false)
+    private OrderStatsGranularity granularity;
+
+    @NotNull
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @NotNull
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @NotNull
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @NotNull
+    @Column(name = "total_amount", precision = 21, scale = 2, nullable = false)
+    private BigDecimal totalAmount;
+
+    @NotNull
+    @Column(name = "shipping_cost", precision = 21, scale = 2, nullable = false)
+    private BigDecimal shippingCost;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public OrderStats id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public OrderStatsGranularity getGranularity() {
+        return this.granularity;
+    }
+
+    public OrderStats granularity(OrderStatsGranularity granularity) {
+        this.setGranularity(granularity);
+        return this;
+    }
+
+    public void setGranularity(OrderStatsGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public Instant getBucketStart() {
+        return this.bucketStart;
+    }
+
+    public OrderStats bucketStart(Instant bucketStart) {
+        this.setBucketStart(bucketStart);
+        return this;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public String getStatus() {
+        return this.status;
+    }
+
+    public OrderStats status(String status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getOrderCount() {
+        return this.orderCount;
+    }
+
+    public OrderStats orderCount(Long orderCount) {
+        this.setOrderCount(orderCount);
+        return this;
+    }
+
+    public void setOrderCount(Long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return this.totalAmount;
+    }
+
+    public OrderStats totalAmount(BigDecimal totalAmount) {
+        this.setTotalAmount(totalAmount);
+        return this;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public BigDecimal getShippingCost() {
+        return this.shippingCost;
+    }
+
+    public OrderStats shippingCost(BigDecimal shippingCost) {
+        this.setShippingCost(shippingCost);
+        return this;
+    }
+
+    public void setShippingCost(BigDecimal shippingCost) {
+        this.shippingCost = shippingCost;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OrderStats)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((OrderStats) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OrderStats{" +
+            "id=" + getId() +
+            ", granularity='" + getGranularity() + "'" +
+            ", bucketStart='" + getBucketStart() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", orderCount=" + getOrderCount() +
+            ", totalAmount=" + getTotalAmount() +
+            ", shippingCost=" + getShippingCost() +
+            "}";
+    }
+}
@@ -0,0 +1,225 @@
+package myapp.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import myapp.domain.enumeration.OutboxEventType;
+import org.hibernate.Length;
+
+/**
+ * An OutboxEvent: a change of an aggregate, recorded in the transaction making it and relayed to the outbox sinks
+ * once committed.
+ * <p>
+ * Ids come from a sequence read after the change was flushed, so the events of one aggregate are in id order.
+ */
+@Entity
+@Table(name = "outbox_event")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class OutboxEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outboxEventSequenceGenerator")
+    @SequenceGenerator(name = "outboxEventSequenceGenerator", sequenceName = "outbox_event_sequence", allocationSize = 1)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(name = "aggregate_type", length = 50, nullable = false)
+    private String aggregateType;
+
+    @NotNull
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", length = 20, nullable = false)
+    private OutboxEventType type;
+
+    @Column(name = "payload", length = Length.LONG32)
+    private String payload;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "delivered_at")
+    private Instant deliveredAt;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Size(max = 255)
+    @Column(name = "last_error", length = 255)
+    private String lastError;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public OutboxEvent id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getAggregateType() {
+        return this.aggregateType;
+    }
+
+    public OutboxEvent aggregateType(String aggregateType) {
+        this.setAggregateType(aggregateType);
+        return this;
+    }
+
+    public void setAggregateType(String aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public Long getAggregateId() {
+        return this.aggregateId;
+    }
+
+    public OutboxEvent aggregateId(Long aggregateId) {
+        this.setAggregateId(aggregateId);
+        return this;
+    }
+
+    public void setAggregateId(Long aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public OutboxEventType getType() {
+        return this.type;
+    }
+
+    public OutboxEvent type(OutboxEventType type) {
+        this.setType(type);
+        return this;
+    }
+
+    public void setType(OutboxEventType type) {
+        this.type = type;
+    }
+
+    public String getPayload() {
+        return this.payload;
+    }
+
+    public OutboxEvent payload(String payload) {
+        this.setPayload(payload);
+        return this;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return this.createdAt;
+    }
+
+    public OutboxEvent createdAt(Instant createdAt) {
+        this.setCreatedAt(createdAt);
+        return this;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getDeliveredAt() {
+        return this.deliveredAt;
+    }
+
+    public OutboxEvent deliveredAt(Instant deliveredAt) {
+        this.setDeliveredAt(deliveredAt);
+        return this;
+    }
+
+    public void setDeliveredAt(Instant deliveredAt) {
+        this.deliveredAt = deliveredAt;
+    }
+
+    public Integer getAttempts() {
+        return this.attempts;
+    }
+
+    public OutboxEvent attempts(Integer attempts) {
+        this.setAttempts(attempts);
+        return this;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return this.lastError;
+    }
+
+    public OutboxEvent lastError(String lastError) {
+        this.setLastError(lastError);
+        return this;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getNextAttemptAt() {
+        return this.nextAttemptAt;
+    }
+
+    public OutboxEvent nextAttemptAt(Instant nextAttemptAt) {
+        this.setNextAttemptAt(nextAttemptAt);
+        return this;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OutboxEvent)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((OutboxEvent) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+            "id=" + getId() +
+            ", aggregateType='" + getAggregateType() + "'" +
+            ", aggregateId=" + getAggregateId() +
+            ", type='" + getType() + "'" +
+            ", createdAt='" + getCreatedAt() + "'" +
+            ", deliveredAt='" + getDeliveredAt() + "'" +
+            ", attempts=" + getAttempts() +
+            ", nextAttemptAt='" + getNextAttemptAt() + "'" +
+            "}";
+    }
+}
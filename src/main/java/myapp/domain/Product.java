@@ -9,20 +9,32 @@ import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 import myapp.domain.enumeration.ProductStatus;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 /**
  * A Product.
  */
 @Entity
 @Table(name = "product")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(AuditingEntityListener.class)
+@DynamicUpdate
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Product implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Taken from a sequence of its own, {@code product_sequence_generator}, for the bulk writes: each value read from
+     * the sequence ends a block of 50 ids, handed out without asking the database again.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "productSequenceGenerator")
+    @SequenceGenerator(name = "productSequenceGenerator", sequenceName = "product_sequence_generator", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -71,9 +83,14 @@ public class Product implements Serializable {
     @Column(name = "date_added", nullable = false)
     private Instant dateAdded;
 
+    @LastModifiedDate
     @Column(name = "date_modified")
     private Instant dateModified;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "products", "customer" }, allowSetters = true)
     private WishList wishList;
@@ -244,6 +261,19 @@ public class Product implements Serializable {
         this.dateModified = dateModified;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Product version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public WishList getWishList() {
         return this.wishList;
     }
@@ -336,6 +366,7 @@ public class Product implements Serializable {
             ", dimensions='" + getDimensions() + "'" +
             ", dateAdded='" + getDateAdded() + "'" +
             ", dateModified='" + getDateModified() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
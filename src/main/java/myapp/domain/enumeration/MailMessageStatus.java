@@ -0,0 +1,10 @@
+package myapp.domain.enumeration;
+
+/**
+ * The MailMessageStatus enumeration.
+ */
+public enum MailMessageStatus {
+    PENDING,
+    SENT,
+    FAILED,
+}
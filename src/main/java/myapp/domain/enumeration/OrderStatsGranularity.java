@@ -0,0 +1,21 @@
+package myapp.domain.enumeration;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The OrderStatsGranularity enumeration: the width of the time buckets of the order statistics, in UTC.
+ */
+public enum OrderStatsGranularity {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    OrderStatsGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+}
@@ -0,0 +1,11 @@
+package myapp.domain.enumeration;
+
+/**
+ * The OutboxEventType enumeration: {@code SAVED} and {@code DELETED} carry the state of an aggregate, {@code CHANGED}
+ * one change of it, to be applied on top of the previous ones.
+ */
+public enum OutboxEventType {
+    SAVED,
+    DELETED,
+    CHANGED,
+}
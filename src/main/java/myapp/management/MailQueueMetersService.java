@@ -0,0 +1,75 @@
+package myapp.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Service;
+
+@Service
+public class MailQueueMetersService {
+
+    public static final String QUEUE_DEPTH_METER_NAME = "mail.queue.depth";
+    public static final String QUEUE_DEPTH_METER_DESCRIPTION = "Indicates the number of emails waiting to be sent.";
+    public static final String QUEUE_DEPTH_METER_BASE_UNIT = "emails";
+
+    public static final String LATENCY_METER_NAME = "mail.queue.latency";
+    public static final String LATENCY_METER_DESCRIPTION = "Indicates the time from the queuing of the emails to their sending.";
+
+    public static final String BATCH_METER_NAME = "mail.queue.batch";
+    public static final String BATCH_METER_DESCRIPTION = "Indicates the time taken to send a batch of emails over one SMTP connection.";
+
+    public static final String ATTEMPTS_METER_NAME = "mail.queue.attempts";
+    public static final String ATTEMPTS_METER_DESCRIPTION = "Indicates the outcome of the attempts to send the queued emails.";
+    public static final String ATTEMPTS_METER_BASE_UNIT = "emails";
+    public static final String ATTEMPTS_METER_RESULT_DIMENSION = "result";
+
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final Timer latencyTimer;
+    private final Timer batchTimer;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    public MailQueueMetersService(MeterRegistry registry) {
+        Gauge.builder(QUEUE_DEPTH_METER_NAME, queueDepth, AtomicLong::get)
+            .baseUnit(QUEUE_DEPTH_METER_BASE_UNIT)
+            .description(QUEUE_DEPTH_METER_DESCRIPTION)
+            .register(registry);
+        this.latencyTimer = Timer.builder(LATENCY_METER_NAME).description(LATENCY_METER_DESCRIPTION).register(registry);
+        this.batchTimer = Timer.builder(BATCH_METER_NAME).description(BATCH_METER_DESCRIPTION).register(registry);
+        this.sentCounter = attemptsCounterForResultBuilder("sent").register(registry);
+        this.retriedCounter = attemptsCounterForResultBuilder("retried").register(registry);
+        this.failedCounter = attemptsCounterForResultBuilder("failed").register(registry);
+    }
+
+    private Counter.Builder attemptsCounterForResultBuilder(String result) {
+        return Counter.builder(ATTEMPTS_METER_NAME)
+            .baseUnit(ATTEMPTS_METER_BASE_UNIT)
+            .description(ATTEMPTS_METER_DESCRIPTION)
+            .tag(ATTEMPTS_METER_RESULT_DIMENSION, result);
+    }
+
+    public void trackQueueDepth(long depth) {
+        this.queueDepth.set(depth);
+    }
+
+    public void trackBatch(Duration duration) {
+        this.batchTimer.record(duration);
+    }
+
+    public void trackSent(Duration latency) {
+        this.sentCounter.increment();
+        this.latencyTimer.record(latency);
+    }
+
+    public void trackRetried() {
+        this.retriedCounter.increment();
+    }
+
+    public void trackFailed() {
+        this.failedCounter.increment();
+    }
+}
@@ -0,0 +1,89 @@
+package myapp.management;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The SQL statements issued by the request being handled by the current thread, fed by the
+ * {@link RequestStatementsListener} and recorded by the {@link RequestStatementsInterceptor}.
+ */
+public final class RequestStatements {
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+
+    private long jdbcNanos;
+
+    private long executionStart;
+
+    private int rows;
+
+    private String association;
+
+    private final Map<String, Integer> associationStatements = new HashMap<>();
+
+    private RequestStatements() {}
+
+    static void start() {
+        CURRENT.set(new RequestStatements());
+    }
+
+    static RequestStatements current() {
+        return CURRENT.get();
+    }
+
+    static RequestStatements end() {
+        RequestStatements requestStatements = CURRENT.get();
+        CURRENT.remove();
+        return requestStatements;
+    }
+
+    void statementPrepared() {
+        statements++;
+        if (association != null) {
+            associationStatements.merge(association, 1, Integer::sum);
+        }
+    }
+
+    void executionStarted() {
+        executionStart = System.nanoTime();
+    }
+
+    void executionEnded() {
+        if (executionStart != 0) {
+            jdbcNanos += System.nanoTime() - executionStart;
+            executionStart = 0;
+        }
+    }
+
+    void rowLoaded() {
+        rows++;
+    }
+
+    /**
+     * Attribute the statements prepared from now on to the loading of the given association, until it is loaded.
+     */
+    void loadingAssociation(String association) {
+        this.association = association;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * The number of statements loading each association one owner at a time, the N in N+1.
+     */
+    public Map<String, Integer> getAssociationStatements() {
+        return associationStatements;
+    }
+}
@@ -0,0 +1,79 @@
+package myapp.management;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Map;
+import myapp.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Interceptor counting the SQL statements issued by each request to a REST handler, recorded in the
+ * {@link RequestStatementsMetersService} meters tagged by handler, such as {@code ProductResource.getAllProducts}.
+ * <p>
+ * A warning is logged when a request loads the same association one owner at a time with at least
+ * {@code application.request-statements.n-plus-one-threshold} statements.
+ */
+public class RequestStatementsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RequestStatementsInterceptor.class);
+
+    private final RequestStatementsMetersService requestStatementsMetersService;
+
+    private final int nPlusOneThreshold;
+
+    public RequestStatementsInterceptor(
+        RequestStatementsMetersService requestStatementsMetersService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.requestStatementsMetersService = requestStatementsMetersService;
+        this.nPlusOneThreshold = applicationProperties.getRequestStatements().getNPlusOneThreshold();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod && request.getDispatcherType() == DispatcherType.REQUEST) {
+            RequestStatements.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The rest of the request is handled by another thread.
+        RequestStatements.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return;
+        }
+        RequestStatements requestStatements = RequestStatements.end();
+        if (requestStatements == null) {
+            return;
+        }
+        String handlerName = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        requestStatementsMetersService.trackRequest(
+            handlerName,
+            requestStatements.getStatements(),
+            Duration.ofNanos(requestStatements.getJdbcNanos()),
+            requestStatements.getRows()
+        );
+        for (Map.Entry<String, Integer> association : requestStatements.getAssociationStatements().entrySet()) {
+            if (association.getValue() >= nPlusOneThreshold) {
+                LOG.warn(
+                    "N+1 statements in {}: {} loaded one owner at a time with {} statements, out of {}",
+                    handlerName,
+                    association.getKey(),
+                    association.getValue(),
+                    requestStatements.getStatements()
+                );
+            }
+        }
+    }
+}
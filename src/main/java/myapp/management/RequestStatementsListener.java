@@ -0,0 +1,109 @@
+package myapp.management;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Hibernate hooks feeding the {@link RequestStatements} of the current request, if any: statements prepared, time
+ * spent executing them, entities loaded, and associations loaded one owner at a time.
+ * <p>
+ * Registered as the statement inspector and session events listener of the session factory, its listeners being
+ * added to the event listener registry with {@link #register(EventListenerRegistry)}.
+ */
+public class RequestStatementsListener implements StatementInspector, SessionEventListener {
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatements requestStatements = RequestStatements.current();
+        if (requestStatements != null) {
+            requestStatements.statementPrepared();
+        }
+        return sql;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestStatements requestStatements = RequestStatements.current();
+        if (requestStatements != null) {
+            requestStatements.executionStarted();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestStatements requestStatements = RequestStatements.current();
+        if (requestStatements != null) {
+            requestStatements.executionEnded();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcExecuteStatementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcExecuteStatementEnd();
+    }
+
+    /**
+     * Add the listeners of entity and association loads around the default ones: the statements prepared in between are
+     * attributed to the association loaded, named after its role for a lazy collection, such as
+     * {@code Category.products}, or after the entity for a to-one association.
+     *
+     * @param eventListenerRegistry the event listener registry of the session factory.
+     */
+    public static void register(EventListenerRegistry eventListenerRegistry) {
+        eventListenerRegistry.prependListeners(EventType.INIT_COLLECTION, event -> loadingAssociation(roleName(event)));
+        eventListenerRegistry.appendListeners(EventType.INIT_COLLECTION, event -> loadingAssociation(null));
+        eventListenerRegistry.prependListeners(EventType.LOAD, (event, loadType) -> {
+            if (isAssociationLoad(loadType)) {
+                loadingAssociation(ClassUtils.getShortName(event.getEntityClassName()));
+            }
+        });
+        eventListenerRegistry.appendListeners(EventType.LOAD, (event, loadType) -> {
+            if (isAssociationLoad(loadType)) {
+                loadingAssociation(null);
+            }
+        });
+        eventListenerRegistry.appendListeners(EventType.POST_LOAD, new RowLoadListener());
+    }
+
+    private static String roleName(InitializeCollectionEvent event) {
+        String role = event.getCollection().getRole();
+        return role.substring(role.lastIndexOf('.', role.lastIndexOf('.') - 1) + 1);
+    }
+
+    /**
+     * Whether the entity is loaded to initialize a lazy to-one proxy, or an eager to-one association.
+     */
+    private static boolean isAssociationLoad(LoadEventListener.LoadType loadType) {
+        return loadType == LoadEventListener.IMMEDIATE_LOAD || loadType == LoadEventListener.INTERNAL_LOAD_EAGER;
+    }
+
+    private static void loadingAssociation(String association) {
+        RequestStatements requestStatements = RequestStatements.current();
+        if (requestStatements != null) {
+            requestStatements.loadingAssociation(association);
+        }
+    }
+
+    private static class RowLoadListener implements PostLoadEventListener {
+
+        @Override
+        public void onPostLoad(PostLoadEvent event) {
+            RequestStatements requestStatements = RequestStatements.current();
+            if (requestStatements != null) {
+                requestStatements.rowLoaded();
+            }
+        }
+    }
+}
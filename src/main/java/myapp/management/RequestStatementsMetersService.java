@@ -0,0 +1,70 @@
+package myapp.management;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import myapp.config.ApplicationProperties;
+import org.springframework.stereotype.Service;
+
+@Service
+public class RequestStatementsMetersService {
+
+    public static final String STATEMENTS_METER_NAME = "http.server.requests.jdbc.statements";
+    public static final String STATEMENTS_METER_DESCRIPTION = "Number of SQL statements issued by the requests to a handler.";
+    public static final String STATEMENTS_METER_BASE_UNIT = "statements";
+
+    public static final String TIME_METER_NAME = "http.server.requests.jdbc.time";
+    public static final String TIME_METER_DESCRIPTION = "Time spent executing SQL statements by the requests to a handler.";
+
+    public static final String ROWS_METER_NAME = "http.server.requests.jdbc.rows";
+    public static final String ROWS_METER_DESCRIPTION = "Number of entity rows loaded by the requests to a handler.";
+    public static final String ROWS_METER_BASE_UNIT = "rows";
+
+    public static final String HANDLER_DIMENSION = "handler";
+
+    private final MeterRegistry registry;
+
+    private final boolean percentileHistogram;
+
+    private final Map<String, HandlerMeters> handlerMeters = new ConcurrentHashMap<>();
+
+    public RequestStatementsMetersService(MeterRegistry registry, ApplicationProperties applicationProperties) {
+        this.registry = registry;
+        this.percentileHistogram = applicationProperties.getRequestStatements().isPercentileHistogram();
+    }
+
+    public void trackRequest(String handler, int statements, Duration jdbcTime, int rows) {
+        HandlerMeters meters = handlerMeters.computeIfAbsent(handler, this::handlerMeters);
+        meters.statements().record(statements);
+        meters.time().record(jdbcTime.toNanos(), TimeUnit.NANOSECONDS);
+        meters.rows().record(rows);
+    }
+
+    private HandlerMeters handlerMeters(String handler) {
+        return new HandlerMeters(
+            DistributionSummary.builder(STATEMENTS_METER_NAME)
+                .baseUnit(STATEMENTS_METER_BASE_UNIT)
+                .description(STATEMENTS_METER_DESCRIPTION)
+                .tag(HANDLER_DIMENSION, handler)
+                .publishPercentileHistogram(percentileHistogram)
+                .register(registry),
+            Timer.builder(TIME_METER_NAME)
+                .description(TIME_METER_DESCRIPTION)
+                .tag(HANDLER_DIMENSION, handler)
+                .publishPercentileHistogram(percentileHistogram)
+                .register(registry),
+            DistributionSummary.builder(ROWS_METER_NAME)
+                .baseUnit(ROWS_METER_BASE_UNIT)
+                .description(ROWS_METER_DESCRIPTION)
+                .tag(HANDLER_DIMENSION, handler)
+                .publishPercentileHistogram(percentileHistogram)
+                .register(registry)
+        );
+    }
+
+    private record HandlerMeters(DistributionSummary statements, Timer time, DistributionSummary rows) {}
+}
@@ -1,7 +1,12 @@
 package myapp.repository;
 
+import java.util.List;
 import myapp.domain.Address;
+import myapp.service.dto.AddressDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +14,17 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AddressRepository extends JpaRepository<Address, Long> {}
+public interface AddressRepository extends JpaRepository<Address, Long> {
+    @Query(
+        value = "select new myapp.service.dto.AddressDTO(address.id, address.address1, address.address2, address.city, address.postcode," +
+        " address.country, address.customer.id) from Address address",
+        countQuery = "select count(address) from Address address"
+    )
+    Page<AddressDTO> findAllProjectedBy(Pageable pageable);
+
+    @Query(
+        "select new myapp.service.dto.AddressDTO(address.id, address.address1, address.address2, address.city, address.postcode," +
+        " address.country, address.customer.id) from Address address where address.customer.id = :customerId order by address.id"
+    )
+    List<AddressDTO> findAllProjectedByCustomerId(@Param("customerId") Long customerId);
+}
@@ -1,5 +1,9 @@
 package myapp.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
+import jakarta.persistence.QueryHint;
+import java.util.List;
 import myapp.domain.Authority;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
@@ -9,4 +13,8 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AuthorityRepository extends JpaRepository<Authority, String> {}
+public interface AuthorityRepository extends JpaRepository<Authority, String> {
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<Authority> findAll();
+}
@@ -0,0 +1,21 @@
+package myapp.repository;
+
+import java.util.Optional;
+import myapp.domain.CatalogVersion;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the CatalogVersion entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, String> {
+    @Query("select catalogVersion.version from CatalogVersion catalogVersion where catalogVersion.name = :name")
+    Optional<Long> findVersionByName(@Param("name") String name);
+
+    @Modifying
+    @Query("update CatalogVersion catalogVersion set catalogVersion.version = catalogVersion.version + 1 where catalogVersion.name = :name")
+    int incrementVersion(@Param("name") String name);
+}
@@ -1,11 +1,17 @@
 package myapp.repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import myapp.domain.Category;
+import myapp.service.dto.CategoryNodeDTO;
+import myapp.service.dto.CollectionVersionDTO;
+import myapp.service.dto.EntityVersionDTO;
+import myapp.service.dto.ProductCategoryDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -27,4 +33,53 @@ public interface CategoryRepository extends CategoryRepositoryWithBagRelationshi
     default Page<Category> findAllWithEagerRelationships(Pageable pageable) {
         return this.fetchBagRelationships(this.findAll(pageable));
     }
+
+    @Query(value = "select category.id from Category category", countQuery = "select count(category) from Category category")
+    Page<Long> findAllIds(Pageable pageable);
+
+    @Query(
+        "select new myapp.service.dto.EntityVersionDTO(category.version, category.dateModified) from Category category" +
+        " where category.id = :id"
+    )
+    Optional<EntityVersionDTO> findEntityVersionById(@Param("id") Long id);
+
+    @Query(
+        "select new myapp.service.dto.CollectionVersionDTO(count(product), max(product.dateModified), sum(product.id)," +
+        " sum(product.version)) from Category category join category.products product where category.id = :id"
+    )
+    CollectionVersionDTO findProductsVersion(@Param("id") Long id);
+
+    @Query(
+        "select new myapp.service.dto.CategoryNodeDTO(category.id, category.parent.id, category.description, category.sortOrder," +
+        " category.status, category.path) from Category category where category.path like concat(:path, '%') order by category.path"
+    )
+    List<CategoryNodeDTO> findSubtree(@Param("path") String path);
+
+    @Query(
+        "select new myapp.service.dto.CategoryNodeDTO(category.id, category.parent.id, category.description, category.sortOrder," +
+        " category.status, category.path) from Category category where category.id in :ids order by category.path"
+    )
+    List<CategoryNodeDTO> findNodes(@Param("ids") List<Long> ids);
+
+    /**
+     * Find every product-category membership. Used to (re)build in-memory indexes.
+     */
+    @Query(
+        "select new myapp.service.dto.ProductCategoryDTO(product.id, category.id) from Category category join category.products product"
+    )
+    List<ProductCategoryDTO> findAllProductMemberships();
+
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "update Category category set category.path = concat(:newPath, substring(category.path, length(:oldPath) + 1))," +
+        " category.dateModified = :now, category.version = category.version + 1 where category.path like concat(:oldPath, '%')"
+    )
+    int movePaths(@Param("oldPath") String oldPath, @Param("newPath") String newPath, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "update Category category set category.parent = :newParent, category.dateModified = :now, category.version = category.version + 1" +
+        " where category.parent.id = :parentId"
+    )
+    int reparentChildren(@Param("parentId") Long parentId, @Param("newParent") Category newParent, @Param("now") Instant now);
 }
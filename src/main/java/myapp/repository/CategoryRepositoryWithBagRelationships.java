@@ -1,8 +1,10 @@
 package myapp.repository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import myapp.domain.Category;
+import myapp.service.dto.ProductSummaryDTO;
 import org.springframework.data.domain.Page;
 
 public interface CategoryRepositoryWithBagRelationships {
@@ -11,4 +13,22 @@ public interface CategoryRepositoryWithBagRelationships {
     List<Category> fetchBagRelationships(List<Category> categories);
 
     Page<Category> fetchBagRelationships(Page<Category> categories);
+
+    /**
+     * Load categories by id, from the second-level cache when possible, the others with one query.
+     *
+     * @param ids the ids of the categories.
+     * @return the existing categories, in the order of {@code ids}.
+     */
+    List<Category> loadAllInOrder(List<Long> ids);
+
+    /**
+     * Load the first products of each category, by product id, with one query per batch of categories.
+     *
+     * @param categoryIds the ids of the categories.
+     * @param maxProductsPerCategory the maximum number of products loaded for one category.
+     * @param batchSize the maximum number of categories per query.
+     * @return the products of each category having some.
+     */
+    Map<Long, List<ProductSummaryDTO>> fetchProductSummaries(List<Long> categoryIds, int maxProductsPerCategory, int batchSize);
 }
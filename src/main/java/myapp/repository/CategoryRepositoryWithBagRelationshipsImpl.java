@@ -2,12 +2,21 @@ package myapp.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.IntStream;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import myapp.domain.Category;
+import myapp.domain.enumeration.ProductStatus;
+import myapp.service.dto.ProductSummaryDTO;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 
@@ -17,7 +26,20 @@ import org.springframework.data.domain.PageImpl;
 public class CategoryRepositoryWithBagRelationshipsImpl implements CategoryRepositoryWithBagRelationships {
 
     private static final String ID_PARAMETER = "id";
-    private static final String CATEGORIES_PARAMETER = "categories";
+    private static final String IDS_PARAMETER = "ids";
+    private static final String MAX_PARAMETER = "max";
+
+    /**
+     * Ranks the products of each category by id, so that only the first ones are read. The {@code in} list is
+     * padded by Hibernate ({@code hibernate.query.in_clause_parameter_padding}), which keeps the number of distinct
+     * statements, and of cached plans, logarithmic in the batch size.
+     */
+    private static final String PRODUCT_SUMMARIES_QUERY =
+        "select ranked.categoryId, ranked.id, ranked.title, ranked.price, ranked.status from (" +
+        " select category.id as categoryId, product.id as id, product.title as title, product.price as price, product.status as status," +
+        " row_number() over (partition by category.id order by product.id) as position" +
+        " from Category category join category.products product where category.id in :ids" +
+        ") ranked where ranked.position <= :max order by ranked.categoryId, ranked.position";
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -37,7 +59,35 @@ public class CategoryRepositoryWithBagRelationshipsImpl implements CategoryRepos
         return Optional.of(categories).map(this::fetchProducts).orElse(Collections.emptyList());
     }
 
+    @Override
+    public List<Category> loadAllInOrder(List<Long> ids) {
+        return entityManager.unwrap(Session.class).byMultipleIds(Category.class).multiLoad(ids).stream().filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public Map<Long, List<ProductSummaryDTO>> fetchProductSummaries(List<Long> categoryIds, int maxProductsPerCategory, int batchSize) {
+        Map<Long, List<ProductSummaryDTO>> result = new HashMap<>();
+        for (int from = 0; from < categoryIds.size(); from += batchSize) {
+            entityManager
+                .createQuery(PRODUCT_SUMMARIES_QUERY, Object[].class)
+                .setParameter(IDS_PARAMETER, categoryIds.subList(from, Math.min(from + batchSize, categoryIds.size())))
+                .setParameter(MAX_PARAMETER, maxProductsPerCategory)
+                .getResultStream()
+                .forEach(row ->
+                    result
+                        .computeIfAbsent((Long) row[0], categoryId -> new ArrayList<>())
+                        .add(new ProductSummaryDTO((Long) row[1], (String) row[2], (BigDecimal) row[3], (ProductStatus) row[4]))
+                );
+        }
+        return result;
+    }
+
     Category fetchProducts(Category result) {
+        if (entityManager.contains(result)) {
+            // Initializing the managed collection lets Hibernate serve it from the second-level cache.
+            Hibernate.initialize(result.getProducts());
+            return result;
+        }
         return entityManager
             .createQuery("select category from Category category left join fetch category.products where category.id = :id", Category.class)
             .setParameter(ID_PARAMETER, result.getId())
@@ -45,16 +95,14 @@ public class CategoryRepositoryWithBagRelationshipsImpl implements CategoryRepos
     }
 
     List<Category> fetchProducts(List<Category> categories) {
-        HashMap<Object, Integer> order = new HashMap<>();
-        IntStream.range(0, categories.size()).forEach(index -> order.put(categories.get(index).getId(), index));
-        List<Category> result = entityManager
+        Map<Long, Category> fetched = entityManager
             .createQuery(
-                "select category from Category category left join fetch category.products where category in :categories",
+                "select distinct category from Category category left join fetch category.products where category.id in :ids",
                 Category.class
             )
-            .setParameter(CATEGORIES_PARAMETER, categories)
-            .getResultList();
-        Collections.sort(result, (o1, o2) -> Integer.compare(order.get(o1.getId()), order.get(o2.getId())));
-        return result;
+            .setParameter(IDS_PARAMETER, categories.stream().map(Category::getId).toList())
+            .getResultStream()
+            .collect(Collectors.toMap(Category::getId, Function.identity()));
+        return categories.stream().map(category -> fetched.get(category.getId())).filter(Objects::nonNull).toList();
     }
 }
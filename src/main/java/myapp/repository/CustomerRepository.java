@@ -1,7 +1,14 @@
 package myapp.repository;
 
+import java.util.List;
+import java.util.Optional;
 import myapp.domain.Customer;
+import myapp.service.dto.CustomerDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +16,19 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {}
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query(
+        value = "select new myapp.service.dto.CustomerDTO(customer.id, customer.firstName, customer.lastName, customer.email," +
+        " customer.telephone) from Customer customer",
+        countQuery = "select count(customer) from Customer customer"
+    )
+    Page<CustomerDTO> findAllProjectedBy(Pageable pageable);
+
+    @Query(
+        "select new myapp.service.dto.CustomerDTO(customer.id, customer.firstName, customer.lastName, customer.email," +
+        " customer.telephone) from Customer customer where customer.id = :id"
+    )
+    Optional<CustomerDTO> findProjectedById(@Param("id") Long id);
+}
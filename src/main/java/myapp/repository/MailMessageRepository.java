@@ -0,0 +1,48 @@
+package myapp.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import myapp.domain.MailMessage;
+import myapp.domain.enumeration.MailMessageStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the MailMessage entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface MailMessageRepository extends JpaRepository<MailMessage, Long> {
+    /**
+     * Read and lock the pending messages due at the given instant, skipping those locked by another sender.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query(
+        "select mailMessage from MailMessage mailMessage" +
+        " where mailMessage.status = myapp.domain.enumeration.MailMessageStatus.PENDING and mailMessage.nextAttemptAt <= :now" +
+        " order by mailMessage.nextAttemptAt"
+    )
+    List<MailMessage> findDue(@Param("now") Instant now, Limit limit);
+
+    long countByStatus(MailMessageStatus status);
+
+    @Modifying
+    @Query(
+        "update MailMessage mailMessage set mailMessage.status = myapp.domain.enumeration.MailMessageStatus.SENT," +
+        " mailMessage.sentAt = :sentAt, mailMessage.lastError = null where mailMessage.id in :ids"
+    )
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Query(
+        "delete from MailMessage mailMessage" +
+        " where mailMessage.status = myapp.domain.enumeration.MailMessageStatus.SENT and mailMessage.sentAt < :before"
+    )
+    int deleteSentBefore(@Param("before") Instant before);
+}
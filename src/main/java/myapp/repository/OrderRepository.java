@@ -1,7 +1,16 @@
 package myapp.repository;
 
+import java.time.Instant;
+import java.util.List;
 import myapp.domain.Order;
+import myapp.service.dto.OrderDTO;
+import myapp.service.dto.OrderHourlyTotalsDTO;
+import myapp.service.dto.OrderTotalsDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +18,58 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {}
+public interface OrderRepository extends JpaRepository<Order, Long> {
+    List<Order> findAllByOrderByOrderDateDescIdDesc(Limit limit);
+
+    @Query(
+        value = "select new myapp.service.dto.OrderDTO(jhiOrder.id, jhiOrder.orderDate, jhiOrder.shippedDate, jhiOrder.status," +
+        " jhiOrder.totalAmount, jhiOrder.shippingCost, jhiOrder.trackingNumber, jhiOrder.version, jhiOrder.shippingAddress.id," +
+        " jhiOrder.customer.id)" +
+        " from Order jhiOrder",
+        countQuery = "select count(jhiOrder) from Order jhiOrder"
+    )
+    Page<OrderDTO> findAllProjectedBy(Pageable pageable);
+
+    /**
+     * Page over the orders placed since an instant. On PostgreSQL, only the partitions of the period are read.
+     */
+    @Query(
+        value = "select new myapp.service.dto.OrderDTO(jhiOrder.id, jhiOrder.orderDate, jhiOrder.shippedDate, jhiOrder.status," +
+        " jhiOrder.totalAmount, jhiOrder.shippingCost, jhiOrder.trackingNumber, jhiOrder.version, jhiOrder.shippingAddress.id," +
+        " jhiOrder.customer.id)" +
+        " from Order jhiOrder where jhiOrder.orderDate >= :since",
+        countQuery = "select count(jhiOrder) from Order jhiOrder where jhiOrder.orderDate >= :since"
+    )
+    Page<OrderDTO> findAllProjectedSince(@Param("since") Instant since, Pageable pageable);
+
+    @Query(
+        "select new myapp.service.dto.OrderDTO(jhiOrder.id, jhiOrder.orderDate, jhiOrder.shippedDate, jhiOrder.status," +
+        " jhiOrder.totalAmount, jhiOrder.shippingCost, jhiOrder.trackingNumber, jhiOrder.version, jhiOrder.shippingAddress.id," +
+        " jhiOrder.customer.id)" +
+        " from Order jhiOrder where jhiOrder.customer.id = :customerId order by jhiOrder.orderDate desc, jhiOrder.id desc"
+    )
+    List<OrderDTO> findRecentProjectedByCustomerId(@Param("customerId") Long customerId, Limit limit);
+
+    @Query(
+        "select new myapp.service.dto.OrderTotalsDTO(count(jhiOrder), coalesce(sum(jhiOrder.totalAmount), 0)," +
+        " coalesce(sum(jhiOrder.shippingCost), 0)) from Order jhiOrder where jhiOrder.customer.id = :customerId"
+    )
+    OrderTotalsDTO findTotalsByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Sum the orders placed in {@code [from, to)} by hour, in UTC, and status. Used to rebuild the order statistics.
+     */
+    @Query(
+        "select new myapp.service.dto.OrderHourlyTotalsDTO(year(jhiOrder.orderDate), month(jhiOrder.orderDate)," +
+        " day(jhiOrder.orderDate), hour(jhiOrder.orderDate), jhiOrder.status, count(jhiOrder), sum(jhiOrder.totalAmount)," +
+        " coalesce(sum(jhiOrder.shippingCost), 0)) from Order jhiOrder where jhiOrder.orderDate >= :from and jhiOrder.orderDate < :to" +
+        " group by year(jhiOrder.orderDate), month(jhiOrder.orderDate), day(jhiOrder.orderDate), hour(jhiOrder.orderDate), jhiOrder.status"
+    )
+    List<OrderHourlyTotalsDTO> findHourlyTotals(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Query(
+        "select jhiOrder from Order jhiOrder where jhiOrder.orderDate < :orderDate" +
+        " or (jhiOrder.orderDate = :orderDate and jhiOrder.id < :id) order by jhiOrder.orderDate desc, jhiOrder.id desc"
+    )
+    List<Order> findAllBefore(@Param("orderDate") Instant orderDate, @Param("id") Long id, Limit limit);
+}
@@ -0,0 +1,30 @@
+package myapp.repository;
+
+import java.time.Instant;
+import java.util.List;
+import myapp.domain.OrderStats;
+import myapp.domain.enumeration.OrderStatsGranularity;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the OrderStats entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface OrderStatsRepository extends JpaRepository<OrderStats, Long> {
+    @Query(
+        "select orderStats from OrderStats orderStats where orderStats.granularity = :granularity" +
+        " and orderStats.bucketStart >= :from and orderStats.bucketStart < :to order by orderStats.bucketStart, orderStats.status"
+    )
+    List<OrderStats> findRange(
+        @Param("granularity") OrderStatsGranularity granularity,
+        @Param("from") Instant from,
+        @Param("to") Instant to
+    );
+
+    @Modifying
+    @Query("delete from OrderStats orderStats where orderStats.bucketStart >= :from and orderStats.bucketStart < :to")
+    int deleteRange(@Param("from") Instant from, @Param("to") Instant to);
+}
@@ -0,0 +1,56 @@
+package myapp.repository;
+
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.List;
+import myapp.domain.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the OutboxEvent entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Read and lock the oldest undelivered events due at the given instant, so that a concurrent relay waits for them
+     * instead of delivering them out of order. An event is not due before its next attempt, and neither are the
+     * following events of its aggregate.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(
+        "select outboxEvent from OutboxEvent outboxEvent where outboxEvent.deliveredAt is null" +
+        " and (outboxEvent.nextAttemptAt is null or outboxEvent.nextAttemptAt <= :now) and not exists (" +
+        " select earlier.id from OutboxEvent earlier where earlier.aggregateType = outboxEvent.aggregateType" +
+        " and earlier.aggregateId = outboxEvent.aggregateId and earlier.id < outboxEvent.id and earlier.deliveredAt is null" +
+        " and earlier.nextAttemptAt > :now) order by outboxEvent.id"
+    )
+    List<OutboxEvent> findUndelivered(@Param("now") Instant now, Limit limit);
+
+    /**
+     * Delete the events delivered before the given instant which a later delivered event of the same aggregate supersedes.
+     */
+    @Modifying
+    @Query(
+        "delete from OutboxEvent outboxEvent where outboxEvent.deliveredAt < :before and exists (" +
+        " select later.id from OutboxEvent later where later.aggregateType = outboxEvent.aggregateType" +
+        " and later.aggregateId = outboxEvent.aggregateId and later.id > outboxEvent.id and later.deliveredAt is not null)"
+    )
+    int deleteSupersededBefore(@Param("before") Instant before);
+
+    /**
+     * Delete the deletion and change events delivered before the given instant which are the last event of their
+     * aggregate: neither carries a state to keep.
+     */
+    @Modifying
+    @Query(
+        "delete from OutboxEvent outboxEvent where outboxEvent.deliveredAt < :before and outboxEvent.type in" +
+        " (myapp.domain.enumeration.OutboxEventType.DELETED, myapp.domain.enumeration.OutboxEventType.CHANGED) and not exists (" +
+        " select later.id from OutboxEvent later where later.aggregateType = outboxEvent.aggregateType" +
+        " and later.aggregateId = outboxEvent.aggregateId and later.id > outboxEvent.id)"
+    )
+    int deleteTombstonesBefore(@Param("before") Instant before);
+}
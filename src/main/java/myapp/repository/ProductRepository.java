@@ -1,7 +1,19 @@
 package myapp.repository;
 
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import myapp.domain.Product;
+import myapp.service.dto.EntityVersionDTO;
+import myapp.service.dto.ProductDTO;
+import myapp.service.dto.ProductPriceDTO;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +21,81 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {}
+public interface ProductRepository extends JpaRepository<Product, Long> {
+    /**
+     * Walk the product table in id order, starting after the given id. Used to (re)build in-memory indexes.
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<Product> findAllByOrderByDateAddedDescIdDesc(Limit limit);
+
+    /**
+     * Get the price and rating of every priced product, by price then id. Used to (re)build the price index.
+     */
+    @Query(
+        "select new myapp.service.dto.ProductPriceDTO(product.id, product.price, product.rating) from Product product" +
+        " where product.price is not null order by product.price, product.id"
+    )
+    List<ProductPriceDTO> findAllPrices();
+
+    @Query(
+        value = "select new myapp.service.dto.ProductDTO(product.id, product.title, product.keywords, product.description, product.rating," +
+        " product.price, product.quantityInStock, product.status, product.weight, product.dimensions, product.dateAdded," +
+        " product.dateModified, product.version, product.wishList.id, product.order.id) from Product product",
+        countQuery = "select count(product) from Product product"
+    )
+    Page<ProductDTO> findAllProjectedBy(Pageable pageable);
+
+    @Query(
+        "select new myapp.service.dto.EntityVersionDTO(product.version, product.dateModified) from Product product where product.id = :id"
+    )
+    Optional<EntityVersionDTO> findEntityVersionById(@Param("id") Long id);
+
+    @Query(
+        "select product from Product product where product.dateAdded < :dateAdded" +
+        " or (product.dateAdded = :dateAdded and product.id < :id) order by product.dateAdded desc, product.id desc"
+    )
+    List<Product> findAllBefore(@Param("dateAdded") Instant dateAdded, @Param("id") Long id, Limit limit);
+
+    /**
+     * Find the products of the categories whose materialized path starts with {@code path}, each product once.
+     */
+    @Query(
+        value = "select product from Product product where exists (select 1 from Category category join category.products categoryProduct" +
+        " where categoryProduct = product and category.path like concat(:path, '%'))",
+        countQuery = "select count(product) from Product product where exists (select 1 from Category category" +
+        " join category.products categoryProduct where categoryProduct = product and category.path like concat(:path, '%'))"
+    )
+    Page<Product> findAllInCategorySubtree(@Param("path") String path, Pageable pageable);
+
+    /**
+     * Take {@code quantity} units out of the stock of a product, only if that many are available, and mark it as
+     * modified at {@code now} with a new version.
+     * <p>
+     * The check and the decrement are a single statement, so concurrent reservations of the same product only wait
+     * on that row for the rest of their transaction. The empty query space keeps Hibernate from invalidating the
+     * whole Product cache region: callers must evict the updated product themselves.
+     *
+     * @return {@code 1} if the stock was reserved, {@code 0} if the product is unknown or has not enough stock.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ""))
+    @Query(
+        value = "update product set quantity_in_stock = quantity_in_stock - :quantity, date_modified = :now, version = version + 1" +
+        " where id = :id and quantity_in_stock >= :quantity",
+        nativeQuery = true
+    )
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") Instant now);
+
+    /**
+     * Put {@code quantity} units back in the stock of a product. Same caching caveat as {@link #decrementStock}.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ""))
+    @Query(
+        value = "update product set quantity_in_stock = quantity_in_stock + :quantity, date_modified = :now, version = version + 1" +
+        " where id = :id",
+        nativeQuery = true
+    )
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") Instant now);
+}
@@ -0,0 +1,35 @@
+package myapp.repository;
+
+import java.time.Instant;
+import java.util.List;
+import myapp.domain.StockReservation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the StockReservation entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    List<StockReservation> findByOrderId(Long orderId);
+
+    @Query(
+        "select distinct stockReservation.order.id from StockReservation stockReservation" +
+        " where stockReservation.expiresAt < :now order by stockReservation.order.id"
+    )
+    List<Long> findExpiredOrderIds(@Param("now") Instant now, Limit limit);
+
+    /**
+     * Delete a single reservation. The returned row count tells whether this caller is the one that released it.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from StockReservation stockReservation where stockReservation.id = :id")
+    int deleteReservation(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from StockReservation stockReservation where stockReservation.order.id = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+}
@@ -1,7 +1,11 @@
 package myapp.repository;
 
+import java.util.List;
 import myapp.domain.WishList;
+import myapp.service.dto.WishListDTO;
+import myapp.service.dto.WishListSummaryDTO;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +13,17 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface WishListRepository extends JpaRepository<WishList, Long> {}
+public interface WishListRepository extends JpaRepository<WishList, Long> {
+    @Query(
+        "select new myapp.service.dto.WishListDTO(wishList.id, wishList.title, wishList.restricted, wishList.customer.id)" +
+        " from WishList wishList"
+    )
+    List<WishListDTO> findAllProjectedBy();
+
+    @Query(
+        "select new myapp.service.dto.WishListSummaryDTO(wishList.id, wishList.title, wishList.restricted, count(product))" +
+        " from WishList wishList left join wishList.products product where wishList.customer.id = :customerId" +
+        " group by wishList.id, wishList.title, wishList.restricted order by wishList.id"
+    )
+    List<WishListSummaryDTO> findSummariesByCustomerId(@Param("customerId") Long customerId);
+}
@@ -0,0 +1,92 @@
+package myapp.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import myapp.management.SecurityMetersService;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * {@link JwtDecoder} remembering the tokens it already decoded, until they expire.
+ * <p>
+ * Clients send the same token with every request, so most calls are answered without verifying the signature
+ * and parsing the claims again. Tokens are keyed by their SHA-256 digest, so the cache never holds a usable
+ * token, and only successfully decoded tokens having an expiration are cached: failures always go through the
+ * delegate, and are accounted by it.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final JwtDecoder delegate;
+
+    private final SecurityMetersService metersService;
+
+    private final Clock clock;
+
+    private final Cache<ByteBuffer, Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize, SecurityMetersService metersService) {
+        this(delegate, maximumSize, metersService, Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, long maximumSize, SecurityMetersService metersService, Clock clock, Ticker ticker) {
+        this.delegate = delegate;
+        this.metersService = metersService;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize).ticker(ticker).expireAfter(new UntilTokenExpires()).build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        ByteBuffer key = digest(token);
+        Jwt jwt = cache.getIfPresent(key);
+        if (jwt != null) {
+            metersService.trackTokenCacheHit();
+            return jwt;
+        }
+        metersService.trackTokenCacheMiss();
+        jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isAfter(clock.instant())) {
+            cache.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance(DIGEST_ALGORITHM).digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private final class UntilTokenExpires implements Expiry<ByteBuffer, Jwt> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Jwt jwt, long currentTime) {
+            Instant expiresAt = jwt.getExpiresAt();
+            return Math.max(0, Duration.between(clock.instant(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
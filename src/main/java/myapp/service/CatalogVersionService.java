@@ -0,0 +1,119 @@
+package myapp.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import myapp.domain.CatalogVersion;
+import myapp.repository.CatalogVersionRepository;
+import myapp.service.event.CategoryChangedEvent;
+import myapp.service.event.ProductChangedEvent;
+import myapp.service.event.ProductStockChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service maintaining the {@link CatalogVersion}s of the products and of the categories, which the ETags of their
+ * listings are built from.
+ * <p>
+ * Each transaction writing to a collection, through {@link ProductService}, {@link StockReservationService} or
+ * {@link CategoryService}, increments its version once, just before it commits: the row of the version is only locked
+ * while committing, so the writes of the collection do not wait on each other for longer. Versions are read by key,
+ * from the database, so they see the writes of every instance.
+ */
+@Service
+public class CatalogVersionService {
+
+    /**
+     * The name of the version of the products.
+     */
+    public static final String PRODUCTS = "product";
+
+    /**
+     * The name of the version of the categories.
+     */
+    public static final String CATEGORIES = "category";
+
+    private final CatalogVersionRepository catalogVersionRepository;
+
+    public CatalogVersionService(CatalogVersionRepository catalogVersionRepository) {
+        this.catalogVersionRepository = catalogVersionRepository;
+    }
+
+    /**
+     * Increment the version of the products written by {@link ProductService}, in its transaction.
+     *
+     * @param event the product change.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onProductChanged(ProductChangedEvent event) {
+        increment(PRODUCTS);
+    }
+
+    /**
+     * Increment the version of the products whose stock {@link StockReservationService} changed, in its transaction.
+     *
+     * @param event the stock change.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onProductStockChanged(ProductStockChangedEvent event) {
+        increment(PRODUCTS);
+    }
+
+    /**
+     * Increment the version of the categories written by {@link CategoryService}, in its transaction.
+     *
+     * @param event the category change.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        increment(CATEGORIES);
+    }
+
+    /**
+     * Get the current versions of collections.
+     *
+     * @param names the names of the collections.
+     * @return their versions, in the same order.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findVersions(String... names) {
+        return Arrays.stream(names).map(name -> catalogVersionRepository.findVersionByName(name).orElse(0L)).toList();
+    }
+
+    private void increment(String name) {
+        PendingIncrements pendingIncrements = (PendingIncrements) TransactionSynchronizationManager.getResource(this);
+        if (pendingIncrements == null) {
+            pendingIncrements = new PendingIncrements();
+            TransactionSynchronizationManager.bindResource(this, pendingIncrements);
+            TransactionSynchronizationManager.registerSynchronization(pendingIncrements);
+        }
+        pendingIncrements.names.add(name);
+    }
+
+    /**
+     * The versions to increment before one transaction commits, in name order so that concurrent transactions lock
+     * their rows in the same order.
+     */
+    private final class PendingIncrements implements TransactionSynchronization {
+
+        private final Set<String> names = new TreeSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            names.forEach(catalogVersionRepository::incrementVersion);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CatalogVersionService.this);
+        }
+    }
+}
@@ -1,17 +1,39 @@
 package myapp.service;
 
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import myapp.config.ApplicationProperties;
 import myapp.domain.Category;
+import myapp.domain.Product;
 import myapp.repository.CategoryRepository;
+import myapp.repository.ProductRepository;
+import myapp.service.dto.CategoryNodeDTO;
+import myapp.service.dto.CategorySummaryDTO;
+import myapp.service.dto.CollectionVersionDTO;
+import myapp.service.dto.EntityVersionDTO;
+import myapp.service.dto.ProductSummaryDTO;
+import myapp.service.event.CategoryChangedEvent;
+import myapp.service.mapper.CategoryMapper;
+import myapp.service.outbox.OutboxService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service Implementation for managing {@link myapp.domain.Category}.
+ * <p>
+ * Every write keeps the materialized {@link Category#getPath() path} of the categories in sync with their parents,
+ * so that subtrees, ancestors and the products of a subtree are each read with a single query.
  */
 @Service
 @Transactional
@@ -19,10 +41,34 @@ public class CategoryService {
 
     private static final Logger LOG = LoggerFactory.getLogger(CategoryService.class);
 
+    private static final String PATH_SEPARATOR = "/";
+
     private final CategoryRepository categoryRepository;
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    private final ProductRepository productRepository;
+
+    private final ApplicationProperties.CategoryListing listingProperties;
+
+    private final CategoryMapper categoryMapper;
+
+    private final OutboxService outboxService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CategoryService(
+        CategoryRepository categoryRepository,
+        ProductRepository productRepository,
+        ApplicationProperties applicationProperties,
+        CategoryMapper categoryMapper,
+        OutboxService outboxService,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.listingProperties = applicationProperties.getCategoryListing();
+        this.categoryMapper = categoryMapper;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -30,21 +76,45 @@ public class CategoryService {
      *
      * @param category the entity to save.
      * @return the persisted entity.
+     * @throws InvalidCategoryParentException if the parent of the category does not exist.
      */
     public Category save(Category category) {
         LOG.debug("Request to save Category : {}", category);
-        return categoryRepository.save(category);
+        Category parent = resolveParent(category);
+        Category result = categoryRepository.save(category);
+        result.setPath(pathOf(parent) + result.getId() + PATH_SEPARATOR);
+        outboxService.recordSaved(result);
+        eventPublisher.publishEvent(CategoryChangedEvent.saved(result.getId(), productIdsOf(result)));
+        return result;
     }
 
     /**
-     * Update a category.
+     * Update a category, moving its whole subtree if its parent changed.
      *
      * @param category the entity to save.
      * @return the persisted entity.
+     * @throws InvalidCategoryParentException if the parent of the category does not exist, or is the category itself or one of its descendants.
      */
     public Category update(Category category) {
         LOG.debug("Request to update Category : {}", category);
-        return categoryRepository.save(category);
+        Category parent = resolveParent(category);
+        Optional<Category> existingCategory = categoryRepository.findById(category.getId());
+        String oldPath = existingCategory.map(Category::getPath).orElse(null);
+        // the version is not exposed: the category replaces the current one
+        category.setVersion(existingCategory.map(Category::getVersion).orElse(null));
+        if (parent != null && oldPath != null && parent.getPath().startsWith(oldPath)) {
+            throw new InvalidCategoryParentException("A category cannot be moved under itself or one of its descendants");
+        }
+        String newPath = pathOf(parent) + category.getId() + PATH_SEPARATOR;
+        category.setPath(newPath);
+        Category result = categoryRepository.save(category);
+        if (oldPath != null && !oldPath.equals(newPath)) {
+            int moved = categoryRepository.movePaths(oldPath, newPath, Instant.now());
+            LOG.debug("Moved {} Categories from {} to {}", moved, oldPath, newPath);
+        }
+        outboxService.recordSaved(result);
+        eventPublisher.publishEvent(CategoryChangedEvent.saved(result.getId(), productIdsOf(result)));
+        return result;
     }
 
     /**
@@ -77,7 +147,12 @@ public class CategoryService {
 
                 return existingCategory;
             })
-            .map(categoryRepository::save);
+            .map(categoryRepository::save)
+            .map(result -> {
+                outboxService.recordSaved(result);
+                eventPublisher.publishEvent(CategoryChangedEvent.saved(result.getId(), productIdsOf(result)));
+                return result;
+            });
     }
 
     /**
@@ -93,12 +168,90 @@ public class CategoryService {
     }
 
     /**
-     * Get all the categories with eager load of many-to-many relationships.
+     * Get a page of category summaries, optionally with the first products of each category.
+     * <p>
+     * The ids of the page are read first, then the categories, mostly from the second-level cache, and finally
+     * their products, one query per batch of {@code application.category-listing.batch-size} categories.
      *
-     * @return the list of entities.
+     * @param pageable the pagination information.
+     * @param withProducts whether to load the first {@code application.category-listing.max-products-per-category}
+     * products of each category.
+     * @return the page of summaries.
+     */
+    @Transactional(readOnly = true)
+    public Page<CategorySummaryDTO> findAllSummaries(Pageable pageable, boolean withProducts) {
+        LOG.debug("Request to get a page of Category summaries");
+        Page<Long> ids = categoryRepository.findAllIds(pageable);
+        Map<Long, List<ProductSummaryDTO>> products = withProducts
+            ? categoryRepository.fetchProductSummaries(
+                ids.getContent(),
+                listingProperties.getMaxProductsPerCategory(),
+                listingProperties.getBatchSize()
+            )
+            : Map.of();
+        List<CategorySummaryDTO> summaries = categoryRepository
+            .loadAllInOrder(ids.getContent())
+            .stream()
+            .map(category -> categoryMapper.toDto(category, withProducts ? products.getOrDefault(category.getId(), List.of()) : null))
+            .toList();
+        return new PageImpl<>(summaries, pageable, ids.getTotalElements());
+    }
+
+    /**
+     * Get all the categories as a forest, each category being followed by its subtree.
+     *
+     * @return the list of categories, ordered by path.
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryNodeDTO> findTree() {
+        LOG.debug("Request to get the Category tree");
+        return categoryRepository.findSubtree(PATH_SEPARATOR);
+    }
+
+    /**
+     * Get a category and all its descendants.
+     *
+     * @param id the id of the root of the subtree.
+     * @return the list of categories, ordered by path, or empty if the category does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<CategoryNodeDTO>> findSubtree(Long id) {
+        LOG.debug("Request to get the Category subtree of : {}", id);
+        return categoryRepository.findById(id).map(category -> categoryRepository.findSubtree(category.getPath()));
+    }
+
+    /**
+     * Get the ancestors of a category.
+     *
+     * @param id the id of the category.
+     * @return the list of ancestors, root first, or empty if the category does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<CategoryNodeDTO>> findAncestors(Long id) {
+        LOG.debug("Request to get the Category ancestors of : {}", id);
+        return categoryRepository
+            .findById(id)
+            .map(category -> {
+                List<Long> ancestorIds = Arrays.stream(category.getPath().split(PATH_SEPARATOR))
+                    .filter(segment -> !segment.isEmpty())
+                    .map(Long::valueOf)
+                    .filter(ancestorId -> !ancestorId.equals(id))
+                    .toList();
+                return ancestorIds.isEmpty() ? List.of() : categoryRepository.findNodes(ancestorIds);
+            });
+    }
+
+    /**
+     * Get the products of a category and of all its descendants.
+     *
+     * @param id the id of the root of the subtree.
+     * @param pageable the pagination information.
+     * @return the page of products, or empty if the category does not exist.
      */
-    public Page<Category> findAllWithEagerRelationships(Pageable pageable) {
-        return categoryRepository.findAllWithEagerRelationships(pageable);
+    @Transactional(readOnly = true)
+    public Optional<Page<Product>> findProductsInSubtree(Long id, Pageable pageable) {
+        LOG.debug("Request to get the Products under Category : {}", id);
+        return categoryRepository.findById(id).map(category -> productRepository.findAllInCategorySubtree(category.getPath(), pageable));
     }
 
     /**
@@ -114,12 +267,64 @@ public class CategoryService {
     }
 
     /**
-     * Delete the category by id.
+     * Get the version of one category, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the version, empty if the category does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<EntityVersionDTO> findVersion(Long id) {
+        return categoryRepository.findEntityVersionById(id);
+    }
+
+    /**
+     * Get the version of the products of one category.
+     *
+     * @param id the id of the category.
+     * @return the version.
+     */
+    @Transactional(readOnly = true)
+    public CollectionVersionDTO findProductsVersion(Long id) {
+        return categoryRepository.findProductsVersion(id);
+    }
+
+    /**
+     * Delete the category by id. Its children are moved under its parent.
      *
      * @param id the id of the entity.
      */
     public void delete(Long id) {
         LOG.debug("Request to delete Category : {}", id);
-        categoryRepository.deleteById(id);
+        categoryRepository
+            .findById(id)
+            .ifPresent(category -> {
+                Category parent = category.getParent();
+                Instant now = Instant.now();
+                categoryRepository.reparentChildren(id, parent, now);
+                // Deleted before its descendants are moved, which would give its row a new version
+                categoryRepository.delete(category);
+                categoryRepository.movePaths(category.getPath(), pathOf(parent), now);
+            });
+        outboxService.recordDeleted(Category.class, id);
+        eventPublisher.publishEvent(CategoryChangedEvent.deleted(id));
+    }
+
+    private Category resolveParent(Category category) {
+        if (category.getParent() == null) {
+            return null;
+        }
+        Category parent = categoryRepository
+            .findById(category.getParent().getId())
+            .orElseThrow(() -> new InvalidCategoryParentException("Parent category not found"));
+        category.setParent(parent);
+        return parent;
+    }
+
+    private static Set<Long> productIdsOf(Category category) {
+        return category.getProducts().stream().map(Product::getId).collect(Collectors.toSet());
+    }
+
+    private static String pathOf(Category parent) {
+        return parent == null ? PATH_SEPARATOR : parent.getPath();
     }
 }
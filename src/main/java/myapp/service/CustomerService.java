@@ -1,12 +1,23 @@
 package myapp.service;
 
+import java.util.List;
 import java.util.Optional;
+import myapp.config.ApplicationProperties;
 import myapp.domain.Customer;
+import myapp.repository.AddressRepository;
 import myapp.repository.CustomerRepository;
+import myapp.repository.OrderRepository;
+import myapp.repository.WishListRepository;
+import myapp.service.dto.CustomerDTO;
+import myapp.service.dto.CustomerOverviewDTO;
+import myapp.service.dto.KeysetCursor;
+import myapp.service.outbox.OutboxService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,8 +32,30 @@ public class CustomerService {
 
     private final CustomerRepository customerRepository;
 
-    public CustomerService(CustomerRepository customerRepository) {
+    private final AddressRepository addressRepository;
+
+    private final WishListRepository wishListRepository;
+
+    private final OrderRepository orderRepository;
+
+    private final ApplicationProperties.CustomerOverview overviewProperties;
+
+    private final OutboxService outboxService;
+
+    public CustomerService(
+        CustomerRepository customerRepository,
+        AddressRepository addressRepository,
+        WishListRepository wishListRepository,
+        OrderRepository orderRepository,
+        ApplicationProperties applicationProperties,
+        OutboxService outboxService
+    ) {
         this.customerRepository = customerRepository;
+        this.addressRepository = addressRepository;
+        this.wishListRepository = wishListRepository;
+        this.orderRepository = orderRepository;
+        this.overviewProperties = applicationProperties.getCustomerOverview();
+        this.outboxService = outboxService;
     }
 
     /**
@@ -33,7 +66,9 @@ public class CustomerService {
      */
     public Customer save(Customer customer) {
         LOG.debug("Request to save Customer : {}", customer);
-        return customerRepository.save(customer);
+        Customer result = customerRepository.save(customer);
+        outboxService.recordSaved(result);
+        return result;
     }
 
     /**
@@ -44,7 +79,9 @@ public class CustomerService {
      */
     public Customer update(Customer customer) {
         LOG.debug("Request to update Customer : {}", customer);
-        return customerRepository.save(customer);
+        Customer result = customerRepository.save(customer);
+        outboxService.recordSaved(result);
+        return result;
     }
 
     /**
@@ -74,19 +111,37 @@ public class CustomerService {
 
                 return existingCustomer;
             })
-            .map(customerRepository::save);
+            .map(customerRepository::save)
+            .map(result -> {
+                outboxService.recordSaved(result);
+                return result;
+            });
     }
 
     /**
-     * Get all the customers.
+     * Get all the customers, reading only the columns of their read model.
      *
      * @param pageable the pagination information.
-     * @return the list of entities.
+     * @return the list of DTOs.
      */
     @Transactional(readOnly = true)
-    public Page<Customer> findAll(Pageable pageable) {
+    public Page<CustomerDTO> findAll(Pageable pageable) {
         LOG.debug("Request to get all Customers");
-        return customerRepository.findAll(pageable);
+        return customerRepository.findAllProjectedBy(pageable);
+    }
+
+    /**
+     * Get a keyset page of customers, by id.
+     *
+     * @param cursor the position after which to read, or {@code null} for the first page.
+     * @param size the page size.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Customer> findAllAfter(KeysetCursor cursor, int size) {
+        LOG.debug("Request to get a keyset page of Customers after {}", cursor);
+        Long lastId = cursor == null ? Long.MIN_VALUE : cursor.id();
+        return KeysetCursor.toSlice(customerRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(size + 1)), size);
     }
 
     /**
@@ -101,6 +156,33 @@ public class CustomerService {
         return customerRepository.findById(id);
     }
 
+    /**
+     * Get the overview of a customer: its addresses, its wish lists with the number of their products, its most recent
+     * orders and the totals of all its orders.
+     * <p>
+     * Each section is read with one query, so the overview costs five queries however many addresses, wish lists,
+     * products and orders the customer has, and no lazy collection of the customer is loaded. Archived orders are
+     * neither listed nor counted in the totals.
+     *
+     * @param id the id of the customer.
+     * @return the overview, or empty if the customer does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<CustomerOverviewDTO> findOverview(Long id) {
+        LOG.debug("Request to get the overview of Customer : {}", id);
+        return customerRepository
+            .findProjectedById(id)
+            .map(customer ->
+                new CustomerOverviewDTO(
+                    customer,
+                    addressRepository.findAllProjectedByCustomerId(id),
+                    wishListRepository.findSummariesByCustomerId(id),
+                    orderRepository.findRecentProjectedByCustomerId(id, Limit.of(overviewProperties.getRecentOrders())),
+                    orderRepository.findTotalsByCustomerId(id)
+                )
+            );
+    }
+
     /**
      * Delete the customer by id.
      *
@@ -109,5 +191,6 @@ public class CustomerService {
     public void delete(Long id) {
         LOG.debug("Request to delete Customer : {}", id);
         customerRepository.deleteById(id);
+        outboxService.recordDeleted(Customer.class, id);
     }
 }
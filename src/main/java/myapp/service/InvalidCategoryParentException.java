@@ -0,0 +1,10 @@
+package myapp.service;
+
+public class InvalidCategoryParentException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCategoryParentException(String message) {
+        super(message);
+    }
+}
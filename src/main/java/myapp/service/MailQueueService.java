@@ -0,0 +1,298 @@
+package myapp.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import myapp.config.ApplicationProperties;
+import myapp.domain.MailMessage;
+import myapp.domain.enumeration.MailMessageStatus;
+import myapp.management.MailQueueMetersService;
+import myapp.repository.MailMessageRepository;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service queuing emails in the {@link MailMessage} table and sending them on its own pool of
+ * {@code application.mail-queue.sender-threads} threads.
+ * <p>
+ * Senders are started when emails are queued, and every {@code application.mail-queue.poll-interval}. Each one claims
+ * the due emails by batches of {@code application.mail-queue.batch-size}, skipping those claimed by other senders, and
+ * sends a batch over a single SMTP connection. Emails failing are retried with an exponential backoff, up to
+ * {@code application.mail-queue.max-attempts} attempts; an email whose sender died is taken over once its claim
+ * timed out, so an email may be sent twice but is never lost.
+ */
+@Service
+public class MailQueueService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailQueueService.class);
+
+    private static final int LAST_ERROR_MAX_LENGTH = 255;
+
+    private final MailMessageRepository mailMessageRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final MailQueueMetersService mailQueueMetersService;
+
+    private final ApplicationProperties.MailQueue mailQueueProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ThreadPoolTaskExecutor senderExecutor;
+
+    private final AtomicInteger activeSenders = new AtomicInteger();
+
+    public MailQueueService(
+        MailMessageRepository mailMessageRepository,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        MailQueueMetersService mailQueueMetersService,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.mailMessageRepository = mailMessageRepository;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.mailQueueMetersService = mailQueueMetersService;
+        this.mailQueueProperties = applicationProperties.getMailQueue();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.senderExecutor = new ThreadPoolTaskExecutor();
+        senderExecutor.setCorePoolSize(mailQueueProperties.getSenderThreads());
+        senderExecutor.setMaxPoolSize(mailQueueProperties.getSenderThreads());
+        senderExecutor.setQueueCapacity(mailQueueProperties.getSenderThreads());
+        senderExecutor.setThreadNamePrefix("mail-sender-");
+        senderExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senderExecutor.shutdown();
+    }
+
+    /**
+     * Queue an email. It is sent once the current transaction, if any, committed.
+     *
+     * @param to the recipient.
+     * @param subject the subject.
+     * @param content the rendered content.
+     * @param isMultipart whether the message is multipart.
+     * @param isHtml whether the content is HTML.
+     * @return the queued email.
+     */
+    public MailMessage enqueue(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+        LOG.debug("Request to queue email to '{}' with subject '{}'", to, subject);
+        Instant now = Instant.now();
+        MailMessage mailMessage = new MailMessage()
+            .recipient(to)
+            .subject(subject)
+            .content(content)
+            .multipart(isMultipart)
+            .html(isHtml)
+            .status(MailMessageStatus.PENDING)
+            .createdAt(now)
+            .nextAttemptAt(now);
+        MailMessage result = transactionTemplate.execute(status -> mailMessageRepository.save(mailMessage));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        startSenders(1);
+                    }
+                }
+            );
+        } else {
+            startSenders(1);
+        }
+        return result;
+    }
+
+    /**
+     * Start senders for the emails due, and refresh the queue depth metric.
+     * <p>
+     * This is scheduled to get fired every {@code application.mail-queue.poll-interval}.
+     */
+    @Scheduled(fixedDelayString = "${application.mail-queue.poll-interval:5s}")
+    public void poll() {
+        mailQueueMetersService.trackQueueDepth(mailMessageRepository.countByStatus(MailMessageStatus.PENDING));
+        startSenders(mailQueueProperties.getSenderThreads());
+    }
+
+    /**
+     * Delete the emails sent more than {@code application.mail-queue.retention} ago.
+     * <p>
+     * This is scheduled to get fired every hour.
+     */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void purgeSent() {
+        Instant before = Instant.now().minus(mailQueueProperties.getRetention());
+        int deleted = transactionTemplate.execute(status -> mailMessageRepository.deleteSentBefore(before));
+        if (deleted > 0) {
+            LOG.info("Purged {} sent emails", deleted);
+        }
+    }
+
+    private void startSenders(int count) {
+        for (int started = 0; started < count && activeSenders.get() < mailQueueProperties.getSenderThreads(); started++) {
+            if (activeSenders.incrementAndGet() > mailQueueProperties.getSenderThreads()) {
+                activeSenders.decrementAndGet();
+                return;
+            }
+            try {
+                senderExecutor.execute(this::sendWhileDue);
+            } catch (RejectedExecutionException e) {
+                activeSenders.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void sendWhileDue() {
+        try {
+            int claimed;
+            do {
+                claimed = sendDue();
+            } while (claimed == mailQueueProperties.getBatchSize());
+        } catch (RuntimeException e) {
+            LOG.warn("Mail sender failed, it will run again on the next poll", e);
+        } finally {
+            activeSenders.decrementAndGet();
+        }
+    }
+
+    /**
+     * Claim a batch of due emails, send them over one SMTP connection and record the outcome of each one.
+     *
+     * @return the number of emails claimed.
+     */
+    public int sendDue() {
+        Instant claimedAt = Instant.now();
+        List<MailMessage> batch = transactionTemplate.execute(status -> claim(claimedAt));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<MimeMessage, MailMessage> mimeMessages = new LinkedHashMap<>();
+        Map<MailMessage, Exception> failures = new IdentityHashMap<>();
+        for (MailMessage mailMessage : batch) {
+            try {
+                mimeMessages.put(toMimeMessage(mailMessage), mailMessage);
+            } catch (MessagingException e) {
+                failures.put(mailMessage, e);
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            if (!mimeMessages.isEmpty()) {
+                javaMailSender.send(mimeMessages.keySet().toArray(MimeMessage[]::new));
+            }
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((mimeMessage, exception) -> failures.put(mimeMessages.get(mimeMessage), exception));
+        } catch (MailException e) {
+            mimeMessages.values().forEach(mailMessage -> failures.put(mailMessage, e));
+        }
+        mailQueueMetersService.trackBatch(Duration.ofNanos(System.nanoTime() - start));
+
+        Instant now = Instant.now();
+        List<Long> sentIds = new ArrayList<>();
+        for (MailMessage mailMessage : batch) {
+            if (!failures.containsKey(mailMessage)) {
+                sentIds.add(mailMessage.getId());
+                mailQueueMetersService.trackSent(Duration.between(mailMessage.getCreatedAt(), now));
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                mailMessageRepository.markSent(sentIds, now);
+            }
+            failures.forEach((mailMessage, exception) -> recordFailure(mailMessage, exception, now));
+        });
+        LOG.debug("Sent {} emails, {} failed", sentIds.size(), failures.size());
+        return batch.size();
+    }
+
+    private List<MailMessage> claim(Instant now) {
+        List<MailMessage> batch = mailMessageRepository.findDue(now, Limit.of(mailQueueProperties.getBatchSize()));
+        Instant claimExpiresAt = now.plus(mailQueueProperties.getClaimTimeout());
+        for (MailMessage mailMessage : batch) {
+            mailMessage.setAttempts(mailMessage.getAttempts() + 1);
+            mailMessage.setNextAttemptAt(claimExpiresAt);
+        }
+        return batch;
+    }
+
+    private MimeMessage toMimeMessage(MailMessage mailMessage) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, mailMessage.getMultipart(), StandardCharsets.UTF_8.name());
+        message.setTo(mailMessage.getRecipient());
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(mailMessage.getSubject());
+        message.setText(mailMessage.getContent(), mailMessage.getHtml());
+        return mimeMessage;
+    }
+
+    private void recordFailure(MailMessage mailMessage, Exception exception, Instant now) {
+        mailMessageRepository
+            .findById(mailMessage.getId())
+            .ifPresent(failedMessage -> {
+                failedMessage.setLastError(StringUtils.abbreviate(exception.toString(), LAST_ERROR_MAX_LENGTH));
+                if (failedMessage.getAttempts() >= mailQueueProperties.getMaxAttempts()) {
+                    failedMessage.setStatus(MailMessageStatus.FAILED);
+                    mailQueueMetersService.trackFailed();
+                    LOG.warn(
+                        "Email could not be sent to '{}', giving up after {} attempts",
+                        failedMessage.getRecipient(),
+                        failedMessage.getAttempts(),
+                        exception
+                    );
+                } else {
+                    failedMessage.setNextAttemptAt(now.plus(backoff(failedMessage.getAttempts())));
+                    mailQueueMetersService.trackRetried();
+                    LOG.debug(
+                        "Email could not be sent to '{}', retrying at {}",
+                        failedMessage.getRecipient(),
+                        failedMessage.getNextAttemptAt()
+                    );
+                }
+            });
+    }
+
+    /**
+     * The delay before the next attempt, {@code initial-backoff * 2^(attempts - 1)} capped at {@code max-backoff}.
+     */
+    Duration backoff(int attempts) {
+        Duration maxBackoff = mailQueueProperties.getMaxBackoff();
+        Duration backoff = mailQueueProperties.getInitialBackoff();
+        for (int attempt = 1; attempt < attempts && backoff.compareTo(maxBackoff) < 0; attempt++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        return backoff.compareTo(maxBackoff) < 0 ? backoff : maxBackoff;
+    }
+}
@@ -0,0 +1,207 @@
+package myapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import myapp.config.ApplicationProperties;
+import myapp.service.dto.OrderExportRowDTO;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.type.StandardBasicTypes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service exporting {@link myapp.domain.Order}s as NDJSON or CSV.
+ * <p>
+ * Orders are read as {@link OrderExportRowDTO} projections through a forward-only cursor and written as soon
+ * as they are fetched, so neither the persistence context nor the heap grow with the number of exported rows. The
+ * archived orders of the period are exported along with the other ones, which takes a native query.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OrderExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderExportService.class);
+
+    private static final String EXPORT_COLUMNS =
+        "id, order_date, shipped_date, status, total_amount, shipping_cost, tracking_number, customer_id, shipping_address_id";
+
+    private static final String EXPORT_QUERY =
+        "select " +
+        EXPORT_COLUMNS +
+        " from " +
+        OrderPartitionService.ORDER_TABLE +
+        " where order_date >= :from and order_date < :to union all select " +
+        EXPORT_COLUMNS +
+        " from " +
+        OrderPartitionService.ARCHIVE_TABLE +
+        " where order_date >= :from and order_date < :to order by order_date, id";
+
+    private static final String CSV_HEADER =
+        "id,orderDate,shippedDate,status,totalAmount,shippingCost,trackingNumber,customerId,shippingAddressId";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String mediaType;
+
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectWriter rowWriter;
+
+    private final ApplicationProperties applicationProperties;
+
+    public OrderExportService(ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        // Rows are separated by line breaks only, and the response is flushed when its buffer is full, not after every row
+        this.rowWriter = objectMapper
+            .writerFor(OrderExportRowDTO.class)
+            .withRootValueSeparator("")
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Write the orders placed in {@code [from, to)} to {@code out}, oldest first.
+     *
+     * @param from the first instant of the period, inclusive.
+     * @param to the last instant of the period, exclusive.
+     * @param format the output format.
+     * @param out the stream to write to, left open.
+     * @return the number of exported orders.
+     * @throws IOException if writing fails.
+     */
+    public long export(Instant from, Instant to, Format format, OutputStream out) throws IOException {
+        LOG.debug("Request to export Orders from {} to {} as {}", from, to, format);
+        try (
+            ScrollableResults<OrderExportRowDTO> rows = entityManager
+                .unwrap(Session.class)
+                .createNativeQuery(EXPORT_QUERY, Object[].class)
+                .addScalar("id", StandardBasicTypes.LONG)
+                .addScalar("order_date", StandardBasicTypes.INSTANT)
+                .addScalar("shipped_date", StandardBasicTypes.INSTANT)
+                .addScalar("status", StandardBasicTypes.STRING)
+                .addScalar("total_amount", StandardBasicTypes.BIG_DECIMAL)
+                .addScalar("shipping_cost", StandardBasicTypes.BIG_DECIMAL)
+                .addScalar("tracking_number", StandardBasicTypes.STRING)
+                .addScalar("customer_id", StandardBasicTypes.LONG)
+                .addScalar("shipping_address_id", StandardBasicTypes.LONG)
+                .setTupleTransformer(OrderExportService::toOrderExportRowDTO)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setFetchSize(applicationProperties.getOrderExport().getFetchSize())
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY)
+        ) {
+            long count = format == Format.CSV ? writeCsv(rows, out) : writeNdjson(rows, out);
+            LOG.debug("Exported {} Orders", count);
+            return count;
+        }
+    }
+
+    private static OrderExportRowDTO toOrderExportRowDTO(Object[] tuple, String[] aliases) {
+        return new OrderExportRowDTO(
+            (Long) tuple[0],
+            (Instant) tuple[1],
+            (Instant) tuple[2],
+            (String) tuple[3],
+            (BigDecimal) tuple[4],
+            (BigDecimal) tuple[5],
+            (String) tuple[6],
+            (Long) tuple[7],
+            (Long) tuple[8]
+        );
+    }
+
+    private long writeNdjson(ScrollableResults<OrderExportRowDTO> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = rowWriter.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (rows.next()) {
+                rowWriter.writeValue(generator, rows.get());
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(ScrollableResults<OrderExportRowDTO> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        while (rows.next()) {
+            OrderExportRowDTO row = rows.get();
+            writer.write(csvValue(row.id()));
+            writer.write(',');
+            writer.write(csvValue(row.orderDate()));
+            writer.write(',');
+            writer.write(csvValue(row.shippedDate()));
+            writer.write(',');
+            writer.write(csvValue(row.status()));
+            writer.write(',');
+            writer.write(csvValue(row.totalAmount() != null ? row.totalAmount().toPlainString() : null));
+            writer.write(',');
+            writer.write(csvValue(row.shippingCost() != null ? row.shippingCost().toPlainString() : null));
+            writer.write(',');
+            writer.write(csvValue(row.trackingNumber()));
+            writer.write(',');
+            writer.write(csvValue(row.customerId()));
+            writer.write(',');
+            writer.write(csvValue(row.shippingAddressId()));
+            writer.write("\r\n");
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Format a CSV field as described by RFC 4180: quoted only when it contains a separator, a quote or a line break.
+     */
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,444 @@
+package myapp.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import myapp.config.ApplicationProperties;
+import myapp.service.dto.OrderDTO;
+import myapp.service.dto.OrderHourlyTotalsDTO;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the monthly partitions of {@code jhi_order} and moving old {@link myapp.domain.Order}s to
+ * {@code jhi_order_archive}.
+ * <p>
+ * On PostgreSQL, {@code jhi_order} is partitioned by range of {@code order_date}, in UTC: the partitions of the coming
+ * months are created ahead of time, moving their orders out of the default partition if any, and the partitions older
+ * than {@code application.order-partitions.archive-after-months} are detached and copied to the archive as a whole.
+ * On other databases, such as H2 in development, {@code jhi_order} is a plain table whose old orders are moved to the
+ * archive by batches. Either way, orders still referenced by a product or a stock reservation stay in {@code jhi_order},
+ * in its default partition once theirs is archived, until they are not referenced anymore. On PostgreSQL, the foreign
+ * keys of {@code product} and {@code stock_reservation} to {@code jhi_order} are replaced by triggers, which allow the
+ * orders to move between partitions, by single statements, but not to be deleted or archived while referenced.
+ * <p>
+ * Archiving is only enabled by {@code application.order-partitions.archive-enabled}. Archived orders can only be read
+ * by id, through {@link #findArchived(Long)}, exported, and summed up to rebuild the order statistics: they are not
+ * listed, updated nor deleted anymore.
+ */
+@Service
+public class OrderPartitionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderPartitionService.class);
+
+    static final String ORDER_TABLE = "jhi_order";
+
+    static final String DEFAULT_PARTITION = "jhi_order_default";
+
+    static final String ARCHIVE_TABLE = "jhi_order_archive";
+
+    private static final String PARTITION_PREFIX = "jhi_order_p";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String COLUMNS =
+        "id, order_date, shipped_date, status, total_amount, shipping_cost, tracking_number, shipping_address_id, customer_id, version";
+
+    /**
+     * The condition on an order aliased {@code o} of being referenced by a product or a stock reservation.
+     */
+    private static final String REFERENCED =
+        "(exists (select 1 from product p where p.order_id = o.id) or exists (select 1 from stock_reservation r where r.order_id = o.id))";
+
+    private static final String HOUR_OF_ORDER_DATE =
+        "extract(year from order_date), extract(month from order_date), extract(day from order_date), extract(hour from order_date)";
+
+    private static final String ARCHIVED_HOURLY_TOTALS_QUERY =
+        "select " +
+        HOUR_OF_ORDER_DATE +
+        ", status, count(*), sum(total_amount), coalesce(sum(shipping_cost), 0) from " +
+        ARCHIVE_TABLE +
+        " where order_date >= :from and order_date < :to group by " +
+        HOUR_OF_ORDER_DATE +
+        ", status";
+
+    private static final String PARTITIONED_QUERY =
+        "select count(*) from pg_partitioned_table pt join pg_class c on c.oid = pt.partrelid" +
+        " where c.relname = '" +
+        ORDER_TABLE +
+        "' and pg_table_is_visible(c.oid)";
+
+    private static final String PARTITIONS_QUERY =
+        "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid join pg_class p on p.oid = i.inhparent" +
+        " where p.relname = '" +
+        ORDER_TABLE +
+        "' and pg_table_is_visible(p.oid)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private volatile Boolean partitioned;
+
+    public OrderPartitionService(ApplicationProperties applicationProperties, PlatformTransactionManager transactionManager) {
+        this.applicationProperties = applicationProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * The start of the hot months, the current one included, whose orders are listed as the recent ones.
+     *
+     * @param current the current month, in UTC.
+     * @param hotMonths the number of hot months.
+     * @return the start of the oldest hot month.
+     */
+    public static Instant hotPeriodStart(YearMonth current, int hotMonths) {
+        return monthStart(current.minusMonths(Math.max(hotMonths, 1) - 1L));
+    }
+
+    /**
+     * Create the coming monthly partitions and archive the old orders.
+     * <p>
+     * This is scheduled to get fired every {@code application.order-partitions.maintenance-interval}.
+     */
+    @Scheduled(fixedDelayString = "${application.order-partitions.maintenance-interval:1h}")
+    public void maintain() {
+        maintain(YearMonth.now(ZoneOffset.UTC));
+    }
+
+    void maintain(YearMonth current) {
+        ApplicationProperties.OrderPartitions properties = applicationProperties.getOrderPartitions();
+        YearMonth archiveBefore = current.minusMonths(properties.getArchiveAfterMonths());
+        int archived = 0;
+        if (isPartitioned()) {
+            Set<YearMonth> months = findPartitionMonths();
+            YearMonth last = current.plusMonths(properties.getMonthsAhead());
+            for (YearMonth month = archiveBefore; !month.isAfter(last); month = month.plusMonths(1)) {
+                if (!months.contains(month)) {
+                    createPartition(month);
+                }
+            }
+            if (properties.isArchiveEnabled()) {
+                for (YearMonth month : months) {
+                    if (month.isBefore(archiveBefore)) {
+                        archived += archivePartition(month);
+                    }
+                }
+                archived += archiveDefaultPartitionBefore(monthStart(archiveBefore));
+            }
+        } else if (properties.isArchiveEnabled()) {
+            archived += archiveOrderTableBefore(monthStart(archiveBefore));
+        }
+        if (archived > 0) {
+            LOG.info("Archived {} orders placed before {}", archived, archiveBefore);
+        }
+    }
+
+    /**
+     * Get one archived order by id. Archived orders are read-only.
+     *
+     * @param id the id of the order.
+     * @return the order, if archived.
+     */
+    public Optional<OrderDTO> findArchived(Long id) {
+        LOG.debug("Request to get archived Order : {}", id);
+        List<?> rows = readOnlyTransactionTemplate.execute(status ->
+            entityManager
+                .createNativeQuery("select " + COLUMNS + " from " + ARCHIVE_TABLE + " where id = :id")
+                .setParameter("id", id)
+                .getResultList()
+        );
+        return rows.stream().findFirst().map(row -> toOrderDTO((Object[]) row));
+    }
+
+    /**
+     * Sum the archived orders placed in {@code [from, to)} by hour, in UTC, and status, as
+     * {@link myapp.repository.OrderRepository#findHourlyTotals(Instant, Instant)} does for the other ones.
+     *
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @return the totals of each hour and status having archived orders.
+     */
+    public List<OrderHourlyTotalsDTO> findArchivedHourlyTotals(Instant from, Instant to) {
+        LOG.debug("Request to sum archived Orders from {} to {} by hour", from, to);
+        List<?> rows = readOnlyTransactionTemplate.execute(status ->
+            entityManager.createNativeQuery(ARCHIVED_HOURLY_TOTALS_QUERY).setParameter("from", from).setParameter("to", to).getResultList()
+        );
+        return rows.stream().map(row -> toOrderHourlyTotalsDTO((Object[]) row)).toList();
+    }
+
+    /**
+     * Whether {@code jhi_order} is partitioned, which is only the case on PostgreSQL.
+     */
+    boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            result = transactionTemplate.execute(status -> {
+                String database = entityManager
+                    .unwrap(Session.class)
+                    .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+                return (
+                    "PostgreSQL".equals(database) &&
+                    ((Number) entityManager.createNativeQuery(PARTITIONED_QUERY).getSingleResult()).longValue() > 0
+                );
+            });
+            LOG.debug("Orders are {}partitioned", Boolean.TRUE.equals(result) ? "" : "not ");
+            partitioned = result;
+        }
+        return result;
+    }
+
+    private Set<YearMonth> findPartitionMonths() {
+        Set<YearMonth> months = new TreeSet<>();
+        transactionTemplate
+            .execute(status -> (List<?>) entityManager.createNativeQuery(PARTITIONS_QUERY).getResultList())
+            .forEach(table -> partitionMonth(table.toString()).ifPresent(months::add));
+        return months;
+    }
+
+    /**
+     * Create the partition of a month, moving its orders out of the default partition.
+     * <p>
+     * Should an order of the month be written to the default partition while it is moved, attaching the partition
+     * fails and the whole creation is retried at the next run.
+     */
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        Instant from = monthStart(month);
+        Instant to = monthStart(month.plusMonths(1));
+        try {
+            int moved = transactionTemplate.execute(status -> {
+                execute("create table " + partition + " (like " + ORDER_TABLE + " including defaults)");
+                int rows = entityManager
+                    .createNativeQuery(moveStatement(DEFAULT_PARTITION, partition, "order_date >= :from and order_date < :to"))
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .executeUpdate();
+                execute(
+                    "alter table " +
+                    ORDER_TABLE +
+                    " attach partition " +
+                    partition +
+                    " for values from ('" +
+                    BOUND.format(from.atOffset(ZoneOffset.UTC)) +
+                    "') to ('" +
+                    BOUND.format(to.atOffset(ZoneOffset.UTC)) +
+                    "')"
+                );
+                return rows;
+            });
+            LOG.info("Created Order partition {}, moving {} orders out of {}", partition, moved, DEFAULT_PARTITION);
+        } catch (RuntimeException e) {
+            LOG.warn("Order partition {} could not be created, it will be retried at the next run", partition, e);
+        }
+    }
+
+    /**
+     * Detach the partition of a month and copy its orders to the archive. Once detached, the partition is not written
+     * to anymore. The referenced orders are moved back to {@code jhi_order}, where they land in the default partition.
+     */
+    private int archivePartition(YearMonth month) {
+        String partition = partitionName(month);
+        try {
+            return transactionTemplate.execute(status -> {
+                execute("alter table " + ORDER_TABLE + " detach partition " + partition);
+                execute(moveStatement(partition, ORDER_TABLE, REFERENCED));
+                int rows = execute("insert into " + ARCHIVE_TABLE + " (" + COLUMNS + ") select " + COLUMNS + " from " + partition);
+                execute("drop table " + partition);
+                return rows;
+            });
+        } catch (RuntimeException e) {
+            LOG.warn("Order partition {} could not be archived, it will be retried at the next run", partition, e);
+            return 0;
+        }
+    }
+
+    /**
+     * Move the orders of the default partition placed before an instant to the archive.
+     */
+    private int archiveDefaultPartitionBefore(Instant before) {
+        try {
+            return transactionTemplate.execute(status ->
+                entityManager
+                    .createNativeQuery(moveStatement(DEFAULT_PARTITION, ARCHIVE_TABLE, "o.order_date < :before and not " + REFERENCED))
+                    .setParameter("before", before)
+                    .executeUpdate()
+            );
+        } catch (RuntimeException e) {
+            LOG.warn(
+                "Orders of {} placed before {} could not be archived, it will be retried at the next run",
+                DEFAULT_PARTITION,
+                before,
+                e
+            );
+            return 0;
+        }
+    }
+
+    /**
+     * Move the orders of the unpartitioned {@code jhi_order} placed before an instant to the archive, by batches.
+     * <p>
+     * The orders of a batch are locked before they are copied, then deleted by id: an order updated concurrently is
+     * copied once updated, and an order inserted concurrently is left in place. As the foreign keys to {@code jhi_order}
+     * are kept there, orders still referenced by a product or a stock reservation are not archived.
+     */
+    private int archiveOrderTableBefore(Instant before) {
+        int batchSize = applicationProperties.getOrderPartitions().getArchiveBatchSize();
+        int archived = 0;
+        try {
+            int rows;
+            do {
+                rows = transactionTemplate.execute(status -> {
+                    List<?> ids = entityManager
+                        .createNativeQuery(
+                            "select id from " +
+                            ORDER_TABLE +
+                            " o where o.order_date < :before and not " +
+                            REFERENCED +
+                            " order by o.id fetch first :size rows only for update"
+                        )
+                        .setParameter("before", before)
+                        .setParameter("size", batchSize)
+                        .getResultList();
+                    if (ids.isEmpty()) {
+                        return 0;
+                    }
+                    entityManager
+                        .createNativeQuery(
+                            "insert into " +
+                            ARCHIVE_TABLE +
+                            " (" +
+                            COLUMNS +
+                            ") select " +
+                            COLUMNS +
+                            " from " +
+                            ORDER_TABLE +
+                            " where id in (:ids)"
+                        )
+                        .setParameter("ids", ids)
+                        .executeUpdate();
+                    return entityManager
+                        .createNativeQuery("delete from " + ORDER_TABLE + " where id in (:ids)")
+                        .setParameter("ids", ids)
+                        .executeUpdate();
+                });
+                archived += rows;
+            } while (rows == batchSize);
+        } catch (RuntimeException e) {
+            LOG.warn("Orders of {} placed before {} could not be archived, it will be retried at the next run", ORDER_TABLE, before, e);
+        }
+        return archived;
+    }
+
+    /**
+     * The PostgreSQL statement moving the rows of a table matching a condition to another table. Rows are deleted and
+     * copied by the same statement, so that no row written concurrently is deleted without being copied. The condition
+     * refers to the rows of the first table by the alias {@code o}.
+     */
+    static String moveStatement(String from, String to, String condition) {
+        return (
+            "with moved as (delete from " +
+            from +
+            " o where " +
+            condition +
+            " returning " +
+            COLUMNS +
+            ") insert into " +
+            to +
+            " (" +
+            COLUMNS +
+            ") select " +
+            COLUMNS +
+            " from moved"
+        );
+    }
+
+    private static OrderDTO toOrderDTO(Object[] row) {
+        return new OrderDTO(
+            ((Number) row[0]).longValue(),
+            toInstant(row[1]),
+            toInstant(row[2]),
+            (String) row[3],
+            (BigDecimal) row[4],
+            (BigDecimal) row[5],
+            (String) row[6],
+            ((Number) row[9]).longValue(),
+            row[7] == null ? null : ((Number) row[7]).longValue(),
+            row[8] == null ? null : ((Number) row[8]).longValue()
+        );
+    }
+
+    private static OrderHourlyTotalsDTO toOrderHourlyTotalsDTO(Object[] row) {
+        return new OrderHourlyTotalsDTO(
+            ((Number) row[0]).intValue(),
+            ((Number) row[1]).intValue(),
+            ((Number) row[2]).intValue(),
+            ((Number) row[3]).intValue(),
+            (String) row[4],
+            ((Number) row[5]).longValue(),
+            (BigDecimal) row[6],
+            (BigDecimal) row[7]
+        );
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toInstant(ZoneOffset.UTC);
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.toInstant(ZoneOffset.UTC);
+        }
+        return (Instant) value;
+    }
+
+    private int execute(String statement) {
+        return entityManager.createNativeQuery(statement).executeUpdate();
+    }
+
+    static Instant monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + PARTITION_SUFFIX.format(month);
+    }
+
+    static Optional<YearMonth> partitionMonth(String table) {
+        if (!table.startsWith(PARTITION_PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(YearMonth.parse(table.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
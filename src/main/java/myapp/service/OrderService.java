@@ -1,14 +1,45 @@
 package myapp.service;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import myapp.config.ApplicationProperties;
+import myapp.domain.Address;
+import myapp.domain.Customer;
 import myapp.domain.Order;
+import myapp.domain.Product;
 import myapp.repository.OrderRepository;
+import myapp.repository.ProductRepository;
+import myapp.service.dto.KeysetCursor;
+import myapp.service.dto.OrderDTO;
+import myapp.service.dto.OrderFiguresDTO;
+import myapp.service.dto.OrderPlacementDTO;
+import myapp.service.dto.OrderPlacementResultDTO;
+import myapp.service.dto.OrderPlacementResultDTO.LineResult;
+import myapp.service.dto.OrderPlacementResultDTO.LineStatus;
+import myapp.service.event.OrderChangedEvent;
+import myapp.service.outbox.OutboxService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service Implementation for managing {@link myapp.domain.Order}.
@@ -19,10 +50,42 @@ public class OrderService {
 
     private static final Logger LOG = LoggerFactory.getLogger(OrderService.class);
 
+    public static final String STATUS_PENDING = "PENDING";
+
+    public static final String STATUS_CONFIRMED = "CONFIRMED";
+
+    public static final String STATUS_CANCELLED = "CANCELLED";
+
     private final OrderRepository orderRepository;
 
-    public OrderService(OrderRepository orderRepository) {
+    private final ProductRepository productRepository;
+
+    private final StockReservationService stockReservationService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final OutboxService outboxService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderService(
+        OrderRepository orderRepository,
+        ProductRepository productRepository,
+        StockReservationService stockReservationService,
+        ApplicationProperties applicationProperties,
+        OutboxService outboxService,
+        ApplicationEventPublisher eventPublisher,
+        PlatformTransactionManager transactionManager
+    ) {
         this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.stockReservationService = stockReservationService;
+        this.applicationProperties = applicationProperties;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -33,25 +96,210 @@ public class OrderService {
      */
     public Order save(Order order) {
         LOG.debug("Request to save Order : {}", order);
-        return orderRepository.save(order);
+        Order result = orderRepository.save(order);
+        outboxService.recordSaved(result);
+        eventPublisher.publishEvent(OrderChangedEvent.created(result));
+        return result;
+    }
+
+    /**
+     * Place an order, reserving the stock of all its lines.
+     * <p>
+     * The order is created {@link #STATUS_PENDING pending}, with its total amount computed from the current product
+     * prices, and its stock stays reserved until it is {@link #confirm(Long) confirmed}, {@link #cancel(Long) cancelled}
+     * or the reservation expires. If any line cannot be served nothing is reserved nor created.
+     * <p>
+     * Products are reserved in id order, each with a single conditional update, so placements of unrelated products
+     * never wait on each other and placements sharing a hot product only wait on that product's row.
+     *
+     * @param placement the lines to order.
+     * @return the placement result, with the created order if it succeeded.
+     */
+    public OrderPlacementResultDTO place(OrderPlacementDTO placement) {
+        LOG.debug("Request to place Order : {}", placement);
+        Map<Long, Integer> quantities = new TreeMap<>();
+        placement.lines().forEach(line -> quantities.merge(line.productId(), line.quantity(), Integer::sum));
+        Map<Long, Product> products = new HashMap<>();
+        productRepository.findAllById(quantities.keySet()).forEach(product -> products.put(product.getId(), product));
+
+        // Fail fast on what the (possibly cached) products already tell, without touching the stock
+        Map<Long, LineStatus> statuses = new HashMap<>();
+        quantities.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product == null) {
+                statuses.put(productId, LineStatus.UNKNOWN_PRODUCT);
+            } else if (product.getQuantityInStock() == null || product.getQuantityInStock() < quantity) {
+                statuses.put(productId, LineStatus.OUT_OF_STOCK);
+            }
+        });
+
+        Instant now = Instant.now();
+        Instant reservedUntil = now.plus(applicationProperties.getStockReservation().getTimeToLive());
+        Order order = null;
+        if (statuses.isEmpty()) {
+            BigDecimal totalAmount = placement.shippingCost() == null ? BigDecimal.ZERO : placement.shippingCost();
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                totalAmount = totalAmount.add(products.get(entry.getKey()).getPrice().multiply(BigDecimal.valueOf(entry.getValue())));
+            }
+            order = orderRepository.save(
+                new Order()
+                    .orderDate(now)
+                    .status(STATUS_PENDING)
+                    .totalAmount(totalAmount)
+                    .shippingCost(placement.shippingCost())
+                    .customer(placement.customerId() == null ? null : new Customer().id(placement.customerId()))
+                    .shippingAddress(placement.shippingAddressId() == null ? null : new Address().id(placement.shippingAddressId()))
+            );
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                boolean reserved = stockReservationService.reserve(order, entry.getKey(), entry.getValue(), reservedUntil);
+                statuses.put(entry.getKey(), reserved ? LineStatus.OK : LineStatus.OUT_OF_STOCK);
+            }
+            if (statuses.containsValue(LineStatus.OUT_OF_STOCK)) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                order = null;
+            } else {
+                outboxService.recordSaved(order);
+                eventPublisher.publishEvent(OrderChangedEvent.created(order));
+            }
+        }
+
+        List<LineResult> lines = placement
+            .lines()
+            .stream()
+            .map(line -> new LineResult(line.productId(), line.quantity(), statuses.getOrDefault(line.productId(), LineStatus.OK)))
+            .toList();
+        if (order == null) {
+            LOG.debug("Order placement failed : {}", lines);
+        }
+        return new OrderPlacementResultDTO(order, order == null ? null : reservedUntil, lines);
+    }
+
+    /**
+     * Confirm a pending order: its reserved stock is kept for good.
+     *
+     * @param id the id of the order.
+     * @return the order, {@link #STATUS_CONFIRMED confirmed} unless it was not pending or its reservation was already released.
+     */
+    public Optional<Order> confirm(Long id) {
+        LOG.debug("Request to confirm Order : {}", id);
+        return orderRepository
+            .findById(id)
+            .map(order -> {
+                if (STATUS_PENDING.equals(order.getStatus()) && stockReservationService.confirm(id) > 0) {
+                    OrderFiguresDTO before = OrderFiguresDTO.of(order);
+                    order.setStatus(STATUS_CONFIRMED);
+                    outboxService.recordSaved(order);
+                    eventPublisher.publishEvent(OrderChangedEvent.updated(before, order));
+                }
+                return order;
+            });
+    }
+
+    /**
+     * Cancel a pending order: its reserved stock is given back.
+     *
+     * @param id the id of the order.
+     * @return the order, {@link #STATUS_CANCELLED cancelled} unless it was not pending or its reservation was already confirmed.
+     */
+    public Optional<Order> cancel(Long id) {
+        LOG.debug("Request to cancel Order : {}", id);
+        return orderRepository
+            .findById(id)
+            .map(order -> {
+                if (STATUS_PENDING.equals(order.getStatus())) {
+                    cancelPending(order);
+                }
+                return order;
+            });
+    }
+
+    private boolean cancelPending(Order order) {
+        if (stockReservationService.release(order.getId()) == 0) {
+            return false;
+        }
+        OrderFiguresDTO before = OrderFiguresDTO.of(order);
+        order.setStatus(STATUS_CANCELLED);
+        outboxService.recordSaved(order);
+        eventPublisher.publishEvent(OrderChangedEvent.updated(before, order));
+        return true;
+    }
+
+    /**
+     * Cancel the pending orders whose stock reservation expired.
+     * <p>
+     * Each order is cancelled in a transaction of its own: an order failing, such as one updated concurrently, is
+     * left for the next run without rolling back the others. The expired reservations of an order which is not pending
+     * anymore, or was archived, are released all the same, without touching the order, so that they never hold the
+     * batch back.
+     * <p>
+     * This is scheduled to get fired every {@code application.stock-reservation.release-interval}.
+     */
+    @Scheduled(fixedDelayString = "${application.stock-reservation.release-interval:30s}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void releaseExpiredReservations() {
+        List<Long> orderIds = stockReservationService.findExpiredOrderIds(
+            Instant.now(),
+            applicationProperties.getStockReservation().getReleaseBatchSize()
+        );
+        int released = 0;
+        for (Long orderId : orderIds) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> releaseExpired(orderId)))) {
+                    released++;
+                }
+            } catch (RuntimeException e) {
+                LOG.warn("Could not release the expired stock reservations of Order {}, will retry: {}", orderId, e.toString());
+            }
+        }
+        if (released > 0) {
+            LOG.info("Released the expired stock reservations of {} orders", released);
+        }
+    }
+
+    private boolean releaseExpired(Long orderId) {
+        return orderRepository
+            .findById(orderId)
+            .filter(order -> STATUS_PENDING.equals(order.getStatus()))
+            .map(this::cancelPending)
+            .orElseGet(() -> stockReservationService.release(orderId) > 0);
     }
 
     /**
      * Update a order.
+     * <p>
+     * Orders are not cached: the current order is read with one {@code SELECT}, for the order statistics to apply the
+     * change as a delta, and merged into with a single {@code UPDATE} statement of the changed columns, guarded by its
+     * version.
      *
-     * @param order the entity to save.
-     * @return the persisted entity.
+     * @param order the entity to save, with the version it was read at, or without version to overwrite the current one.
+     * @return the persisted entity, empty if the order does not exist.
      */
-    public Order update(Order order) {
+    public Optional<Order> update(Order order) {
         LOG.debug("Request to update Order : {}", order);
-        return orderRepository.save(order);
+        return orderRepository
+            .findById(order.getId())
+            .map(existingOrder -> {
+                if (order.getVersion() != null && !order.getVersion().equals(existingOrder.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Order.class, order.getId());
+                }
+                order.setVersion(existingOrder.getVersion());
+                OrderFiguresDTO before = OrderFiguresDTO.of(existingOrder);
+                Order result = orderRepository.save(order);
+                outboxService.recordSaved(result);
+                eventPublisher.publishEvent(OrderChangedEvent.updated(before, result));
+                return result;
+            });
     }
 
     /**
      * Partially update a order.
+     * <p>
+     * The order is read with one {@code SELECT}, then only the changed columns are written, with a single
+     * {@code UPDATE} statement guarded by the version of the order.
      *
-     * @param order the entity to update partially.
-     * @return the persisted entity.
+     * @param order the entity to update partially, with the version it was read at, or without version to
+     * overwrite the given fields whatever the current version.
+     * @return the persisted entity, empty if the order does not exist.
      */
     public Optional<Order> partialUpdate(Order order) {
         LOG.debug("Request to partially update Order : {}", order);
@@ -59,6 +307,10 @@ public class OrderService {
         return orderRepository
             .findById(order.getId())
             .map(existingOrder -> {
+                if (order.getVersion() != null && !order.getVersion().equals(existingOrder.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Order.class, order.getId());
+                }
+                OrderFiguresDTO before = OrderFiguresDTO.of(existingOrder);
                 if (order.getOrderDate() != null) {
                     existingOrder.setOrderDate(order.getOrderDate());
                 }
@@ -78,21 +330,56 @@ public class OrderService {
                     existingOrder.setTrackingNumber(order.getTrackingNumber());
                 }
 
-                return existingOrder;
-            })
-            .map(orderRepository::save);
+                Order result = orderRepository.save(existingOrder);
+                outboxService.recordSaved(result);
+                eventPublisher.publishEvent(OrderChangedEvent.updated(before, result));
+                return result;
+            });
     }
 
     /**
-     * Get all the orders.
+     * Get all the orders not archived yet, reading only the columns of their read model.
      *
      * @param pageable the pagination information.
-     * @return the list of entities.
+     * @return the list of DTOs.
      */
     @Transactional(readOnly = true)
-    public Page<Order> findAll(Pageable pageable) {
+    public Page<OrderDTO> findAll(Pageable pageable) {
         LOG.debug("Request to get all Orders");
-        return orderRepository.findAll(pageable);
+        return orderRepository.findAllProjectedBy(pageable);
+    }
+
+    /**
+     * Get the orders placed during the {@code application.order-partitions.hot-months}, reading only their partitions.
+     *
+     * @param pageable the pagination information.
+     * @return the list of DTOs.
+     */
+    @Transactional(readOnly = true)
+    public Page<OrderDTO> findRecent(Pageable pageable) {
+        Instant since = OrderPartitionService.hotPeriodStart(
+            YearMonth.now(ZoneOffset.UTC),
+            applicationProperties.getOrderPartitions().getHotMonths()
+        );
+        LOG.debug("Request to get the Orders placed since {}", since);
+        return orderRepository.findAllProjectedSince(since, pageable);
+    }
+
+    /**
+     * Get a keyset page of orders, most recent first.
+     *
+     * @param cursor the position after which to read, or {@code null} for the first page.
+     * @param size the page size.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Order> findAllAfter(KeysetCursor cursor, int size) {
+        LOG.debug("Request to get a keyset page of Orders after {}", cursor);
+        Limit limit = Limit.of(size + 1);
+        List<Order> orders = cursor == null
+            ? orderRepository.findAllByOrderByOrderDateDescIdDesc(limit)
+            : orderRepository.findAllBefore(cursor.sortKey(), cursor.id(), limit);
+        return KeysetCursor.toSlice(orders, size);
     }
 
     /**
@@ -114,6 +401,11 @@ public class OrderService {
      */
     public void delete(Long id) {
         LOG.debug("Request to delete Order : {}", id);
+        stockReservationService.release(id);
+        // Loaded anyway to be deleted
+        OrderFiguresDTO before = orderRepository.findById(id).map(OrderFiguresDTO::of).orElse(null);
         orderRepository.deleteById(id);
+        outboxService.recordDeleted(Order.class, id);
+        eventPublisher.publishEvent(OrderChangedEvent.deleted(id, before));
     }
 }
@@ -0,0 +1,290 @@
+package myapp.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import myapp.domain.OrderStats;
+import myapp.domain.enumeration.OrderStatsGranularity;
+import myapp.repository.OrderRepository;
+import myapp.repository.OrderStatsRepository;
+import myapp.service.dto.OrderFiguresDTO;
+import myapp.service.dto.OrderHourlyTotalsDTO;
+import myapp.service.dto.OrderStatsDTO;
+import myapp.service.event.OrderChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the hourly and daily {@link OrderStats} rollups of the {@link myapp.domain.Order}s, by status.
+ * <p>
+ * Each {@link OrderChangedEvent} is recorded in the outbox by the transaction writing the order, and applied as a delta
+ * once relayed, the figures of the order before the change being taken out of their buckets and the new ones added:
+ * an order write only pays for its outbox event, and a change is applied exactly once, in the transaction marking its
+ * event as delivered. The buckets of a period can also be rebuilt from the orders, in the background.
+ * Statistics are only ever read from the rollups, never from {@code jhi_order}.
+ */
+@Service
+public class OrderStatsService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderStatsService.class);
+
+    private static final int AVERAGE_SCALE = 2;
+
+    private static final int SHARE_SCALE = 4;
+
+    private static final String ADD_DELTA =
+        "update order_stats set order_count = order_count + ?, total_amount = total_amount + ?, shipping_cost = shipping_cost + ?" +
+        " where granularity = ? and bucket_start = ? and status = ?";
+
+    private final OrderStatsRepository orderStatsRepository;
+
+    private final OrderRepository orderRepository;
+
+    private final OrderPartitionService orderPartitionService;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderStatsService(
+        OrderStatsRepository orderStatsRepository,
+        OrderRepository orderRepository,
+        OrderPartitionService orderPartitionService,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.orderStatsRepository = orderStatsRepository;
+        this.orderRepository = orderRepository;
+        this.orderPartitionService = orderPartitionService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * The statistics of one bucket and status.
+     */
+    record Bucket(OrderStatsGranularity granularity, Instant start, String status) {}
+
+    /**
+     * A change of the statistics of a bucket and status.
+     */
+    record Delta(long orderCount, BigDecimal totalAmount, BigDecimal shippingCost) {
+        Delta plus(Delta other) {
+            return new Delta(orderCount + other.orderCount, totalAmount.add(other.totalAmount), shippingCost.add(other.shippingCost));
+        }
+
+        boolean isZero() {
+            return orderCount == 0 && totalAmount.signum() == 0 && shippingCost.signum() == 0;
+        }
+    }
+
+    /**
+     * Apply a committed order change to the statistics, in the current transaction.
+     * <p>
+     * The deltas are written under a savepoint, with plain JDBC so that a failure does not mark the transaction as
+     * rollback-only: it only rolls back the deltas of this change, and the rest of the transaction can still commit.
+     * The missing buckets are created empty first, each in a transaction of its own, so that a bucket created
+     * concurrently is simply updated.
+     *
+     * @param event the order change.
+     */
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = RuntimeException.class)
+    public void apply(OrderChangedEvent event) {
+        LOG.debug("Request to apply Order change to statistics : {}", event);
+        Map<Bucket, Delta> deltas = deltas(event);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Savepoint savepoint = jdbcTemplate.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+        try {
+            deltas.forEach(this::applyDelta);
+        } catch (RuntimeException e) {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                connection.rollback(savepoint);
+                return null;
+            });
+            throw e;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            connection.releaseSavepoint(savepoint);
+            return null;
+        });
+    }
+
+    /**
+     * Rebuild the statistics of the days overlapping {@code [from, to)} from the orders, in the background.
+     *
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     */
+    @Async
+    public void rebuildInBackground(Instant from, Instant to) {
+        rebuild(from, to);
+    }
+
+    /**
+     * Rebuild the statistics of the days overlapping {@code [from, to)} from the orders, archived ones included.
+     * <p>
+     * Orders written while a period is rebuilt may be counted twice or not at all in it: rebuild periods that are not
+     * written to anymore.
+     *
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @return the number of hourly buckets rebuilt.
+     */
+    public int rebuild(Instant from, Instant to) {
+        Instant start = from.truncatedTo(ChronoUnit.DAYS);
+        Instant end = to.truncatedTo(ChronoUnit.DAYS).equals(to) ? to : to.truncatedTo(ChronoUnit.DAYS).plus(1, ChronoUnit.DAYS);
+        LOG.debug("Request to rebuild Order statistics from {} to {}", start, end);
+        int rebuilt = transactionTemplate.execute(status -> {
+            orderStatsRepository.deleteRange(start, end);
+            Map<Bucket, Delta> buckets = new LinkedHashMap<>();
+            List<OrderHourlyTotalsDTO> hours = new ArrayList<>(orderRepository.findHourlyTotals(start, end));
+            hours.addAll(orderPartitionService.findArchivedHourlyTotals(start, end));
+            for (OrderHourlyTotalsDTO hour : hours) {
+                Instant hourStart = LocalDateTime.of(hour.year(), hour.month(), hour.day(), hour.hour(), 0).toInstant(ZoneOffset.UTC);
+                Delta totals = new Delta(hour.orderCount(), hour.totalAmount(), hour.shippingCost());
+                buckets.merge(new Bucket(OrderStatsGranularity.HOUR, hourStart, hour.status()), totals, Delta::plus);
+                buckets.merge(
+                    new Bucket(OrderStatsGranularity.DAY, hourStart.truncatedTo(ChronoUnit.DAYS), hour.status()),
+                    totals,
+                    Delta::plus
+                );
+            }
+            List<OrderStats> rows = new ArrayList<>();
+            buckets.forEach((bucket, totals) -> rows.add(toOrderStats(bucket, totals)));
+            orderStatsRepository.saveAll(rows);
+            return (int) buckets.keySet().stream().filter(bucket -> bucket.granularity() == OrderStatsGranularity.HOUR).count();
+        });
+        LOG.info("Rebuilt Order statistics from {} to {}: {} hourly buckets", start, end, rebuilt);
+        return rebuilt;
+    }
+
+    /**
+     * Get the statistics of the buckets starting in {@code [from, to)}, oldest first. Buckets without orders are skipped.
+     *
+     * @param granularity the width of the buckets.
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @return the statistics of each bucket.
+     */
+    public List<OrderStatsDTO> findStats(OrderStatsGranularity granularity, Instant from, Instant to) {
+        LOG.debug("Request to get {} Order statistics from {} to {}", granularity, from, to);
+        Map<Instant, List<OrderStats>> buckets = new TreeMap<>();
+        orderStatsRepository
+            .findRange(granularity, from, to)
+            .forEach(orderStats -> buckets.computeIfAbsent(orderStats.getBucketStart(), start -> new ArrayList<>()).add(orderStats));
+        List<OrderStatsDTO> stats = new ArrayList<>();
+        buckets.forEach((start, rows) -> {
+            long orderCount = 0;
+            BigDecimal totalAmount = BigDecimal.ZERO;
+            BigDecimal shippingCost = BigDecimal.ZERO;
+            Map<String, Long> orderCountByStatus = new TreeMap<>();
+            for (OrderStats row : rows) {
+                orderCount += row.getOrderCount();
+                totalAmount = totalAmount.add(row.getTotalAmount());
+                shippingCost = shippingCost.add(row.getShippingCost());
+                if (row.getOrderCount() != 0) {
+                    orderCountByStatus.put(row.getStatus(), row.getOrderCount());
+                }
+            }
+            if (orderCount != 0) {
+                stats.add(
+                    new OrderStatsDTO(
+                        start,
+                        orderCount,
+                        totalAmount,
+                        totalAmount.divide(BigDecimal.valueOf(orderCount), AVERAGE_SCALE, RoundingMode.HALF_UP),
+                        shippingCost,
+                        totalAmount.signum() == 0 ? null : shippingCost.divide(totalAmount, SHARE_SCALE, RoundingMode.HALF_UP),
+                        orderCountByStatus
+                    )
+                );
+            }
+        });
+        return stats;
+    }
+
+    /**
+     * The deltas of an order change: its previous figures are taken out of their buckets, the new ones added.
+     */
+    static Map<Bucket, Delta> deltas(OrderChangedEvent event) {
+        Map<Bucket, Delta> deltas = new LinkedHashMap<>();
+        addFigures(deltas, event.before(), -1);
+        addFigures(deltas, event.after(), 1);
+        deltas.values().removeIf(Delta::isZero);
+        return deltas;
+    }
+
+    private static void addFigures(Map<Bucket, Delta> deltas, OrderFiguresDTO figures, int sign) {
+        if (figures == null || figures.orderDate() == null || figures.status() == null) {
+            return;
+        }
+        BigDecimal totalAmount = figures.totalAmount() == null ? BigDecimal.ZERO : figures.totalAmount();
+        BigDecimal shippingCost = figures.shippingCost() == null ? BigDecimal.ZERO : figures.shippingCost();
+        Delta delta = sign > 0 ? new Delta(1, totalAmount, shippingCost) : new Delta(-1, totalAmount.negate(), shippingCost.negate());
+        for (OrderStatsGranularity granularity : OrderStatsGranularity.values()) {
+            Instant start = figures.orderDate().truncatedTo(granularity.getUnit());
+            deltas.merge(new Bucket(granularity, start, figures.status()), delta, Delta::plus);
+        }
+    }
+
+    private void applyDelta(Bucket bucket, Delta delta) {
+        if (addDelta(bucket, delta) == 0) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    orderStatsRepository.saveAndFlush(toOrderStats(bucket, new Delta(0, BigDecimal.ZERO, BigDecimal.ZERO)))
+                );
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent change created the bucket first: it is updated all the same
+                LOG.debug("Order statistics bucket {} created concurrently", bucket);
+            }
+            if (addDelta(bucket, delta) == 0) {
+                throw new IllegalStateException("Order statistics bucket " + bucket + " could not be created");
+            }
+        }
+    }
+
+    private int addDelta(Bucket bucket, Delta delta) {
+        return jdbcTemplate.update(
+            ADD_DELTA,
+            delta.orderCount(),
+            delta.totalAmount(),
+            delta.shippingCost(),
+            bucket.granularity().name(),
+            LocalDateTime.ofInstant(bucket.start(), ZoneOffset.UTC),
+            bucket.status()
+        );
+    }
+
+    private static OrderStats toOrderStats(Bucket bucket, Delta totals) {
+        return new OrderStats()
+            .granularity(bucket.granularity())
+            .bucketStart(bucket.start())
+            .status(bucket.status())
+            .orderCount(totals.orderCount())
+            .totalAmount(totals.totalAmount())
+            .shippingCost(totals.shippingCost());
+    }
+}
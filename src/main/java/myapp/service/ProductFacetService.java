@@ -0,0 +1,502 @@
+package myapp.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import myapp.config.ApplicationProperties;
+import myapp.domain.Product;
+import myapp.domain.enumeration.ProductStatus;
+import myapp.repository.CategoryRepository;
+import myapp.repository.ProductRepository;
+import myapp.service.dto.FilteredProductsDTO;
+import myapp.service.dto.ProductCategoryDTO;
+import myapp.service.dto.ProductDTO;
+import myapp.service.event.CategoryChangedEvent;
+import myapp.service.event.ProductChangedEvent;
+import myapp.service.event.ProductStockChangedEvent;
+import myapp.service.mapper.ProductMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service keeping in-memory bitmap indexes of the {@link Product}s by status, price band, rating, weight band,
+ * availability and category, to filter products and count them by facet without querying the database.
+ * <p>
+ * Each product is given a document number, its bit in the bitmaps. The indexes are built once the application is ready
+ * and then kept up to date from the {@link ProductChangedEvent}s, {@link ProductStockChangedEvent}s and
+ * {@link CategoryChangedEvent}s published after each commit; the document numbers of deleted products are only reused
+ * on the next rebuild. Only the page of matching products requested is loaded from the database.
+ */
+@Service
+public class ProductFacetService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductFacetService.class);
+
+    public static final String STATUS = "status";
+    public static final String PRICE = "price";
+    public static final String RATING = "rating";
+    public static final String WEIGHT = "weight";
+    public static final String IN_STOCK = "inStock";
+    public static final String CATEGORY = "category";
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private static final int MAX_RATING = 10;
+
+    private final ProductRepository productRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final ProductMapper productMapper;
+
+    private final BigDecimal[] priceBounds;
+
+    private final List<String> priceBandKeys;
+
+    private final double[] weightBounds;
+
+    private final List<String> weightBandKeys;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** product id -> document number */
+    private final Map<Long, Integer> documents = new HashMap<>();
+
+    /** document number -> quantity in stock */
+    private int[] quantities = new int[REBUILD_BATCH_SIZE];
+
+    /** document number -> product id */
+    private long[] productIds = new long[REBUILD_BATCH_SIZE];
+
+    private int documentCount;
+
+    private final BitSet live = new BitSet();
+
+    private final Map<ProductStatus, BitSet> statuses = new EnumMap<>(ProductStatus.class);
+
+    private final BitSet[] priceBands;
+
+    /** indexed by rating, from 1 to {@link #MAX_RATING} */
+    private final BitSet[] ratings = newBitSets(MAX_RATING + 1);
+
+    private final BitSet[] weightBands;
+
+    private final BitSet inStock = new BitSet();
+
+    private final Map<Long, BitSet> categories = new HashMap<>();
+
+    public ProductFacetService(
+        ProductRepository productRepository,
+        CategoryRepository categoryRepository,
+        ProductMapper productMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.productMapper = productMapper;
+        ApplicationProperties.ProductFacets facetsProperties = applicationProperties.getProductFacets();
+        this.priceBounds = facetsProperties.getPriceBands().toArray(BigDecimal[]::new);
+        this.priceBandKeys = bandKeys(facetsProperties.getPriceBands());
+        this.weightBounds = facetsProperties.getWeightBands().stream().mapToDouble(Double::doubleValue).toArray();
+        this.weightBandKeys = bandKeys(facetsProperties.getWeightBands().stream().map(BigDecimal::valueOf).toList());
+        this.priceBands = newBitSets(priceBandKeys.size());
+        this.weightBands = newBitSets(weightBandKeys.size());
+        for (ProductStatus status : ProductStatus.values()) {
+            statuses.put(status, new BitSet());
+        }
+    }
+
+    /**
+     * A filter on products: values of a dimension are alternatives, dimensions are combined. A {@code null} or empty
+     * dimension does not filter.
+     *
+     * @param statuses the statuses.
+     * @param priceBands the keys of the price bands, such as {@code 25-50}.
+     * @param ratings the ratings.
+     * @param weightBands the keys of the weight bands, such as {@code 1-2}.
+     * @param inStock whether the quantity in stock is positive.
+     * @param categoryIds the ids of the categories.
+     */
+    public record Filter(
+        Set<ProductStatus> statuses,
+        Set<String> priceBands,
+        Set<Integer> ratings,
+        Set<String> weightBands,
+        Boolean inStock,
+        Set<Long> categoryIds
+    ) {}
+
+    /**
+     * The ids of a page of matching products, with the facet counts.
+     */
+    record FacetedIds(Page<Long> ids, Map<String, Map<String, Integer>> facets) {}
+
+    /**
+     * Rebuild the whole index from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LOG.debug("Rebuilding product facet index");
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            documentCount = 0;
+            live.clear();
+            statuses.values().forEach(BitSet::clear);
+            Arrays.stream(priceBands).forEach(BitSet::clear);
+            Arrays.stream(ratings).forEach(BitSet::clear);
+            Arrays.stream(weightBands).forEach(BitSet::clear);
+            inStock.clear();
+            categories.clear();
+            long lastId = Long.MIN_VALUE;
+            List<Product> batch;
+            do {
+                batch = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(REBUILD_BATCH_SIZE));
+                for (Product product : batch) {
+                    doIndex(product);
+                    lastId = product.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            for (ProductCategoryDTO membership : categoryRepository.findAllProductMemberships()) {
+                Integer document = documents.get(membership.productId());
+                if (document != null) {
+                    categories.computeIfAbsent(membership.categoryId(), id -> new BitSet()).set(document);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOG.info("Product facet index built with {} products and {} categories", documents.size(), categories.size());
+    }
+
+    /**
+     * Apply a committed product change to the index.
+     *
+     * @param event the product change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.productId());
+        } else {
+            index(event.product());
+        }
+    }
+
+    /**
+     * Apply a committed stock change to the index.
+     *
+     * @param event the stock change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductStockChanged(ProductStockChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Integer document = documents.get(event.productId());
+            if (document != null) {
+                quantities[document] += event.delta();
+                inStock.set(document, quantities[document] > 0);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a committed category change to the index.
+     *
+     * @param event the category change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted() || event.productIds().isEmpty()) {
+                categories.remove(event.categoryId());
+                return;
+            }
+            BitSet members = new BitSet();
+            for (Long productId : event.productIds()) {
+                Integer document = documents.get(productId);
+                if (document != null) {
+                    members.set(document);
+                }
+            }
+            categories.put(event.categoryId(), members);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace a product in the index. Its categories are kept.
+     *
+     * @param product the product to index.
+     */
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            doIndex(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a product from the index.
+     *
+     * @param id the id of the product.
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer document = documents.remove(id);
+            if (document != null) {
+                clearAttributes(document);
+                categories.values().forEach(members -> members.clear(document));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Filter the products, in id order.
+     *
+     * @param filter the filter.
+     * @param pageable the pagination information, only its offset and size are used.
+     * @return the page of matching products, with the facet counts.
+     */
+    public FilteredProductsDTO filter(Filter filter, Pageable pageable) {
+        LOG.debug("Request to filter Products : {}", filter);
+        FacetedIds facetedIds = filterIds(filter, pageable);
+        Map<Long, Product> products = new HashMap<>();
+        productRepository.findAllById(facetedIds.ids().getContent()).forEach(product -> products.put(product.getId(), product));
+        List<ProductDTO> content = facetedIds
+            .ids()
+            .getContent()
+            .stream()
+            .map(products::get)
+            .filter(Objects::nonNull)
+            .map(productMapper::toDto)
+            .toList();
+        return new FilteredProductsDTO(content, facetedIds.ids().getTotalElements(), facetedIds.facets());
+    }
+
+    /**
+     * Filter the ids of the products, in id order, and count the products by facet.
+     * <p>
+     * The count of a value of a dimension is the number of products matching the filter on the other dimensions and
+     * that value, so that selecting it would match that many products.
+     */
+    FacetedIds filterIds(Filter filter, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            Map<String, BitSet> masks = new LinkedHashMap<>();
+            masks.put(STATUS, mask(filter.statuses(), statuses::get));
+            masks.put(PRICE, mask(filter.priceBands(), key -> bandOf(priceBands, priceBandKeys, key)));
+            masks.put(RATING, mask(filter.ratings(), rating -> rating >= 1 && rating <= MAX_RATING ? ratings[rating] : null));
+            masks.put(WEIGHT, mask(filter.weightBands(), key -> bandOf(weightBands, weightBandKeys, key)));
+            masks.put(IN_STOCK, filter.inStock() == null ? null : availability(filter.inStock()));
+            masks.put(CATEGORY, mask(filter.categoryIds(), categories::get));
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            for (String dimension : masks.keySet()) {
+                BitSet others = matching(masks, dimension);
+                Map<String, Integer> counts = new LinkedHashMap<>();
+                switch (dimension) {
+                    case STATUS -> statuses.forEach((status, members) -> counts.put(status.name(), countAnd(others, members)));
+                    case PRICE -> countBands(counts, others, priceBands, priceBandKeys);
+                    case RATING -> {
+                        for (int rating = 1; rating <= MAX_RATING; rating++) {
+                            counts.put(String.valueOf(rating), countAnd(others, ratings[rating]));
+                        }
+                    }
+                    case WEIGHT -> countBands(counts, others, weightBands, weightBandKeys);
+                    case IN_STOCK -> {
+                        counts.put("true", countAnd(others, inStock));
+                        counts.put("false", countAnd(others, availability(false)));
+                    }
+                    default -> new TreeMap<>(categories).forEach((categoryId, members) -> {
+                        int count = countAnd(others, members);
+                        if (count > 0) {
+                            counts.put(String.valueOf(categoryId), count);
+                        }
+                    });
+                }
+                facets.put(dimension, counts);
+            }
+
+            BitSet matches = matching(masks, null);
+            int total = matches.cardinality();
+            List<Long> ids = new ArrayList<>();
+            long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+            int size = pageable.isPaged() ? pageable.getPageSize() : total;
+            int document = matches.nextSetBit(0);
+            for (long skipped = 0; document >= 0 && skipped < offset; skipped++) {
+                document = matches.nextSetBit(document + 1);
+            }
+            for (; document >= 0 && ids.size() < size; document = matches.nextSetBit(document + 1)) {
+                ids.add(productIds[document]);
+            }
+            return new FacetedIds(new PageImpl<>(ids, pageable, total), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void doIndex(Product product) {
+        Integer document = documents.get(product.getId());
+        if (document == null) {
+            document = documentCount++;
+            if (document == productIds.length) {
+                productIds = Arrays.copyOf(productIds, document * 2);
+                quantities = Arrays.copyOf(quantities, document * 2);
+            }
+            productIds[document] = product.getId();
+            documents.put(product.getId(), document);
+        } else {
+            clearAttributes(document);
+        }
+        live.set(document);
+        if (product.getStatus() != null) {
+            statuses.get(product.getStatus()).set(document);
+        }
+        if (product.getPrice() != null) {
+            priceBands[priceBand(product.getPrice())].set(document);
+        }
+        if (product.getRating() != null && product.getRating() >= 1 && product.getRating() <= MAX_RATING) {
+            ratings[product.getRating()].set(document);
+        }
+        if (product.getWeight() != null) {
+            weightBands[weightBand(product.getWeight())].set(document);
+        }
+        quantities[document] = product.getQuantityInStock() != null ? product.getQuantityInStock() : 0;
+        inStock.set(document, quantities[document] > 0);
+    }
+
+    private void clearAttributes(int document) {
+        live.clear(document);
+        statuses.values().forEach(members -> members.clear(document));
+        Arrays.stream(priceBands).forEach(members -> members.clear(document));
+        Arrays.stream(ratings).forEach(members -> members.clear(document));
+        Arrays.stream(weightBands).forEach(members -> members.clear(document));
+        inStock.clear(document);
+    }
+
+    private int priceBand(BigDecimal price) {
+        int band = 0;
+        while (band < priceBounds.length && price.compareTo(priceBounds[band]) >= 0) {
+            band++;
+        }
+        return band;
+    }
+
+    private int weightBand(double weight) {
+        int band = 0;
+        while (band < weightBounds.length && weight >= weightBounds[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    private BitSet availability(boolean available) {
+        if (available) {
+            return inStock;
+        }
+        BitSet unavailable = (BitSet) live.clone();
+        unavailable.andNot(inStock);
+        return unavailable;
+    }
+
+    /**
+     * The union of the bitmaps of the given values, or {@code null} if no value is given.
+     */
+    private static <T> BitSet mask(Collection<T> values, Function<T, BitSet> bitmaps) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        BitSet mask = new BitSet();
+        for (T value : values) {
+            BitSet members = bitmaps.apply(value);
+            if (members != null) {
+                mask.or(members);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * The products matching the masks of every dimension but the excluded one.
+     */
+    private BitSet matching(Map<String, BitSet> masks, String excludedDimension) {
+        BitSet matches = (BitSet) live.clone();
+        masks.forEach((dimension, mask) -> {
+            if (mask != null && !dimension.equals(excludedDimension)) {
+                matches.and(mask);
+            }
+        });
+        return matches;
+    }
+
+    private static int countAnd(BitSet matches, BitSet members) {
+        BitSet both = (BitSet) matches.clone();
+        both.and(members);
+        return both.cardinality();
+    }
+
+    private static void countBands(Map<String, Integer> counts, BitSet matches, BitSet[] bands, List<String> keys) {
+        for (int band = 0; band < bands.length; band++) {
+            counts.put(keys.get(band), countAnd(matches, bands[band]));
+        }
+    }
+
+    private static BitSet bandOf(BitSet[] bands, List<String> keys, String key) {
+        int band = keys.indexOf(key);
+        return band >= 0 ? bands[band] : null;
+    }
+
+    /**
+     * The keys of the bands delimited by the given upper bounds, such as {@code 0-25}, {@code 25-50} and {@code 50-*}.
+     */
+    private static List<String> bandKeys(List<BigDecimal> upperBounds) {
+        List<String> keys = new ArrayList<>();
+        String lower = "0";
+        for (BigDecimal upperBound : upperBounds) {
+            String upper = upperBound.stripTrailingZeros().toPlainString();
+            keys.add(lower + "-" + upper);
+            lower = upper;
+        }
+        keys.add(lower + "-*");
+        return keys;
+    }
+
+    private static BitSet[] newBitSets(int count) {
+        BitSet[] bitSets = new BitSet[count];
+        for (int i = 0; i < count; i++) {
+            bitSets[i] = new BitSet();
+        }
+        return bitSets;
+    }
+}
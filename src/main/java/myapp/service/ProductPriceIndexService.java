@@ -0,0 +1,381 @@
+package myapp.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import myapp.domain.Product;
+import myapp.repository.ProductRepository;
+import myapp.service.dto.ProductPriceDTO;
+import myapp.service.event.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service keeping an in-memory secondary index over {@link Product#getPrice()} and {@link Product#getRating()}.
+ * <p>
+ * Prices are stored as {@code long} cents in primitive arrays sorted by price then id, next to the ids of the
+ * products: one array for all the products, and one per rating. A price range is found with two binary searches, so
+ * counting the products in a range takes {@code O(log n)}, and reading {@code k} of them by price, or by rating then
+ * price, takes {@code O(log n + k)}, without boxing. Writes shift the arrays and take {@code O(n)}.
+ * <p>
+ * The index is built once the application is ready and then kept up to date from the {@link ProductChangedEvent}s
+ * published by {@link ProductService} after each commit. Only the page of products requested is loaded from the
+ * database.
+ */
+@Service
+public class ProductPriceIndexService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductPriceIndexService.class);
+
+    private static final int MAX_RATING = 10;
+
+    /** the bucket of the products without a valid rating */
+    private static final int UNRATED = 0;
+
+    /** the prices beyond which cents no longer fit in a {@code long} */
+    private static final BigDecimal MIN_PRICE = BigDecimal.valueOf(Long.MIN_VALUE, 2);
+
+    private static final BigDecimal MAX_PRICE = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final SortedPostings byPrice = new SortedPostings();
+
+    /** indexed by rating, from 1 to {@link #MAX_RATING}, {@link #UNRATED} for the other products */
+    private final SortedPostings[] byRating = new SortedPostings[MAX_RATING + 1];
+
+    /** product id -> indexed price and rating, needed to unindex a product */
+    private final Map<Long, Posting> postings = new HashMap<>();
+
+    private record Posting(long price, int rating) {}
+
+    public ProductPriceIndexService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+        for (int rating = 0; rating <= MAX_RATING; rating++) {
+            byRating[rating] = new SortedPostings();
+        }
+    }
+
+    /**
+     * Rebuild the whole index from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LOG.debug("Rebuilding product price index");
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            byPrice.clear();
+            Arrays.stream(byRating).forEach(SortedPostings::clear);
+            // the products come sorted by price then id: appending keeps every array sorted
+            for (ProductPriceDTO product : productRepository.findAllPrices()) {
+                Posting posting = new Posting(toCents(product.price(), RoundingMode.HALF_UP), ratingBucket(product.rating()));
+                postings.put(product.productId(), posting);
+                byPrice.append(posting.price(), product.productId());
+                byRating[posting.rating()].append(posting.price(), product.productId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOG.info("Product price index built with {} products", postings.size());
+    }
+
+    /**
+     * Apply a committed product change to the index.
+     *
+     * @param event the product change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.productId());
+        } else {
+            index(event.product());
+        }
+    }
+
+    /**
+     * Add or replace a product in the index.
+     *
+     * @param product the product to index.
+     */
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            doRemove(product.getId());
+            if (product.getPrice() != null) {
+                Posting posting = new Posting(toCents(product.getPrice(), RoundingMode.HALF_UP), ratingBucket(product.getRating()));
+                postings.put(product.getId(), posting);
+                byPrice.insert(posting.price(), product.getId());
+                byRating[posting.rating()].insert(posting.price(), product.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a product from the index.
+     *
+     * @param id the id of the product.
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            doRemove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Count the products in a price range.
+     *
+     * @param minCents the minimum price in cents, inclusive.
+     * @param maxCents the maximum price in cents, inclusive.
+     * @return the number of products.
+     */
+    public int count(long minCents, long maxCents) {
+        lock.readLock().lock();
+        try {
+            return byPrice.count(minCents, maxCents);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the ids of products in a price range, by price then id.
+     *
+     * @param minCents the minimum price in cents, inclusive.
+     * @param maxCents the maximum price in cents, inclusive.
+     * @param offset the number of products to skip.
+     * @param limit the maximum number of ids to return.
+     * @param descending whether the most expensive products come first.
+     * @return the ids.
+     */
+    public long[] idsByPrice(long minCents, long maxCents, long offset, int limit, boolean descending) {
+        lock.readLock().lock();
+        try {
+            int from = byPrice.lowerBound(minCents);
+            int to = byPrice.upperBound(maxCents);
+            int size = (int) Math.max(0, Math.min(limit, to - from - offset));
+            long[] ids = new long[size];
+            if (descending) {
+                for (int i = 0; i < size; i++) {
+                    ids[i] = byPrice.ids[(int) (to - 1 - offset) - i];
+                }
+            } else if (size > 0) {
+                System.arraycopy(byPrice.ids, (int) (from + offset), ids, 0, size);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the ids of products in a price range, by rating, then by price and id. Products without a rating come last.
+     *
+     * @param minCents the minimum price in cents, inclusive.
+     * @param maxCents the maximum price in cents, inclusive.
+     * @param offset the number of products to skip.
+     * @param limit the maximum number of ids to return.
+     * @param ascending whether the lowest rated products come first.
+     * @return the ids.
+     */
+    public long[] idsByRating(long minCents, long maxCents, long offset, int limit, boolean ascending) {
+        lock.readLock().lock();
+        try {
+            long[] ids = new long[(int) Math.max(0, Math.min(limit, byPrice.count(minCents, maxCents) - offset))];
+            int size = 0;
+            long skip = offset;
+            for (int i = 0; i <= MAX_RATING && size < ids.length; i++) {
+                SortedPostings bucket = byRating[i == MAX_RATING ? UNRATED : ascending ? i + 1 : MAX_RATING - i];
+                int from = bucket.lowerBound(minCents);
+                int to = bucket.upperBound(maxCents);
+                if (skip >= to - from) {
+                    skip -= to - from;
+                    continue;
+                }
+                int start = from + (int) skip;
+                int taken = Math.min(to - start, ids.length - size);
+                System.arraycopy(bucket.ids, start, ids, size, taken);
+                size += taken;
+                skip = 0;
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the ids of a page of products in a price range, sorted by {@code price} (the default) or {@code rating}.
+     *
+     * @param minPrice the minimum price, inclusive, or {@code null}.
+     * @param maxPrice the maximum price, inclusive, or {@code null}.
+     * @param pageable the pagination information.
+     * @return the page of ids.
+     */
+    public Page<Long> searchIds(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        long minCents = minPrice == null ? Long.MIN_VALUE : toCents(minPrice, RoundingMode.CEILING);
+        long maxCents = maxPrice == null ? Long.MAX_VALUE : toCents(maxPrice, RoundingMode.FLOOR);
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        Sort.Order ratingOrder = pageable.getSort().getOrderFor("rating");
+        Sort.Order priceOrder = pageable.getSort().getOrderFor("price");
+        long[] ids = ratingOrder != null
+            ? idsByRating(minCents, maxCents, offset, limit, ratingOrder.isAscending())
+            : idsByPrice(minCents, maxCents, offset, limit, priceOrder != null && priceOrder.isDescending());
+        return new PageImpl<>(Arrays.stream(ids).boxed().toList(), pageable, count(minCents, maxCents));
+    }
+
+    /**
+     * Get a page of products in a price range, sorted by {@code price} (the default) or {@code rating}.
+     *
+     * @param minPrice the minimum price, inclusive, or {@code null}.
+     * @param maxPrice the maximum price, inclusive, or {@code null}.
+     * @param pageable the pagination information.
+     * @return the page of products.
+     */
+    public Page<Product> search(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        LOG.debug("Request to get Products priced between {} and {}", minPrice, maxPrice);
+        Page<Long> ids = searchIds(minPrice, maxPrice, pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        Map<Long, Product> products = new HashMap<>();
+        productRepository.findAllById(ids.getContent()).forEach(product -> products.put(product.getId(), product));
+        List<Product> content = ids.getContent().stream().map(products::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
+    }
+
+    private void doRemove(Long id) {
+        Posting posting = postings.remove(id);
+        if (posting != null) {
+            byPrice.remove(posting.price(), id);
+            byRating[posting.rating()].remove(posting.price(), id);
+        }
+    }
+
+    private static int ratingBucket(Integer rating) {
+        return rating != null && rating >= 1 && rating <= MAX_RATING ? rating : UNRATED;
+    }
+
+    /**
+     * The price in cents, clamped to the range of a {@code long}: a bound beyond it then selects every product or none.
+     */
+    private static long toCents(BigDecimal price, RoundingMode roundingMode) {
+        if (price.compareTo(MAX_PRICE) >= 0) {
+            return Long.MAX_VALUE;
+        }
+        if (price.compareTo(MIN_PRICE) <= 0) {
+            return Long.MIN_VALUE;
+        }
+        return price.movePointRight(2).setScale(0, roundingMode).longValueExact();
+    }
+
+    /**
+     * Prices and product ids in parallel arrays, sorted by price then id.
+     */
+    private static final class SortedPostings {
+
+        private long[] prices = new long[16];
+
+        private long[] ids = new long[16];
+
+        private int size;
+
+        void clear() {
+            size = 0;
+        }
+
+        /**
+         * Add a posting after all the others, which it must sort after.
+         */
+        void append(long price, long id) {
+            ensureCapacity();
+            prices[size] = price;
+            ids[size] = id;
+            size++;
+        }
+
+        void insert(long price, long id) {
+            ensureCapacity();
+            int index = position(price, id);
+            System.arraycopy(prices, index, prices, index + 1, size - index);
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            prices[index] = price;
+            ids[index] = id;
+            size++;
+        }
+
+        void remove(long price, long id) {
+            int index = position(price, id);
+            if (index < size && prices[index] == price && ids[index] == id) {
+                System.arraycopy(prices, index + 1, prices, index, size - index - 1);
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+
+        int count(long minPrice, long maxPrice) {
+            return Math.max(0, upperBound(maxPrice) - lowerBound(minPrice));
+        }
+
+        /**
+         * The index of the first posting priced at least {@code price}.
+         */
+        int lowerBound(long price) {
+            return position(price, Long.MIN_VALUE);
+        }
+
+        /**
+         * The index of the first posting priced more than {@code price}.
+         */
+        int upperBound(long price) {
+            return price == Long.MAX_VALUE ? size : position(price + 1, Long.MIN_VALUE);
+        }
+
+        /**
+         * The index of the first posting not sorting before the given price and id.
+         */
+        private int position(long price, long id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (prices[middle] < price || (prices[middle] == price && ids[middle] < id)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private void ensureCapacity() {
+            if (size == prices.length) {
+                prices = Arrays.copyOf(prices, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package myapp.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import myapp.domain.Product;
+import myapp.repository.ProductRepository;
+import myapp.service.event.ProductChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service keeping an in-memory inverted index over {@link Product#getTitle()}, {@link Product#getKeywords()}
+ * and {@link Product#getDescription()}.
+ * <p>
+ * The index is built once the application is ready and then kept up to date from the
+ * {@link ProductChangedEvent}s published by {@link ProductService} after each commit.
+ * Only the page of hits requested is loaded from the database.
+ */
+@Service
+public class ProductSearchService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductSearchService.class);
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private static final float TITLE_WEIGHT = 3f;
+
+    private static final float KEYWORDS_WEIGHT = 2f;
+
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** term -> (product id -> weighted term frequency) */
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+
+    /** product id -> (term -> weighted term frequency), needed to unindex a product */
+    private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+
+    public ProductSearchService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Rebuild the whole index from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LOG.debug("Rebuilding product search index");
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            long lastId = Long.MIN_VALUE;
+            List<Product> batch;
+            do {
+                batch = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(REBUILD_BATCH_SIZE));
+                for (Product product : batch) {
+                    doIndex(product);
+                    lastId = product.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOG.info("Product search index built with {} products and {} terms", documents.size(), postings.size());
+    }
+
+    /**
+     * Apply a committed product change to the index.
+     *
+     * @param event the product change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.productId());
+        } else {
+            index(event.product());
+        }
+    }
+
+    /**
+     * Add or replace a product in the index.
+     *
+     * @param product the product to index.
+     */
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            doRemove(product.getId());
+            doIndex(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a product from the index.
+     *
+     * @param id the id of the product.
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            doRemove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search the ids of the products matching the query, best match first.
+     * <p>
+     * Products are scored with the sum, over the query terms they contain, of the field-weighted term
+     * frequency times the inverse document frequency of the term.
+     *
+     * @param query the free text query.
+     * @param pageable the pagination information.
+     * @return the page of matching product ids.
+     */
+    public Page<Long> searchIds(String query, Pageable pageable) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        Map<Long, Float> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            for (String term : terms) {
+                Map<Long, Float> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                float idf = (float) Math.log(1 + (double) documentCount / termPostings.size());
+                termPostings.forEach((id, weight) -> scores.merge(id, weight * idf, Float::sum));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Map.Entry<Long, Float>> hits = new ArrayList<>(scores.entrySet());
+        hits.sort(Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()));
+        int from = (int) Math.min(pageable.isPaged() ? pageable.getOffset() : 0, hits.size());
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), hits.size()) : hits.size();
+        List<Long> ids = hits.subList(from, to).stream().map(Map.Entry::getKey).toList();
+        return new PageImpl<>(ids, pageable, hits.size());
+    }
+
+    /**
+     * Search the products matching the query, best match first.
+     *
+     * @param query the free text query.
+     * @param pageable the pagination information.
+     * @return the page of matching products.
+     */
+    public Page<Product> search(String query, Pageable pageable) {
+        LOG.debug("Request to search Products for query {}", query);
+        Page<Long> ids = searchIds(query, pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        Map<Long, Product> products = new HashMap<>();
+        productRepository.findAllById(ids.getContent()).forEach(product -> products.put(product.getId(), product));
+        List<Product> content = ids.getContent().stream().map(products::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
+    }
+
+    private void doIndex(Product product) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, product.getTitle(), TITLE_WEIGHT);
+        addTerms(terms, product.getKeywords(), KEYWORDS_WEIGHT);
+        addTerms(terms, product.getDescription(), DESCRIPTION_WEIGHT);
+        if (terms.isEmpty()) {
+            return;
+        }
+        documents.put(product.getId(), terms);
+        terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(product.getId(), weight));
+    }
+
+    private void doRemove(Long id) {
+        Map<String, Float> terms = documents.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Float> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(id);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -1,17 +1,40 @@
 package myapp.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import myapp.config.ApplicationProperties;
 import myapp.domain.Product;
 import myapp.repository.ProductRepository;
+import myapp.service.dto.BulkWriteResultDTO;
+import myapp.service.dto.EntityVersionDTO;
+import myapp.service.dto.KeysetCursor;
+import myapp.service.dto.ProductDTO;
+import myapp.service.event.ProductChangedEvent;
+import myapp.service.outbox.OutboxService;
+import org.hibernate.Session;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service Implementation for managing {@link myapp.domain.Product}.
+ * <p>
+ * Products are versioned: an update carrying the version it was read at fails with an
+ * {@link org.springframework.dao.OptimisticLockingFailureException} if the product was written in between.
  */
 @Service
 @Transactional
@@ -21,8 +44,25 @@ public class ProductService {
 
     private final ProductRepository productRepository;
 
-    public ProductService(ProductRepository productRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final OutboxService outboxService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProductService(
+        ProductRepository productRepository,
+        ApplicationEventPublisher eventPublisher,
+        ApplicationProperties applicationProperties,
+        OutboxService outboxService
+    ) {
         this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.applicationProperties = applicationProperties;
+        this.outboxService = outboxService;
     }
 
     /**
@@ -33,25 +73,117 @@ public class ProductService {
      */
     public Product save(Product product) {
         LOG.debug("Request to save Product : {}", product);
-        return productRepository.save(product);
+        Product result = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(result));
+        return result;
     }
 
     /**
      * Update a product.
+     * <p>
+     * The current product is read from the second-level cache, or with one {@code SELECT} on a miss, and merged into
+     * with a single {@code UPDATE} statement of the changed columns, guarded by its version.
      *
-     * @param product the entity to save.
-     * @return the persisted entity.
+     * @param product the entity to save, with the version it was read at, or without version to overwrite the current one.
+     * @return the persisted entity, empty if the product does not exist.
      */
-    public Product update(Product product) {
+    public Optional<Product> update(Product product) {
         LOG.debug("Request to update Product : {}", product);
-        return productRepository.save(product);
+        return productRepository
+            .findById(product.getId())
+            .map(existingProduct -> {
+                if (product.getVersion() != null && !product.getVersion().equals(existingProduct.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Product.class, product.getId());
+                }
+                product.setVersion(existingProduct.getVersion());
+                Product result = productRepository.save(product);
+                eventPublisher.publishEvent(ProductChangedEvent.saved(result));
+                return result;
+            });
+    }
+
+    /**
+     * Save products in bulk: products without an id are inserted, the others updated.
+     * <p>
+     * Rows are sent in JDBC batches of {@code application.bulk.batch-size} statements, grouped by table thanks
+     * to ordered inserts and updates, and the persistence context is flushed and cleared after each batch so that
+     * dirty checking does not grow with the request: the outbox events of a batch are written with it. Ids come from
+     * the pooled sequence optimizer, so only one insert in 50 queries the sequence.
+     *
+     * @param products the entities to save.
+     * @return the ids of the saved entities and the write throughput.
+     * @throws EntityNotFoundException if one of the products to update does not exist.
+     */
+    public BulkWriteResultDTO saveAll(List<Product> products) {
+        LOG.debug("Request to save {} Products in bulk", products.size());
+        int batchSize = applicationProperties.getBulk().getBatchSize();
+        Session session = entityManager.unwrap(Session.class);
+        Integer sessionBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+        List<Long> ids = new ArrayList<>(products.size());
+        int inserted = 0;
+        long start = System.nanoTime();
+        try {
+            for (int from = 0; from < products.size(); from += batchSize) {
+                inserted += saveBatch(products.subList(from, Math.min(from + batchSize, products.size())), ids);
+                outboxService.writePending();
+                entityManager.flush();
+                entityManager.clear();
+            }
+        } finally {
+            session.setJdbcBatchSize(sessionBatchSize);
+        }
+        BulkWriteResultDTO result = BulkWriteResultDTO.of(ids, inserted, System.nanoTime() - start);
+        LOG.info(
+            "Bulk saved {} Products ({} inserted, {} updated) in {} ms, {} rows/s",
+            ids.size(),
+            result.inserted(),
+            result.updated(),
+            result.elapsedMillis(),
+            Math.round(result.rowsPerSecond())
+        );
+        return result;
+    }
+
+    private int saveBatch(List<Product> batch, List<Long> ids) {
+        // Load the products to update with one query, so that merging them does not select them one by one
+        List<Long> existingIds = batch.stream().map(Product::getId).filter(Objects::nonNull).toList();
+        Map<Long, Long> versions = new HashMap<>();
+        if (!existingIds.isEmpty()) {
+            productRepository.findAllById(existingIds).forEach(existingProduct -> versions.put(existingProduct.getId(), existingProduct.getVersion()));
+            List<Long> missingIds = existingIds.stream().filter(id -> !versions.containsKey(id)).toList();
+            if (!missingIds.isEmpty()) {
+                throw new EntityNotFoundException("Products not found: " + missingIds);
+            }
+        }
+        int inserted = 0;
+        for (Product product : batch) {
+            Product result;
+            if (product.getId() == null) {
+                entityManager.persist(product);
+                result = product;
+                inserted++;
+            } else {
+                if (product.getVersion() == null) {
+                    product.setVersion(versions.get(product.getId()));
+                }
+                result = entityManager.merge(product);
+            }
+            ids.add(result.getId());
+            eventPublisher.publishEvent(ProductChangedEvent.saved(result));
+        }
+        return inserted;
     }
 
     /**
      * Partially update a product.
+     * <p>
+     * The product is read from the second-level cache, or with one {@code SELECT} on a miss, and only the changed
+     * columns are written, with a single {@code UPDATE} statement guarded by the version of the product.
      *
-     * @param product the entity to update partially.
-     * @return the persisted entity.
+     * @param product the entity to update partially, with the version it was read at, or without version to
+     * overwrite the given fields whatever the current version.
+     * @return the persisted entity, empty if the product does not exist.
      */
     public Optional<Product> partialUpdate(Product product) {
         LOG.debug("Request to partially update Product : {}", product);
@@ -59,6 +191,9 @@ public class ProductService {
         return productRepository
             .findById(product.getId())
             .map(existingProduct -> {
+                if (product.getVersion() != null && !product.getVersion().equals(existingProduct.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Product.class, product.getId());
+                }
                 if (product.getTitle() != null) {
                     existingProduct.setTitle(product.getTitle());
                 }
@@ -95,19 +230,40 @@ public class ProductService {
 
                 return existingProduct;
             })
-            .map(productRepository::save);
+            .map(productRepository::save)
+            .map(result -> {
+                eventPublisher.publishEvent(ProductChangedEvent.saved(result));
+                return result;
+            });
     }
 
     /**
-     * Get all the products.
+     * Get all the products, reading only the columns of their read model.
      *
      * @param pageable the pagination information.
-     * @return the list of entities.
+     * @return the list of DTOs.
      */
     @Transactional(readOnly = true)
-    public Page<Product> findAll(Pageable pageable) {
+    public Page<ProductDTO> findAll(Pageable pageable) {
         LOG.debug("Request to get all Products");
-        return productRepository.findAll(pageable);
+        return productRepository.findAllProjectedBy(pageable);
+    }
+
+    /**
+     * Get a keyset page of products, newest first.
+     *
+     * @param cursor the position after which to read, or {@code null} for the first page.
+     * @param size the page size.
+     * @return the slice of entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Product> findAllAfter(KeysetCursor cursor, int size) {
+        LOG.debug("Request to get a keyset page of Products after {}", cursor);
+        Limit limit = Limit.of(size + 1);
+        List<Product> products = cursor == null
+            ? productRepository.findAllByOrderByDateAddedDescIdDesc(limit)
+            : productRepository.findAllBefore(cursor.sortKey(), cursor.id(), limit);
+        return KeysetCursor.toSlice(products, size);
     }
 
     /**
@@ -122,6 +278,17 @@ public class ProductService {
         return productRepository.findById(id);
     }
 
+    /**
+     * Get the version of one product, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return the version, empty if the product does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<EntityVersionDTO> findVersion(Long id) {
+        return productRepository.findEntityVersionById(id);
+    }
+
     /**
      * Delete the product by id.
      *
@@ -130,5 +297,6 @@ public class ProductService {
     public void delete(Long id) {
         LOG.debug("Request to delete Product : {}", id);
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 }
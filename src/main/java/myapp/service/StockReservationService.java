@@ -0,0 +1,146 @@
+package myapp.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import myapp.domain.Order;
+import myapp.domain.Product;
+import myapp.domain.StockReservation;
+import myapp.repository.ProductRepository;
+import myapp.repository.StockReservationRepository;
+import myapp.service.event.ProductStockChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service reserving {@link Product} stock for pending {@link Order}s.
+ * <p>
+ * Stock is taken with a conditional update of {@code product.quantity_in_stock}, without reading or locking the
+ * product first: a reservation only holds the lock on the product row until its transaction ends, and never
+ * overbooks. Each reservation is recorded as a {@link StockReservation} row, so that it can be given back when
+ * the order is cancelled or the reservation expires, even after a restart.
+ */
+@Service
+@Transactional
+public class StockReservationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StockReservationService.class);
+
+    private final ProductRepository productRepository;
+
+    private final StockReservationRepository stockReservationRepository;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public StockReservationService(
+        ProductRepository productRepository,
+        StockReservationRepository stockReservationRepository,
+        EntityManagerFactory entityManagerFactory,
+        ApplicationEventPublisher eventPublisher
+    ) {
+        this.productRepository = productRepository;
+        this.stockReservationRepository = stockReservationRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Reserve stock of a product for an order.
+     * <p>
+     * Callers reserving several products in one transaction should do so in product id order, so that concurrent
+     * reservations lock the product rows in the same order.
+     *
+     * @param order the order the stock is reserved for.
+     * @param productId the id of the product.
+     * @param quantity the quantity to reserve.
+     * @param expiresAt the instant after which the reservation can be released.
+     * @return {@code true} if the stock was reserved, {@code false} if not enough was available.
+     */
+    public boolean reserve(Order order, Long productId, int quantity, Instant expiresAt) {
+        LOG.debug("Request to reserve {} of Product {} for Order {}", quantity, productId, order.getId());
+        if (productRepository.decrementStock(productId, quantity, Instant.now()) == 0) {
+            return false;
+        }
+        stockReservationRepository.save(
+            new StockReservation().quantity(quantity).expiresAt(expiresAt).product(productRepository.getReferenceById(productId)).order(order)
+        );
+        evictAfterCommit(productId);
+        eventPublisher.publishEvent(new ProductStockChangedEvent(productId, -quantity));
+        return true;
+    }
+
+    /**
+     * Keep the stock reserved for an order: its reservations are dropped without giving the stock back.
+     *
+     * @param orderId the id of the order.
+     * @return the number of reservations confirmed, {@code 0} if they were already released.
+     */
+    public int confirm(Long orderId) {
+        LOG.debug("Request to confirm stock reservations of Order : {}", orderId);
+        return stockReservationRepository.deleteByOrderId(orderId);
+    }
+
+    /**
+     * Give the stock reserved for an order back.
+     * <p>
+     * Each reservation is deleted before its stock is restored, so a reservation confirmed or released concurrently
+     * is never given back twice.
+     *
+     * @param orderId the id of the order.
+     * @return the number of reservations released.
+     */
+    public int release(Long orderId) {
+        LOG.debug("Request to release stock reservations of Order : {}", orderId);
+        List<StockReservation> reservations = stockReservationRepository
+            .findByOrderId(orderId)
+            .stream()
+            .sorted(Comparator.comparing(reservation -> reservation.getProduct().getId()))
+            .toList();
+        int released = 0;
+        for (StockReservation reservation : reservations) {
+            if (stockReservationRepository.deleteReservation(reservation.getId()) == 1) {
+                Long productId = reservation.getProduct().getId();
+                productRepository.incrementStock(productId, reservation.getQuantity(), Instant.now());
+                evictAfterCommit(productId);
+                eventPublisher.publishEvent(new ProductStockChangedEvent(productId, reservation.getQuantity()));
+                released++;
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Get the ids of the orders having reservations expired at the given instant.
+     *
+     * @param now the current instant.
+     * @param limit the maximum number of ids to return.
+     * @return the order ids, in ascending order.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findExpiredOrderIds(Instant now, int limit) {
+        return stockReservationRepository.findExpiredOrderIds(now, Limit.of(limit));
+    }
+
+    /**
+     * The stock is updated behind Hibernate's back: drop the cached product once the new stock is visible.
+     */
+    private void evictAfterCommit(Long productId) {
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entityManagerFactory.getCache().evict(Product.class, productId);
+                }
+            }
+        );
+    }
+}
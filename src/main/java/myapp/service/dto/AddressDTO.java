@@ -0,0 +1,24 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * The read model of an {@link myapp.domain.Address}, with its customer reduced to its id.
+ */
+public record AddressDTO(
+    Long id,
+    String address1,
+    String address2,
+    String city,
+    String postcode,
+    String country,
+    ReferenceDTO customer
+)
+    implements Serializable {
+    /**
+     * Constructor used by the {@code select new} projections of {@link myapp.repository.AddressRepository}.
+     */
+    public AddressDTO(Long id, String address1, String address2, String city, String postcode, String country, Long customerId) {
+        this(id, address1, address2, city, postcode, country, ReferenceDTO.of(customerId));
+    }
+}
@@ -0,0 +1,21 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The outcome of a bulk write.
+ *
+ * @param ids the ids of the written entities, in request order.
+ * @param inserted the number of inserted rows.
+ * @param updated the number of updated rows.
+ * @param elapsedMillis the time spent writing, flushes included.
+ * @param rowsPerSecond the write throughput.
+ */
+public record BulkWriteResultDTO(List<Long> ids, int inserted, int updated, long elapsedMillis, double rowsPerSecond)
+    implements Serializable {
+    public static BulkWriteResultDTO of(List<Long> ids, int inserted, long elapsedNanos) {
+        double rowsPerSecond = elapsedNanos > 0 ? ids.size() * 1_000_000_000d / elapsedNanos : 0;
+        return new BulkWriteResultDTO(ids, inserted, ids.size() - inserted, elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+}
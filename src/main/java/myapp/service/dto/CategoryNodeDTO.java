@@ -0,0 +1,19 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import myapp.domain.enumeration.CategoryStatus;
+
+/**
+ * A {@link myapp.domain.Category} in a category tree, with its parent reduced to its id.
+ *
+ * @param path the ids of the ancestors of the category and of the category itself, root first, as in {@code /1/5/12/}.
+ */
+public record CategoryNodeDTO(
+    Long id,
+    Long parentId,
+    String description,
+    Integer sortOrder,
+    CategoryStatus status,
+    String path
+)
+    implements Serializable {}
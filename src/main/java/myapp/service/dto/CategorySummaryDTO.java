@@ -0,0 +1,24 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+import myapp.domain.enumeration.CategoryStatus;
+
+/**
+ * A {@link myapp.domain.Category} as listed, with its parent reduced to its id and at most a configured number of its products.
+ *
+ * @param products the first products of the category by id, or {@code null} if they were not requested.
+ */
+public record CategorySummaryDTO(
+    Long id,
+    String description,
+    Integer sortOrder,
+    Instant dateAdded,
+    Instant dateModified,
+    CategoryStatus status,
+    String path,
+    ReferenceDTO parent,
+    List<ProductSummaryDTO> products
+)
+    implements Serializable {}
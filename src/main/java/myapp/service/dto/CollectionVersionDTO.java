@@ -0,0 +1,17 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Version of a collection of entities: it changes whenever one of them is created, updated or deleted.
+ * <p>
+ * Ids only grow, so replacing entities by new ones changes the sum of the ids even when the count stays the same,
+ * and updating an entity increments its optimistic locking version, so it changes the sum of the versions.
+ *
+ * @param count the number of entities.
+ * @param lastModified the latest modification date of the entities, or {@code null} if none has one.
+ * @param idSum the sum of the ids of the entities, or {@code null} if there are none.
+ * @param versionSum the sum of the versions of the entities, or {@code null} if there are none.
+ */
+public record CollectionVersionDTO(Long count, Instant lastModified, Long idSum, Long versionSum) implements Serializable {}
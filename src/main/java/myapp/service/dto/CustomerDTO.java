@@ -0,0 +1,8 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * The read model of a {@link myapp.domain.Customer}, without its collections.
+ */
+public record CustomerDTO(Long id, String firstName, String lastName, String email, String telephone) implements Serializable {}
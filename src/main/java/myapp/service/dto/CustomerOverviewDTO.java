@@ -0,0 +1,22 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Everything shown on the profile page of a {@link myapp.domain.Customer}.
+ *
+ * @param customer the customer.
+ * @param addresses the addresses of the customer.
+ * @param wishLists the wish lists of the customer, with the number of their products.
+ * @param recentOrders the most recent orders of the customer, newest first.
+ * @param orderTotals the totals of all the orders of the customer.
+ */
+public record CustomerOverviewDTO(
+    CustomerDTO customer,
+    List<AddressDTO> addresses,
+    List<WishListSummaryDTO> wishLists,
+    List<OrderDTO> recentOrders,
+    OrderTotalsDTO orderTotals
+)
+    implements Serializable {}
@@ -0,0 +1,12 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Version of an entity: it changes whenever the entity is updated.
+ *
+ * @param version the optimistic locking version of the entity.
+ * @param lastModified the modification date of the entity, or {@code null} if it has none.
+ */
+public record EntityVersionDTO(Long version, Instant lastModified) implements Serializable {}
@@ -0,0 +1,16 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of the products matching a filter, with the facet counts of the filter.
+ *
+ * @param products the page of matching products.
+ * @param totalElements the number of matching products.
+ * @param facets for each dimension, the number of products that would match with each value of that dimension
+ * selected, given the filter on the other dimensions.
+ */
+public record FilteredProductsDTO(List<ProductDTO> products, long totalElements, Map<String, Map<String, Integer>> facets)
+    implements Serializable {}
@@ -0,0 +1,72 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * Position in a keyset (seek) paginated listing: the sort key and id of the last row of the previous page.
+ * <p>
+ * Clients only ever see the opaque {@link #encode() encoded} form.
+ *
+ * @param sortKey the value of the leading sort column of the last row, or {@code null} when the listing is sorted by id only.
+ * @param id the id of the last row.
+ */
+public record KeysetCursor(Instant sortKey, Long id) implements Serializable {
+    private static final String SEPARATOR = "|";
+
+    public static KeysetCursor of(Long id) {
+        return new KeysetCursor(null, id);
+    }
+
+    public static KeysetCursor of(Instant sortKey, Long id) {
+        return new KeysetCursor(sortKey, id);
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}.
+     *
+     * @param value the encoded cursor, blank for the first page.
+     * @return the cursor, or {@code null} for the first page.
+     * @throws IllegalArgumentException if the value is not a valid cursor.
+     */
+    public static KeysetCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return of(Long.valueOf(decoded));
+            }
+            return of(Instant.parse(decoded.substring(0, separator)), Long.valueOf(decoded.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+
+    /**
+     * Turn the rows read for a keyset page into a {@link Slice}.
+     *
+     * @param rows the rows read, at most {@code size + 1}; the extra row only tells whether there is a next page.
+     * @param size the page size.
+     * @param <T> the type of the rows.
+     * @return the slice.
+     */
+    public static <T> Slice<T> toSlice(List<T> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, PageRequest.ofSize(size), hasNext);
+    }
+
+    public String encode() {
+        String raw = sortKey == null ? String.valueOf(id) : sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
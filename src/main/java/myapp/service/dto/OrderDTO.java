@@ -0,0 +1,51 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * The read model of an {@link myapp.domain.Order}, with its many-to-one associations reduced to their ids.
+ */
+public record OrderDTO(
+    Long id,
+    Instant orderDate,
+    Instant shippedDate,
+    String status,
+    BigDecimal totalAmount,
+    BigDecimal shippingCost,
+    String trackingNumber,
+    Long version,
+    ReferenceDTO shippingAddress,
+    ReferenceDTO customer
+)
+    implements Serializable {
+    /**
+     * Constructor used by the {@code select new} projections of {@link myapp.repository.OrderRepository}.
+     */
+    public OrderDTO(
+        Long id,
+        Instant orderDate,
+        Instant shippedDate,
+        String status,
+        BigDecimal totalAmount,
+        BigDecimal shippingCost,
+        String trackingNumber,
+        Long version,
+        Long shippingAddressId,
+        Long customerId
+    ) {
+        this(
+            id,
+            orderDate,
+            shippedDate,
+            status,
+            totalAmount,
+            shippingCost,
+            trackingNumber,
+            version,
+            ReferenceDTO.of(shippingAddressId),
+            ReferenceDTO.of(customerId)
+        );
+    }
+}
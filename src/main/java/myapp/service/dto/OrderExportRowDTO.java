@@ -0,0 +1,21 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One exported {@link myapp.domain.Order}, with its associations reduced to their ids.
+ */
+public record OrderExportRowDTO(
+    Long id,
+    Instant orderDate,
+    Instant shippedDate,
+    String status,
+    BigDecimal totalAmount,
+    BigDecimal shippingCost,
+    String trackingNumber,
+    Long customerId,
+    Long shippingAddressId
+)
+    implements Serializable {}
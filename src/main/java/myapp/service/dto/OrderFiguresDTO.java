@@ -0,0 +1,20 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import myapp.domain.Order;
+
+/**
+ * The figures of an {@link Order} counted by the order statistics.
+ *
+ * @param orderDate the order date.
+ * @param status the status.
+ * @param totalAmount the total amount.
+ * @param shippingCost the shipping cost, or {@code null}.
+ */
+public record OrderFiguresDTO(Instant orderDate, String status, BigDecimal totalAmount, BigDecimal shippingCost) implements Serializable {
+    public static OrderFiguresDTO of(Order order) {
+        return new OrderFiguresDTO(order.getOrderDate(), order.getStatus(), order.getTotalAmount(), order.getShippingCost());
+    }
+}
@@ -0,0 +1,28 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * The totals of the {@link myapp.domain.Order}s of one status placed in one hour, in UTC.
+ *
+ * @param year the year.
+ * @param month the month, from 1 to 12.
+ * @param day the day of the month.
+ * @param hour the hour of the day.
+ * @param status the status.
+ * @param orderCount the number of orders.
+ * @param totalAmount the sum of their total amounts.
+ * @param shippingCost the sum of their shipping costs.
+ */
+public record OrderHourlyTotalsDTO(
+    Integer year,
+    Integer month,
+    Integer day,
+    Integer hour,
+    String status,
+    Long orderCount,
+    BigDecimal totalAmount,
+    BigDecimal shippingCost
+)
+    implements Serializable {}
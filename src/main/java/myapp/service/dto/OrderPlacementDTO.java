@@ -0,0 +1,25 @@
+package myapp.service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A request to place an order: the stock of every line is reserved before the order is created.
+ *
+ * @param customerId the id of the ordering customer, if any.
+ * @param shippingAddressId the id of the shipping address, if any.
+ * @param shippingCost the shipping cost added to the total amount, if any.
+ * @param lines the products and quantities to order.
+ */
+public record OrderPlacementDTO(
+    Long customerId,
+    Long shippingAddressId,
+    @DecimalMin(value = "0") BigDecimal shippingCost,
+    @NotEmpty @Valid List<Line> lines
+)
+    implements Serializable {
+    public record Line(@NotNull Long productId, @NotNull @Min(value = 1) Integer quantity) implements Serializable {}
+}
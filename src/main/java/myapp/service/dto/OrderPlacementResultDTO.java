@@ -0,0 +1,30 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+import myapp.domain.Order;
+
+/**
+ * The outcome of an {@link OrderPlacementDTO order placement}.
+ * <p>
+ * Placement is all or nothing: when any line fails, nothing is reserved, {@code order} is {@code null}
+ * and the status of each line tells which ones could not be served.
+ *
+ * @param order the created order, or {@code null} if the placement failed.
+ * @param reservedUntil the instant at which the reserved stock is released unless the order is confirmed.
+ * @param lines the status of each requested line, in request order.
+ */
+public record OrderPlacementResultDTO(Order order, Instant reservedUntil, List<LineResult> lines) implements Serializable {
+    public enum LineStatus {
+        OK,
+        OUT_OF_STOCK,
+        UNKNOWN_PRODUCT,
+    }
+
+    public record LineResult(Long productId, Integer quantity, LineStatus status) implements Serializable {}
+
+    public boolean placed() {
+        return order != null;
+    }
+}
@@ -0,0 +1,28 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * The statistics of the {@link myapp.domain.Order}s placed in one hour or day.
+ *
+ * @param bucketStart the start of the hour or day, in UTC.
+ * @param orderCount the number of orders.
+ * @param totalAmount the revenue: the sum of the total amounts of the orders.
+ * @param averageAmount the average total amount, or {@code null} without orders.
+ * @param shippingCost the sum of the shipping costs of the orders.
+ * @param shippingCostShare the share of the revenue made of shipping costs, or {@code null} without revenue.
+ * @param orderCountByStatus the number of orders of each status.
+ */
+public record OrderStatsDTO(
+    Instant bucketStart,
+    long orderCount,
+    BigDecimal totalAmount,
+    BigDecimal averageAmount,
+    BigDecimal shippingCost,
+    BigDecimal shippingCostShare,
+    Map<String, Long> orderCountByStatus
+)
+    implements Serializable {}
@@ -0,0 +1,13 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * The totals of a set of {@link myapp.domain.Order}s.
+ *
+ * @param orderCount the number of orders.
+ * @param totalAmount the sum of their total amounts.
+ * @param shippingCost the sum of their shipping costs.
+ */
+public record OrderTotalsDTO(long orderCount, BigDecimal totalAmount, BigDecimal shippingCost) implements Serializable {}
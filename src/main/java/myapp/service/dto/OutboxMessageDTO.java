@@ -0,0 +1,34 @@
+package myapp.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import java.io.Serializable;
+import java.time.Instant;
+import myapp.domain.OutboxEvent;
+import myapp.domain.enumeration.OutboxEventType;
+
+/**
+ * A {@link OutboxEvent} as relayed to the outbox sinks.
+ *
+ * @param id the id of the event, increasing with the changes of an aggregate.
+ * @param payload the JSON read model of the aggregate after the change, or {@code null} if it was deleted.
+ */
+public record OutboxMessageDTO(
+    Long id,
+    String aggregateType,
+    Long aggregateId,
+    OutboxEventType type,
+    @JsonRawValue String payload,
+    Instant createdAt
+)
+    implements Serializable {
+    public static OutboxMessageDTO of(OutboxEvent event) {
+        return new OutboxMessageDTO(
+            event.getId(),
+            event.getAggregateType(),
+            event.getAggregateId(),
+            event.getType(),
+            event.getPayload(),
+            event.getCreatedAt()
+        );
+    }
+}
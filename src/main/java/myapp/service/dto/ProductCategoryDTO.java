@@ -0,0 +1,11 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * The membership of a product in a category.
+ *
+ * @param productId the id of the product.
+ * @param categoryId the id of the category.
+ */
+public record ProductCategoryDTO(Long productId, Long categoryId) implements Serializable {}
@@ -0,0 +1,67 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import myapp.domain.enumeration.ProductStatus;
+
+/**
+ * The read model of a {@link myapp.domain.Product}, with its many-to-one associations reduced to their ids.
+ */
+public record ProductDTO(
+    Long id,
+    String title,
+    String keywords,
+    String description,
+    Integer rating,
+    BigDecimal price,
+    Integer quantityInStock,
+    ProductStatus status,
+    Double weight,
+    String dimensions,
+    Instant dateAdded,
+    Instant dateModified,
+    Long version,
+    ReferenceDTO wishList,
+    ReferenceDTO order
+)
+    implements Serializable {
+    /**
+     * Constructor used by the {@code select new} projections of {@link myapp.repository.ProductRepository}.
+     */
+    public ProductDTO(
+        Long id,
+        String title,
+        String keywords,
+        String description,
+        Integer rating,
+        BigDecimal price,
+        Integer quantityInStock,
+        ProductStatus status,
+        Double weight,
+        String dimensions,
+        Instant dateAdded,
+        Instant dateModified,
+        Long version,
+        Long wishListId,
+        Long orderId
+    ) {
+        this(
+            id,
+            title,
+            keywords,
+            description,
+            rating,
+            price,
+            quantityInStock,
+            status,
+            weight,
+            dimensions,
+            dateAdded,
+            dateModified,
+            version,
+            ReferenceDTO.of(wishListId),
+            ReferenceDTO.of(orderId)
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * The price and rating of a product.
+ *
+ * @param productId the id of the product.
+ * @param price the price.
+ * @param rating the rating, or {@code null} if the product is not rated.
+ */
+public record ProductPriceDTO(Long productId, BigDecimal price, Integer rating) implements Serializable {}
@@ -0,0 +1,10 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import myapp.domain.enumeration.ProductStatus;
+
+/**
+ * The few {@link myapp.domain.Product} columns shown in listings of other entities.
+ */
+public record ProductSummaryDTO(Long id, String title, BigDecimal price, ProductStatus status) implements Serializable {}
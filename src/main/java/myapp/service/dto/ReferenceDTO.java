@@ -0,0 +1,12 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A reference to another entity, serialized as {@code {"id": ...}} like an uninitialized association.
+ */
+public record ReferenceDTO(Long id) implements Serializable {
+    public static ReferenceDTO of(Long id) {
+        return id != null ? new ReferenceDTO(id) : null;
+    }
+}
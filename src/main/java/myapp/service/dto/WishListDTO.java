@@ -0,0 +1,15 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * The read model of a {@link myapp.domain.WishList}, with its customer reduced to its id.
+ */
+public record WishListDTO(Long id, String title, Boolean restricted, ReferenceDTO customer) implements Serializable {
+    /**
+     * Constructor used by the {@code select new} projections of {@link myapp.repository.WishListRepository}.
+     */
+    public WishListDTO(Long id, String title, Boolean restricted, Long customerId) {
+        this(id, title, restricted, ReferenceDTO.of(customerId));
+    }
+}
@@ -0,0 +1,13 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A {@link myapp.domain.WishList} with the number of its products.
+ *
+ * @param id the id of the wish list.
+ * @param title the title.
+ * @param restricted whether the wish list is restricted.
+ * @param productCount the number of products.
+ */
+public record WishListSummaryDTO(Long id, String title, Boolean restricted, long productCount) implements Serializable {}
@@ -0,0 +1,27 @@
+package myapp.service.event;
+
+import java.util.Set;
+import myapp.domain.Category;
+
+/**
+ * Event published by {@link myapp.service.CategoryService} whenever a {@link Category} is written, its products included.
+ * <p>
+ * Listeners should use {@link org.springframework.transaction.event.TransactionalEventListener} so
+ * they only observe committed changes.
+ *
+ * @param categoryId the id of the changed category.
+ * @param productIds the ids of the products of the category after the change, or {@code null} if it was deleted.
+ */
+public record CategoryChangedEvent(Long categoryId, Set<Long> productIds) {
+    public static CategoryChangedEvent saved(Long categoryId, Set<Long> productIds) {
+        return new CategoryChangedEvent(categoryId, productIds);
+    }
+
+    public static CategoryChangedEvent deleted(Long categoryId) {
+        return new CategoryChangedEvent(categoryId, null);
+    }
+
+    public boolean isDeleted() {
+        return productIds == null;
+    }
+}
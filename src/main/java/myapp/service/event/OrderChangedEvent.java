@@ -0,0 +1,28 @@
+package myapp.service.event;
+
+import myapp.domain.Order;
+import myapp.service.dto.OrderFiguresDTO;
+
+/**
+ * Event published by {@link myapp.service.OrderService} whenever an {@link Order} is written.
+ * <p>
+ * It is recorded in the outbox with the order, by {@link myapp.service.outbox.OutboxService}: listeners interested in
+ * committed changes only should read it from there, as {@link myapp.service.outbox.OrderStatsOutboxSink} does.
+ *
+ * @param orderId the id of the changed order.
+ * @param before the figures of the order before the change, or {@code null} if the order was created.
+ * @param after the figures of the order after the change, or {@code null} if the order was deleted.
+ */
+public record OrderChangedEvent(Long orderId, OrderFiguresDTO before, OrderFiguresDTO after) {
+    public static OrderChangedEvent created(Order order) {
+        return new OrderChangedEvent(order.getId(), null, OrderFiguresDTO.of(order));
+    }
+
+    public static OrderChangedEvent updated(OrderFiguresDTO before, Order order) {
+        return new OrderChangedEvent(order.getId(), before, OrderFiguresDTO.of(order));
+    }
+
+    public static OrderChangedEvent deleted(Long orderId, OrderFiguresDTO before) {
+        return new OrderChangedEvent(orderId, before, null);
+    }
+}
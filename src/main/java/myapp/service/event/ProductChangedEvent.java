@@ -0,0 +1,26 @@
+package myapp.service.event;
+
+import myapp.domain.Product;
+
+/**
+ * Event published by {@link myapp.service.ProductService} whenever a {@link Product} is written.
+ * <p>
+ * Listeners should use {@link org.springframework.transaction.event.TransactionalEventListener} so
+ * they only observe committed changes.
+ *
+ * @param productId the id of the changed product.
+ * @param product the product state after the change, or {@code null} if the product was deleted.
+ */
+public record ProductChangedEvent(Long productId, Product product) {
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null);
+    }
+
+    public boolean isDeleted() {
+        return product == null;
+    }
+}
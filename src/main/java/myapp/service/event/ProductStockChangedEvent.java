@@ -0,0 +1,13 @@
+package myapp.service.event;
+
+/**
+ * Event published by {@link myapp.service.StockReservationService} whenever it takes stock out of a product, or puts
+ * it back, behind Hibernate's back.
+ * <p>
+ * Listeners should use {@link org.springframework.transaction.event.TransactionalEventListener} so
+ * they only observe committed changes.
+ *
+ * @param productId the id of the product.
+ * @param delta the change of its quantity in stock.
+ */
+public record ProductStockChangedEvent(Long productId, int delta) {}
@@ -0,0 +1,16 @@
+package myapp.service.mapper;
+
+import myapp.domain.Address;
+import myapp.service.dto.AddressDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper for the entity {@link Address} and its DTO {@link AddressDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface AddressMapper extends EntityMapper<AddressDTO, Address> {
+    @Override
+    @Mapping(target = "customer", source = "customer.id")
+    AddressDTO toDto(Address address);
+}
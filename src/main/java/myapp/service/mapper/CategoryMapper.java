@@ -0,0 +1,25 @@
+package myapp.service.mapper;
+
+import java.util.List;
+import myapp.domain.Category;
+import myapp.service.dto.CategorySummaryDTO;
+import myapp.service.dto.ProductSummaryDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper for the entity {@link Category} and its DTO {@link CategorySummaryDTO}.
+ * <p>
+ * The products of the category are never read from the entity: they are either left out or given separately.
+ */
+@Mapper(componentModel = "spring")
+public interface CategoryMapper extends EntityMapper<CategorySummaryDTO, Category> {
+    @Override
+    @Mapping(target = "parent", source = "parent.id")
+    @Mapping(target = "products", ignore = true)
+    CategorySummaryDTO toDto(Category category);
+
+    @Mapping(target = "parent", source = "category.parent.id")
+    @Mapping(target = "products", source = "products")
+    CategorySummaryDTO toDto(Category category, List<ProductSummaryDTO> products);
+}
@@ -0,0 +1,23 @@
+package myapp.service.mapper;
+
+import java.util.List;
+import myapp.service.dto.ReferenceDTO;
+
+/**
+ * Contract for a mapper from an entity to its read model.
+ * <p>
+ * Associations are mapped to {@link ReferenceDTO}s from their ids only, which Hibernate proxies answer without
+ * being initialized.
+ *
+ * @param <D> - DTO type parameter.
+ * @param <E> - Entity type parameter.
+ */
+public interface EntityMapper<D, E> {
+    D toDto(E entity);
+
+    List<D> toDto(List<E> entityList);
+
+    default ReferenceDTO toReference(Long id) {
+        return ReferenceDTO.of(id);
+    }
+}
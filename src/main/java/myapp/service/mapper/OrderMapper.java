@@ -0,0 +1,17 @@
+package myapp.service.mapper;
+
+import myapp.domain.Order;
+import myapp.service.dto.OrderDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper for the entity {@link Order} and its DTO {@link OrderDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface OrderMapper extends EntityMapper<OrderDTO, Order> {
+    @Override
+    @Mapping(target = "shippingAddress", source = "shippingAddress.id")
+    @Mapping(target = "customer", source = "customer.id")
+    OrderDTO toDto(Order order);
+}
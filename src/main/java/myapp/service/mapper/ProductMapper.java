@@ -0,0 +1,17 @@
+package myapp.service.mapper;
+
+import myapp.domain.Product;
+import myapp.service.dto.ProductDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper for the entity {@link Product} and its DTO {@link ProductDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface ProductMapper extends EntityMapper<ProductDTO, Product> {
+    @Override
+    @Mapping(target = "wishList", source = "wishList.id")
+    @Mapping(target = "order", source = "order.id")
+    ProductDTO toDto(Product product);
+}
@@ -0,0 +1,16 @@
+package myapp.service.mapper;
+
+import myapp.domain.WishList;
+import myapp.service.dto.WishListDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper for the entity {@link WishList} and its DTO {@link WishListDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface WishListMapper extends EntityMapper<WishListDTO, WishList> {
+    @Override
+    @Mapping(target = "customer", source = "customer.id")
+    WishListDTO toDto(WishList wishList);
+}
@@ -0,0 +1,30 @@
+package myapp.service.outbox;
+
+import myapp.service.dto.OutboxMessageDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sink publishing the outbox messages as application events, to the {@code @EventListener(OutboxMessageDTO.class)}
+ * methods of the application.
+ * <p>
+ * Listeners run synchronously in the relay batch: a listener throwing gets the message delivered again.
+ */
+@Component
+@Order(0)
+@ConditionalOnProperty(prefix = "application.outbox.in-process-sink", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ApplicationEventOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ApplicationEventOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void deliver(OutboxMessageDTO message) {
+        eventPublisher.publishEvent(message);
+    }
+}
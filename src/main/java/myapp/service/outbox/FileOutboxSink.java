@@ -0,0 +1,88 @@
+package myapp.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import myapp.config.ApplicationProperties;
+import myapp.service.dto.OutboxMessageDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sink appending the outbox messages to a newline-delimited JSON file, {@code application.outbox.file-sink.path}, when
+ * {@code application.outbox.file-sink.enabled}.
+ * <p>
+ * Messages are buffered during a batch and written and synced to disk with one call when the batch is flushed.
+ */
+@Component
+@Order(1)
+@ConditionalOnProperty(prefix = "application.outbox.file-sink", name = "enabled", havingValue = "true")
+public class FileOutboxSink implements OutboxSink {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileOutboxSink.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final Path path;
+
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+    private FileChannel channel;
+
+    public FileOutboxSink(ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(applicationProperties.getOutbox().getFileSink().getPath());
+    }
+
+    @Override
+    public synchronized void deliver(OutboxMessageDTO message) throws IOException {
+        pending.write(objectMapper.writeValueAsBytes(message));
+        pending.write('\n');
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (pending.size() == 0) {
+            return;
+        }
+        try {
+            FileChannel fileChannel = open();
+            ByteBuffer buffer = ByteBuffer.wrap(pending.toByteArray());
+            while (buffer.hasRemaining()) {
+                fileChannel.write(buffer);
+            }
+            fileChannel.force(false);
+        } finally {
+            pending.reset();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            LOG.info("Appending outbox events to {}", path.toAbsolutePath());
+        }
+        return channel;
+    }
+}
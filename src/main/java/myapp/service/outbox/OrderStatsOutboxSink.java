@@ -0,0 +1,39 @@
+package myapp.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import myapp.service.OrderStatsService;
+import myapp.service.dto.OutboxMessageDTO;
+import myapp.service.event.OrderChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sink applying the {@value OutboxService#ORDER_CHANGE} messages to the order statistics, in the relay batch.
+ * <p>
+ * The deltas are written in the transaction marking the batch as delivered, so that each change is applied exactly once.
+ * A failure writing them only rolls back the deltas of its message, which is retried like any message failing, while
+ * the rest of the batch is delivered. This sink comes last: a message another sink failed to deliver is not applied
+ * before it is delivered again.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class OrderStatsOutboxSink implements OutboxSink {
+
+    private final OrderStatsService orderStatsService;
+
+    private final ObjectMapper objectMapper;
+
+    public OrderStatsOutboxSink(OrderStatsService orderStatsService, ObjectMapper objectMapper) {
+        this.orderStatsService = orderStatsService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void deliver(OutboxMessageDTO message) throws IOException {
+        if (OutboxService.ORDER_CHANGE.equals(message.aggregateType())) {
+            orderStatsService.apply(objectMapper.readValue(message.payload(), OrderChangedEvent.class));
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package myapp.service.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import myapp.config.ApplicationProperties;
+import myapp.domain.OutboxEvent;
+import myapp.repository.OutboxEventRepository;
+import myapp.service.dto.OutboxMessageDTO;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Relay delivering the committed {@link OutboxEvent}s to the {@link OutboxSink}s.
+ * <p>
+ * A drain is requested after each commit recording events, and every {@code application.outbox.relay-interval}, and
+ * runs on the {@code taskExecutor}, one at a time. It reads the oldest undelivered events by batches of
+ * {@code application.outbox.batch-size}, locked, and marks them as delivered in the same transaction, after the sinks
+ * were flushed: a failure anywhere before the commit gets the batch delivered again. An event failing is retried with
+ * an exponential backoff, and the following events of its aggregate are held back until it is delivered; batches skip
+ * them meanwhile, so that the events of the other aggregates keep flowing.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final int LAST_ERROR_MAX_LENGTH = 255;
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final List<OutboxSink> sinks;
+
+    private final Executor taskExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Outbox outboxProperties;
+
+    private final AtomicBoolean requested = new AtomicBoolean();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public OutboxRelay(
+        OutboxEventRepository outboxEventRepository,
+        ObjectProvider<OutboxSink> sinks,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks.orderedStream().toList();
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // a drain may run in the afterCommit callback of the transaction which recorded the events
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.outboxProperties = applicationProperties.getOutbox();
+    }
+
+    /**
+     * Poll the outbox for events not delivered yet.
+     * <p>
+     * This is scheduled to get fired every {@code application.outbox.relay-interval}.
+     */
+    @Scheduled(fixedDelayString = "${application.outbox.relay-interval:1s}")
+    public void poll() {
+        requestDrain();
+    }
+
+    /**
+     * Request a drain of the outbox: it starts on the {@code taskExecutor} unless one is running, which then drains again.
+     */
+    public void requestDrain() {
+        requested.set(true);
+        if (running.compareAndSet(false, true)) {
+            try {
+                taskExecutor.execute(this::drainWhileRequested);
+            } catch (RejectedExecutionException e) {
+                running.set(false);
+                LOG.warn("Outbox drain rejected by the task executor, it will run on the next poll");
+            }
+        }
+    }
+
+    private void drainWhileRequested() {
+        try {
+            while (requested.getAndSet(false)) {
+                drain();
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Outbox drain failed, it will run again on the next poll", e);
+        } finally {
+            running.set(false);
+        }
+        if (requested.get()) {
+            requestDrain();
+        }
+    }
+
+    /**
+     * Deliver the due events, batch by batch, until none is left or a batch could not deliver any.
+     *
+     * @return the number of events delivered.
+     */
+    public int drain() {
+        int batchSize = outboxProperties.getBatchSize();
+        int delivered = 0;
+        BatchResult result;
+        do {
+            result = transactionTemplate.execute(status -> relayBatch(Instant.now(), batchSize));
+            delivered += result.delivered();
+        } while (result.read() == batchSize && result.delivered() > 0);
+        if (delivered > 0) {
+            LOG.debug("Relayed {} outbox events", delivered);
+        }
+        return delivered;
+    }
+
+    private BatchResult relayBatch(Instant now, int batchSize) {
+        List<OutboxEvent> events = outboxEventRepository.findUndelivered(now, Limit.of(batchSize));
+        Set<String> heldBack = new HashSet<>();
+        int delivered = 0;
+        for (OutboxEvent event : events) {
+            String aggregate = event.getAggregateType() + '#' + event.getAggregateId();
+            if (heldBack.contains(aggregate)) {
+                continue;
+            }
+            OutboxMessageDTO message = OutboxMessageDTO.of(event);
+            try {
+                for (OutboxSink sink : sinks) {
+                    sink.deliver(message);
+                }
+                event.setDeliveredAt(now);
+                event.setNextAttemptAt(null);
+                delivered++;
+            } catch (Exception e) {
+                LOG.warn("Could not deliver outbox event {} of {}: {}", event.getId(), aggregate, e.toString());
+                heldBack.add(aggregate);
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(StringUtils.abbreviate(e.toString(), LAST_ERROR_MAX_LENGTH));
+                event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+            }
+        }
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.flush();
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not flush outbox sink " + sink.getClass().getSimpleName(), e);
+            }
+        }
+        return new BatchResult(events.size(), delivered);
+    }
+
+    /**
+     * The delay before the next attempt, {@code initial-backoff * 2^(attempts - 1)} capped at {@code max-backoff}.
+     */
+    Duration backoff(int attempts) {
+        Duration maxBackoff = outboxProperties.getMaxBackoff();
+        Duration backoff = outboxProperties.getInitialBackoff();
+        for (int attempt = 1; attempt < attempts && backoff.compareTo(maxBackoff) < 0; attempt++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        return backoff.compareTo(maxBackoff) < 0 ? backoff : maxBackoff;
+    }
+
+    /**
+     * Compact the delivered events older than {@code application.outbox.retention}: only the last event of each
+     * aggregate is kept, unless it is a deletion or a change.
+     * <p>
+     * This is scheduled to get fired every {@code application.outbox.compaction-interval}.
+     */
+    @Scheduled(fixedDelayString = "${application.outbox.compaction-interval:1h}")
+    public void compact() {
+        Instant before = Instant.now().minus(outboxProperties.getRetention());
+        int compacted = transactionTemplate.execute(
+            status -> outboxEventRepository.deleteSupersededBefore(before) + outboxEventRepository.deleteTombstonesBefore(before)
+        );
+        if (compacted > 0) {
+            LOG.info("Compacted {} delivered outbox events", compacted);
+        }
+    }
+
+    private record BatchResult(int read, int delivered) {}
+}
@@ -0,0 +1,251 @@
+package myapp.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import myapp.domain.Category;
+import myapp.domain.Customer;
+import myapp.domain.Order;
+import myapp.domain.OutboxEvent;
+import myapp.domain.Product;
+import myapp.domain.enumeration.OutboxEventType;
+import myapp.repository.OutboxEventRepository;
+import myapp.service.event.OrderChangedEvent;
+import myapp.service.event.ProductChangedEvent;
+import myapp.service.mapper.CategoryMapper;
+import myapp.service.mapper.CustomerMapper;
+import myapp.service.mapper.OrderMapper;
+import myapp.service.mapper.ProductMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service recording the changes of the {@link Product}, {@link Order}, {@link Customer} and {@link Category}
+ * aggregates as {@link OutboxEvent}s, in the transaction making them.
+ * <p>
+ * Changes are collected during the transaction, keeping only the last one of each aggregate, and written just
+ * before it commits: the persistence context is flushed first, so that the payload carries the final version of the
+ * aggregate, and the row of the aggregate is locked before the id of its event is taken from the sequence. The
+ * {@link OutboxRelay} is asked to drain once the transaction committed.
+ * <p>
+ * The {@link OrderChangedEvent}s are recorded too, as {@link OutboxEventType#CHANGED} events of the
+ * {@value #ORDER_CHANGE} aggregates: each one is kept, for the order statistics to apply them as deltas.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OutboxService.class);
+
+    /**
+     * The aggregate type of the recorded order changes, whose id is the id of the order.
+     */
+    public static final String ORDER_CHANGE = "OrderChange";
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final OutboxRelay outboxRelay;
+
+    private final ObjectMapper objectMapper;
+
+    private final ProductMapper productMapper;
+
+    private final OrderMapper orderMapper;
+
+    private final CustomerMapper customerMapper;
+
+    private final CategoryMapper categoryMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OutboxService(
+        OutboxEventRepository outboxEventRepository,
+        OutboxRelay outboxRelay,
+        ObjectMapper objectMapper,
+        ProductMapper productMapper,
+        OrderMapper orderMapper,
+        CustomerMapper customerMapper,
+        CategoryMapper categoryMapper
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxRelay = outboxRelay;
+        this.objectMapper = objectMapper;
+        this.productMapper = productMapper;
+        this.orderMapper = orderMapper;
+        this.customerMapper = customerMapper;
+        this.categoryMapper = categoryMapper;
+    }
+
+    /**
+     * Record the products written by {@link myapp.service.ProductService}, in its transaction.
+     *
+     * @param event the product change.
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            recordDeleted(Product.class, event.productId());
+        } else {
+            recordSaved(event.product());
+        }
+    }
+
+    /**
+     * Record the order changes published by {@link myapp.service.OrderService}, in its transaction.
+     *
+     * @param event the order change.
+     */
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        pendingEvents().add(ORDER_CHANGE, event.orderId(), () -> event);
+    }
+
+    /**
+     * Record the creation or update of a product, with its state when the transaction commits.
+     *
+     * @param product the product, with its id.
+     */
+    public void recordSaved(Product product) {
+        record(Product.class, product.getId(), () -> productMapper.toDto(product));
+    }
+
+    /**
+     * Record the creation or update of a order, with its state when the transaction commits.
+     *
+     * @param order the order, with its id.
+     */
+    public void recordSaved(Order order) {
+        record(Order.class, order.getId(), () -> orderMapper.toDto(order));
+    }
+
+    /**
+     * Record the creation or update of a customer, with its state when the transaction commits.
+     *
+     * @param customer the customer, with its id.
+     */
+    public void recordSaved(Customer customer) {
+        record(Customer.class, customer.getId(), () -> customerMapper.toDto(customer));
+    }
+
+    /**
+     * Record the creation or update of a category, with its state when the transaction commits.
+     *
+     * @param category the category, with its id.
+     */
+    public void recordSaved(Category category) {
+        record(Category.class, category.getId(), () -> categoryMapper.toDto(category));
+    }
+
+    /**
+     * Record the deletion of an aggregate.
+     *
+     * @param aggregateType the entity class of the aggregate.
+     * @param id the id of the aggregate.
+     */
+    public void recordDeleted(Class<?> aggregateType, Long id) {
+        record(aggregateType, id, null);
+    }
+
+    /**
+     * Write the changes recorded so far in the current transaction, rather than just before it commits, for the
+     * callers writing in chunks to clear the persistence context without the changes keeping the aggregates in memory.
+     * The aggregates written must not change anymore in the transaction.
+     */
+    public void writePending() {
+        PendingEvents pendingEvents = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pendingEvents != null) {
+            pendingEvents.write();
+        }
+    }
+
+    private void record(Class<?> aggregateType, Long id, Supplier<Object> payload) {
+        pendingEvents().put(aggregateType.getSimpleName(), id, payload);
+    }
+
+    private PendingEvents pendingEvents() {
+        PendingEvents pendingEvents = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pendingEvents == null) {
+            pendingEvents = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(this, pendingEvents);
+            TransactionSynchronizationManager.registerSynchronization(pendingEvents);
+        }
+        return pendingEvents;
+    }
+
+    private record PendingEvent(String aggregateType, Long aggregateId, OutboxEventType type, Supplier<Object> payload) {}
+
+    /**
+     * The changes of one transaction, written before it commits.
+     */
+    private final class PendingEvents implements TransactionSynchronization {
+
+        private final Map<String, PendingEvent> events = new LinkedHashMap<>();
+
+        void put(String aggregateType, Long aggregateId, Supplier<Object> payload) {
+            OutboxEventType type = payload == null ? OutboxEventType.DELETED : OutboxEventType.SAVED;
+            events.put(aggregateType + '#' + aggregateId, new PendingEvent(aggregateType, aggregateId, type, payload));
+        }
+
+        void add(String aggregateType, Long aggregateId, Supplier<Object> payload) {
+            events.put(
+                aggregateType + '#' + aggregateId + '#' + events.size(),
+                new PendingEvent(aggregateType, aggregateId, OutboxEventType.CHANGED, payload)
+            );
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write();
+        }
+
+        void write() {
+            if (events.isEmpty()) {
+                return;
+            }
+            entityManager.flush();
+            Instant now = Instant.now();
+            for (PendingEvent pending : events.values()) {
+                outboxEventRepository.save(
+                    new OutboxEvent()
+                        .aggregateType(pending.aggregateType())
+                        .aggregateId(pending.aggregateId())
+                        .type(pending.type())
+                        .payload(pending.payload() == null ? null : toJson(pending.payload().get()))
+                        .createdAt(now)
+                );
+            }
+            LOG.debug("Recorded {} outbox events", events.size());
+            events.clear();
+        }
+
+        @Override
+        public void afterCommit() {
+            outboxRelay.requestDrain();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(OutboxService.this);
+        }
+
+        private String toJson(Object payload) {
+            try {
+                return objectMapper.writeValueAsString(payload);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize outbox payload", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package myapp.service.outbox;
+
+import myapp.service.dto.OutboxMessageDTO;
+
+/**
+ * A destination of the events relayed by {@link OutboxRelay}.
+ * <p>
+ * Delivery is at-least-once: a message is delivered again if a later step of its batch fails, so sinks and their
+ * consumers must ignore the messages whose {@link OutboxMessageDTO#id() id} they have already seen. The messages of an
+ * aggregate are delivered in id order.
+ */
+public interface OutboxSink {
+    /**
+     * Deliver a message.
+     *
+     * @param message the message to deliver.
+     * @throws Exception if the message could not be delivered: it is retried after a backoff, and the following
+     * messages of its aggregate wait for it.
+     */
+    void deliver(OutboxMessageDTO message) throws Exception;
+
+    /**
+     * Make the messages delivered since the last call durable, before the batch is marked as delivered.
+     *
+     * @throws Exception if they could not be made durable: the whole batch is delivered again.
+     */
+    default void flush() throws Exception {}
+}
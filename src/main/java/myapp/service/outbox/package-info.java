@@ -0,0 +1,4 @@
+/**
+ * Transactional outbox: changes recorded with the transaction making them, and relayed to the sinks once committed.
+ */
+package myapp.service.outbox;
@@ -9,6 +9,8 @@ import java.util.Objects;
 import java.util.Optional;
 import myapp.domain.Address;
 import myapp.repository.AddressRepository;
+import myapp.service.dto.AddressDTO;
+import myapp.service.mapper.AddressMapper;
 import myapp.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,8 +43,11 @@ public class AddressResource {
 
     private final AddressRepository addressRepository;
 
-    public AddressResource(AddressRepository addressRepository) {
+    private final AddressMapper addressMapper;
+
+    public AddressResource(AddressRepository addressRepository, AddressMapper addressMapper) {
         this.addressRepository = addressRepository;
+        this.addressMapper = addressMapper;
     }
 
     /**
@@ -161,9 +166,9 @@ public class AddressResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of addresses in body.
      */
     @GetMapping("")
-    public ResponseEntity<List<Address>> getAllAddresses(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<AddressDTO>> getAllAddresses(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
         LOG.debug("REST request to get a page of Addresses");
-        Page<Address> page = addressRepository.findAll(pageable);
+        Page<AddressDTO> page = addressRepository.findAllProjectedBy(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
@@ -175,9 +180,9 @@ public class AddressResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the address, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Address> getAddress(@PathVariable("id") Long id) {
+    public ResponseEntity<AddressDTO> getAddress(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Address : {}", id);
-        Optional<Address> address = addressRepository.findById(id);
+        Optional<AddressDTO> address = addressRepository.findById(id).map(addressMapper::toDto);
         return ResponseUtil.wrapOrNotFound(address);
     }
 
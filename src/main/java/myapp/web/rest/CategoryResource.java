@@ -1,5 +1,6 @@
 package myapp.web.rest;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -9,8 +10,15 @@ import java.util.Objects;
 import java.util.Optional;
 import myapp.domain.Category;
 import myapp.repository.CategoryRepository;
+import myapp.service.CatalogVersionService;
 import myapp.service.CategoryService;
+import myapp.service.InvalidCategoryParentException;
+import myapp.service.dto.CategoryNodeDTO;
+import myapp.service.dto.CategorySummaryDTO;
+import myapp.service.dto.ProductDTO;
+import myapp.service.mapper.ProductMapper;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.util.ConditionalRequestUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -42,9 +50,20 @@ public class CategoryResource {
 
     private final CategoryRepository categoryRepository;
 
-    public CategoryResource(CategoryService categoryService, CategoryRepository categoryRepository) {
+    private final ProductMapper productMapper;
+
+    private final CatalogVersionService catalogVersionService;
+
+    public CategoryResource(
+        CategoryService categoryService,
+        CategoryRepository categoryRepository,
+        ProductMapper productMapper,
+        CatalogVersionService catalogVersionService
+    ) {
         this.categoryService = categoryService;
         this.categoryRepository = categoryRepository;
+        this.productMapper = productMapper;
+        this.catalogVersionService = catalogVersionService;
     }
 
     /**
@@ -60,7 +79,11 @@ public class CategoryResource {
         if (category.getId() != null) {
             throw new BadRequestAlertException("A new category cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        category = categoryService.save(category);
+        try {
+            category = categoryService.save(category);
+        } catch (InvalidCategoryParentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "parentinvalid");
+        }
         return ResponseEntity.created(new URI("/api/categories/" + category.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, category.getId().toString()))
             .body(category);
@@ -72,7 +95,7 @@ public class CategoryResource {
      * @param id the id of the category to save.
      * @param category the category to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated category,
-     * or with status {@code 400 (Bad Request)} if the category is not valid,
+     * or with status {@code 400 (Bad Request)} if the category is not valid or its parent is one of its descendants,
      * or with status {@code 500 (Internal Server Error)} if the category couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -93,7 +116,11 @@ public class CategoryResource {
             throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
         }
 
-        category = categoryService.update(category);
+        try {
+            category = categoryService.update(category);
+        } catch (InvalidCategoryParentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "parentinvalid");
+        }
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, category.getId().toString()))
             .body(category);
@@ -139,36 +166,109 @@ public class CategoryResource {
      * {@code GET  /categories} : get all the categories.
      *
      * @param pageable the pagination information.
-     * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categories in body.
+     * @param eagerload flag to list the first products of each category with it.
+     * @param request the request, checked for {@code If-None-Match}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categories in body,
+     * or with status {@code 304 (Not Modified)} if the client has their current version.
      */
     @GetMapping("")
-    public ResponseEntity<List<Category>> getAllCategories(
+    public ResponseEntity<List<CategorySummaryDTO>> getAllCategories(
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
-        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
+        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload,
+        HttpServletRequest request
     ) {
         LOG.debug("REST request to get a page of Categories");
-        Page<Category> page;
-        if (eagerload) {
-            page = categoryService.findAllWithEagerRelationships(pageable);
-        } else {
-            page = categoryService.findAll(pageable);
+        HttpHeaders headers = ConditionalRequestUtil.listingVersionHeaders(
+            eagerload
+                ? catalogVersionService.findVersions(CatalogVersionService.CATEGORIES, CatalogVersionService.PRODUCTS)
+                : catalogVersionService.findVersions(CatalogVersionService.CATEGORIES)
+        );
+        if (ConditionalRequestUtil.isNotModified(request, headers)) {
+            return ConditionalRequestUtil.notModified(headers);
         }
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        Page<CategorySummaryDTO> page = categoryService.findAllSummaries(pageable, eagerload);
+        headers.addAll(PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page));
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /categories/_tree} : get all the categories, each one followed by its subtree.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categories in body.
+     */
+    @GetMapping("/_tree")
+    public ResponseEntity<List<CategoryNodeDTO>> getCategoryTree() {
+        LOG.debug("REST request to get the Category tree");
+        return ResponseEntity.ok(categoryService.findTree());
+    }
+
+    /**
+     * {@code GET  /categories/:id/_subtree} : get the "id" category and all its descendants.
+     *
+     * @param id the id of the root of the subtree.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categories in body, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/_subtree")
+    public ResponseEntity<List<CategoryNodeDTO>> getCategorySubtree(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get the Category subtree of : {}", id);
+        return ResponseUtil.wrapOrNotFound(categoryService.findSubtree(id));
+    }
+
+    /**
+     * {@code GET  /categories/:id/_ancestors} : get the ancestors of the "id" category, root first.
+     *
+     * @param id the id of the category.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of ancestors in body, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/_ancestors")
+    public ResponseEntity<List<CategoryNodeDTO>> getCategoryAncestors(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get the Category ancestors of : {}", id);
+        return ResponseUtil.wrapOrNotFound(categoryService.findAncestors(id));
+    }
+
+    /**
+     * {@code GET  /categories/:id/_products} : get the products of the "id" category and of all its descendants.
+     *
+     * @param id the id of the root of the subtree.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/_products")
+    public ResponseEntity<List<ProductDTO>> getCategorySubtreeProducts(
+        @PathVariable("id") Long id,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get the Products under Category : {}", id);
+        return categoryService
+            .findProductsInSubtree(id, pageable)
+            .map(products -> products.map(productMapper::toDto))
+            .map(page -> {
+                HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+                return ResponseEntity.ok().headers(headers).body(page.getContent());
+            })
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     /**
      * {@code GET  /categories/:id} : get the "id" category.
      *
      * @param id the id of the category to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the category, or with status {@code 404 (Not Found)}.
+     * @param request the request, checked for {@code If-None-Match}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the category, or with status {@code 304 (Not Modified)}
+     * if the client has its current version, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Category> getCategory(@PathVariable("id") Long id) {
+    public ResponseEntity<Category> getCategory(@PathVariable("id") Long id, HttpServletRequest request) {
         LOG.debug("REST request to get Category : {}", id);
+        HttpHeaders headers = categoryService
+            .findVersion(id)
+            .map(version -> ConditionalRequestUtil.versionHeaders(id, version, List.of(categoryService.findProductsVersion(id))))
+            .orElseGet(HttpHeaders::new);
+        if (ConditionalRequestUtil.isNotModified(request, headers)) {
+            return ConditionalRequestUtil.notModified(headers);
+        }
         Optional<Category> category = categoryService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(category);
+        return ResponseUtil.wrapOrNotFound(category, headers);
     }
 
     /**
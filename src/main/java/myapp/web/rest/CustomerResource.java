@@ -10,12 +10,18 @@ import java.util.Optional;
 import myapp.domain.Customer;
 import myapp.repository.CustomerRepository;
 import myapp.service.CustomerService;
+import myapp.service.dto.CustomerDTO;
+import myapp.service.dto.CustomerOverviewDTO;
+import myapp.service.dto.KeysetCursor;
+import myapp.service.mapper.CustomerMapper;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.util.KeysetPaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -42,9 +48,12 @@ public class CustomerResource {
 
     private final CustomerRepository customerRepository;
 
-    public CustomerResource(CustomerService customerService, CustomerRepository customerRepository) {
+    private final CustomerMapper customerMapper;
+
+    public CustomerResource(CustomerService customerService, CustomerRepository customerRepository, CustomerMapper customerMapper) {
         this.customerService = customerService;
         this.customerRepository = customerRepository;
+        this.customerMapper = customerMapper;
     }
 
     /**
@@ -142,13 +151,43 @@ public class CustomerResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of customers in body.
      */
     @GetMapping("")
-    public ResponseEntity<List<Customer>> getAllCustomers(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<CustomerDTO>> getAllCustomers(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
         LOG.debug("REST request to get a page of Customers");
-        Page<Customer> page = customerService.findAll(pageable);
+        Page<CustomerDTO> page = customerService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /customers?cursor=} : get a keyset page of the customers, by id.
+     * <p>
+     * Pass an empty {@code cursor} for the first page, then follow the {@code next} link of the {@code Link} header.
+     * Unlike {@link #getAllCustomers(Pageable)}, the cost of a page does not depend on its depth.
+     *
+     * @param cursor the opaque cursor of the page to read.
+     * @param size the page size.
+     * @param count whether to compute the {@code X-Total-Count} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of customers in body.
+     */
+    @GetMapping(value = "", params = KeysetPaginationUtil.CURSOR_PARAMETER)
+    public ResponseEntity<List<CustomerDTO>> getAllCustomersByCursor(
+        @RequestParam(KeysetPaginationUtil.CURSOR_PARAMETER) String cursor,
+        @RequestParam(name = "size", required = false, defaultValue = "20") int size,
+        @RequestParam(name = "count", required = false, defaultValue = "false") boolean count
+    ) {
+        LOG.debug("REST request to get a keyset page of Customers");
+        Slice<CustomerDTO> slice = customerService
+            .findAllAfter(decodeCursor(cursor), KeysetPaginationUtil.resolvePageSize(size))
+            .map(customerMapper::toDto);
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            customer -> KeysetCursor.of(customer.id()),
+            count ? customerRepository.count() : null
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
     /**
      * {@code GET  /customers/:id} : get the "id" customer.
      *
@@ -156,12 +195,25 @@ public class CustomerResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the customer, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Customer> getCustomer(@PathVariable("id") Long id) {
+    public ResponseEntity<CustomerDTO> getCustomer(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Customer : {}", id);
-        Optional<Customer> customer = customerService.findOne(id);
+        Optional<CustomerDTO> customer = customerService.findOne(id).map(customerMapper::toDto);
         return ResponseUtil.wrapOrNotFound(customer);
     }
 
+    /**
+     * {@code GET  /customers/:id/overview} : get the overview of the "id" customer, for its profile page.
+     *
+     * @param id the id of the customer.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the customer with its addresses, wish lists and
+     * most recent orders, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/overview")
+    public ResponseEntity<CustomerOverviewDTO> getCustomerOverview(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get the overview of Customer : {}", id);
+        return ResponseUtil.wrapOrNotFound(customerService.findOverview(id));
+    }
+
     /**
      * {@code DELETE  /customers/:id} : delete the "id" customer.
      *
@@ -176,4 +228,16 @@ public class CustomerResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private KeysetCursor decodeCursor(String value) {
+        try {
+            KeysetCursor cursor = KeysetCursor.decode(value);
+            if (cursor != null && (cursor.id() == null)) {
+                throw new IllegalArgumentException("Incomplete cursor: " + value);
+            }
+            return cursor;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
 }
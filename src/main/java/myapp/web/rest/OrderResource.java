@@ -4,21 +4,35 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import myapp.domain.Order;
 import myapp.repository.OrderRepository;
+import myapp.service.OrderExportService;
+import myapp.service.OrderPartitionService;
 import myapp.service.OrderService;
+import myapp.service.dto.KeysetCursor;
+import myapp.service.dto.OrderDTO;
+import myapp.service.dto.OrderPlacementDTO;
+import myapp.service.dto.OrderPlacementResultDTO;
+import myapp.service.mapper.OrderMapper;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.util.KeysetPaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -42,9 +56,24 @@ public class OrderResource {
 
     private final OrderRepository orderRepository;
 
-    public OrderResource(OrderService orderService, OrderRepository orderRepository) {
+    private final OrderExportService orderExportService;
+
+    private final OrderMapper orderMapper;
+
+    private final OrderPartitionService orderPartitionService;
+
+    public OrderResource(
+        OrderService orderService,
+        OrderRepository orderRepository,
+        OrderExportService orderExportService,
+        OrderMapper orderMapper,
+        OrderPartitionService orderPartitionService
+    ) {
         this.orderService = orderService;
         this.orderRepository = orderRepository;
+        this.orderExportService = orderExportService;
+        this.orderMapper = orderMapper;
+        this.orderPartitionService = orderPartitionService;
     }
 
     /**
@@ -66,6 +95,64 @@ public class OrderResource {
             .body(order);
     }
 
+    /**
+     * {@code POST  /orders/_place} : Place a new order, reserving the stock of its lines.
+     *
+     * @param placement the lines of the order.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the placement result and the new pending order,
+     * or with status {@code 409 (Conflict)} and with body the status of each line if some of them could not be reserved.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/_place")
+    public ResponseEntity<OrderPlacementResultDTO> placeOrder(@Valid @RequestBody OrderPlacementDTO placement) throws URISyntaxException {
+        LOG.debug("REST request to place Order : {}", placement);
+        OrderPlacementResultDTO result = orderService.place(placement);
+        if (!result.placed()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .headers(HeaderUtil.createFailureAlert(applicationName, false, ENTITY_NAME, "outofstock", "Some lines could not be reserved"))
+                .body(result);
+        }
+        return ResponseEntity.created(new URI("/api/orders/" + result.order().getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.order().getId().toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code POST  /orders/:id/_confirm} : Confirm a pending order, keeping its reserved stock.
+     *
+     * @param id the id of the order to confirm.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the confirmed order,
+     * or with status {@code 400 (Bad Request)} if the order is not pending anymore,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/{id}/_confirm")
+    public ResponseEntity<Order> confirmOrder(@PathVariable("id") Long id) {
+        LOG.debug("REST request to confirm Order : {}", id);
+        Optional<Order> result = orderService.confirm(id);
+        if (result.isPresent() && !OrderService.STATUS_CONFIRMED.equals(result.orElseThrow().getStatus())) {
+            throw new BadRequestAlertException("Order is not pending", ENTITY_NAME, "notpending");
+        }
+        return ResponseUtil.wrapOrNotFound(result, HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()));
+    }
+
+    /**
+     * {@code POST  /orders/:id/_cancel} : Cancel a pending order, giving its reserved stock back.
+     *
+     * @param id the id of the order to cancel.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the cancelled order,
+     * or with status {@code 400 (Bad Request)} if the order is not pending anymore,
+     * or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/{id}/_cancel")
+    public ResponseEntity<Order> cancelOrder(@PathVariable("id") Long id) {
+        LOG.debug("REST request to cancel Order : {}", id);
+        Optional<Order> result = orderService.cancel(id);
+        if (result.isPresent() && !OrderService.STATUS_CANCELLED.equals(result.orElseThrow().getStatus())) {
+            throw new BadRequestAlertException("Order is not pending", ENTITY_NAME, "notpending");
+        }
+        return ResponseUtil.wrapOrNotFound(result, HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()));
+    }
+
     /**
      * {@code PUT  /orders/:id} : Updates an existing order.
      *
@@ -73,6 +160,7 @@ public class OrderResource {
      * @param order the order to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated order,
      * or with status {@code 400 (Bad Request)} if the order is not valid,
+     * or with status {@code 409 (Conflict)} if the order was updated since the version given,
      * or with status {@code 500 (Internal Server Error)} if the order couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -87,11 +175,9 @@ public class OrderResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!orderRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        order = orderService.update(order);
+        order = orderService
+            .update(order)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, order.getId().toString()))
             .body(order);
@@ -105,6 +191,7 @@ public class OrderResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated order,
      * or with status {@code 400 (Bad Request)} if the order is not valid,
      * or with status {@code 404 (Not Found)} if the order is not found,
+     * or with status {@code 409 (Conflict)} if the order was updated since the version given,
      * or with status {@code 500 (Internal Server Error)} if the order couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -121,10 +208,6 @@ public class OrderResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!orderRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
         Optional<Order> result = orderService.partialUpdate(order);
 
         return ResponseUtil.wrapOrNotFound(
@@ -134,29 +217,93 @@ public class OrderResource {
     }
 
     /**
-     * {@code GET  /orders} : get all the orders.
+     * {@code GET  /orders} : get all the orders, or only the recent ones.
      *
      * @param pageable the pagination information.
+     * @param recent whether to list only the orders of the last {@code application.order-partitions.hot-months}.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of orders in body.
      */
     @GetMapping("")
-    public ResponseEntity<List<Order>> getAllOrders(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
-        LOG.debug("REST request to get a page of Orders");
-        Page<Order> page = orderService.findAll(pageable);
+    public ResponseEntity<List<OrderDTO>> getAllOrders(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = "recent", required = false, defaultValue = "false") boolean recent
+    ) {
+        LOG.debug("REST request to get a page of Orders, recent only: {}", recent);
+        Page<OrderDTO> page = recent ? orderService.findRecent(pageable) : orderService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /orders/_export} : export the orders placed in a period, oldest first.
+     * <p>
+     * Orders are written to the response while they are read from the database, so that the export runs in
+     * constant memory whatever the number of orders.
+     *
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @param format the format of the export, {@code NDJSON} or {@code CSV}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the exported orders in body, or with status {@code 400 (Bad Request)} if the period is empty.
+     */
+    @GetMapping("/_export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+        @RequestParam("from") Instant from,
+        @RequestParam("to") Instant to,
+        @RequestParam(name = "format", defaultValue = "NDJSON") OrderExportService.Format format
+    ) {
+        LOG.debug("REST request to export Orders from {} to {} as {}", from, to, format);
+        if (!from.isBefore(to)) {
+            throw new BadRequestAlertException("The export period is empty", ENTITY_NAME, "periodinvalid");
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(format.getMediaType()));
+        headers.setContentDisposition(ContentDisposition.attachment().filename("orders." + format.getExtension()).build());
+        return ResponseEntity.ok().headers(headers).body(out -> orderExportService.export(from, to, format, out));
+    }
+
+    /**
+     * {@code GET  /orders?cursor=} : get a keyset page of the orders, most recent first.
+     * <p>
+     * Pass an empty {@code cursor} for the first page, then follow the {@code next} link of the {@code Link} header.
+     * Unlike {@link #getAllOrders(Pageable, boolean)}, the cost of a page does not depend on its depth.
+     *
+     * @param cursor the opaque cursor of the page to read.
+     * @param size the page size.
+     * @param count whether to compute the {@code X-Total-Count} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of orders in body.
+     */
+    @GetMapping(value = "", params = KeysetPaginationUtil.CURSOR_PARAMETER)
+    public ResponseEntity<List<OrderDTO>> getAllOrdersByCursor(
+        @RequestParam(KeysetPaginationUtil.CURSOR_PARAMETER) String cursor,
+        @RequestParam(name = "size", required = false, defaultValue = "20") int size,
+        @RequestParam(name = "count", required = false, defaultValue = "false") boolean count
+    ) {
+        LOG.debug("REST request to get a keyset page of Orders");
+        Slice<OrderDTO> slice = orderService
+            .findAllAfter(decodeCursor(cursor), KeysetPaginationUtil.resolvePageSize(size))
+            .map(orderMapper::toDto);
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            order -> KeysetCursor.of(order.orderDate(), order.id()),
+            count ? orderRepository.count() : null
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
     /**
      * {@code GET  /orders/:id} : get the "id" order.
+     * <p>
+     * Archived orders are read from the archive. They are not listed by {@link #getAllOrders(Pageable, boolean)} and
+     * cannot be updated nor deleted anymore.
      *
      * @param id the id of the order to retrieve.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the order, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Order> getOrder(@PathVariable("id") Long id) {
+    public ResponseEntity<OrderDTO> getOrder(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Order : {}", id);
-        Optional<Order> order = orderService.findOne(id);
+        Optional<OrderDTO> order = orderService.findOne(id).map(orderMapper::toDto).or(() -> orderPartitionService.findArchived(id));
         return ResponseUtil.wrapOrNotFound(order);
     }
 
@@ -174,4 +321,16 @@ public class OrderResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private KeysetCursor decodeCursor(String value) {
+        try {
+            KeysetCursor cursor = KeysetCursor.decode(value);
+            if (cursor != null && (cursor.id() == null || cursor.sortKey() == null)) {
+                throw new IllegalArgumentException("Incomplete cursor: " + value);
+            }
+            return cursor;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package myapp.web.rest;
+
+import java.time.Instant;
+import java.util.List;
+import myapp.domain.enumeration.OrderStatsGranularity;
+import myapp.security.AuthoritiesConstants;
+import myapp.service.OrderStatsService;
+import myapp.service.dto.OrderStatsDTO;
+import myapp.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for reading the statistics of the {@link myapp.domain.Order}s.
+ */
+@RestController
+@RequestMapping("/api/order-stats")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class OrderStatsResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderStatsResource.class);
+
+    private static final String ENTITY_NAME = "orderStats";
+
+    private final OrderStatsService orderStatsService;
+
+    public OrderStatsResource(OrderStatsService orderStatsService) {
+        this.orderStatsService = orderStatsService;
+    }
+
+    /**
+     * {@code GET  /order-stats} : get the statistics of the orders placed in a period, by hour or day in UTC, oldest first.
+     *
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @param granularity the width of the buckets, {@code HOUR} or {@code DAY}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the statistics of each bucket with orders in body, or with status {@code 400 (Bad Request)} if the period is empty.
+     */
+    @GetMapping("")
+    public ResponseEntity<List<OrderStatsDTO>> getOrderStats(
+        @RequestParam("from") Instant from,
+        @RequestParam("to") Instant to,
+        @RequestParam(name = "granularity", defaultValue = "DAY") OrderStatsGranularity granularity
+    ) {
+        LOG.debug("REST request to get {} Order statistics from {} to {}", granularity, from, to);
+        if (!from.isBefore(to)) {
+            throw new BadRequestAlertException("The statistics period is empty", ENTITY_NAME, "periodinvalid");
+        }
+        return ResponseEntity.ok(orderStatsService.findStats(granularity, from, to));
+    }
+
+    /**
+     * {@code POST  /order-stats/_rebuild} : rebuild the statistics of the days overlapping a period from the orders, in the background.
+     *
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)}, or with status {@code 400 (Bad Request)} if the period is empty.
+     */
+    @PostMapping("/_rebuild")
+    public ResponseEntity<Void> rebuildOrderStats(@RequestParam("from") Instant from, @RequestParam("to") Instant to) {
+        LOG.debug("REST request to rebuild Order statistics from {} to {}", from, to);
+        if (!from.isBefore(to)) {
+            throw new BadRequestAlertException("The statistics period is empty", ENTITY_NAME, "periodinvalid");
+        }
+        orderStatsService.rebuildInBackground(from, to);
+        return ResponseEntity.accepted().build();
+    }
+}
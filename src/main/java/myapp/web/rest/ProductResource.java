@@ -1,21 +1,40 @@
 package myapp.web.rest;
 
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import myapp.config.ApplicationProperties;
 import myapp.domain.Product;
+import myapp.domain.enumeration.ProductStatus;
 import myapp.repository.ProductRepository;
+import myapp.service.CatalogVersionService;
+import myapp.service.ProductFacetService;
+import myapp.service.ProductPriceIndexService;
+import myapp.service.ProductSearchService;
 import myapp.service.ProductService;
+import myapp.service.dto.BulkWriteResultDTO;
+import myapp.service.dto.FilteredProductsDTO;
+import myapp.service.dto.KeysetCursor;
+import myapp.service.dto.ProductDTO;
+import myapp.service.mapper.ProductMapper;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.util.ConditionalRequestUtil;
+import myapp.web.rest.util.KeysetPaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -42,9 +61,36 @@ public class ProductResource {
 
     private final ProductRepository productRepository;
 
-    public ProductResource(ProductService productService, ProductRepository productRepository) {
+    private final ProductSearchService productSearchService;
+
+    private final ProductFacetService productFacetService;
+
+    private final ProductPriceIndexService productPriceIndexService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ProductMapper productMapper;
+
+    private final CatalogVersionService catalogVersionService;
+
+    public ProductResource(
+        ProductService productService,
+        ProductRepository productRepository,
+        ProductSearchService productSearchService,
+        ProductFacetService productFacetService,
+        ProductPriceIndexService productPriceIndexService,
+        ApplicationProperties applicationProperties,
+        ProductMapper productMapper,
+        CatalogVersionService catalogVersionService
+    ) {
         this.productService = productService;
         this.productRepository = productRepository;
+        this.productSearchService = productSearchService;
+        this.productFacetService = productFacetService;
+        this.productPriceIndexService = productPriceIndexService;
+        this.applicationProperties = applicationProperties;
+        this.productMapper = productMapper;
+        this.catalogVersionService = catalogVersionService;
     }
 
     /**
@@ -66,6 +112,29 @@ public class ProductResource {
             .body(product);
     }
 
+    /**
+     * {@code POST  /products/_bulk} : Create or update products in bulk, in one transaction.
+     * <p>
+     * Products without an ID are created, the others are updated.
+     *
+     * @param products the products to save.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ids of the saved products and the write throughput,
+     * or with status {@code 400 (Bad Request)} if a product is not valid, if a product to update does not exist or if there are too many products.
+     */
+    @PostMapping("/_bulk")
+    public ResponseEntity<BulkWriteResultDTO> bulkSaveProducts(@Valid @RequestBody List<@Valid Product> products) {
+        LOG.debug("REST request to save {} Products in bulk", products.size());
+        int maxRows = applicationProperties.getBulk().getMaxRows();
+        if (products.size() > maxRows) {
+            throw new BadRequestAlertException("A bulk request cannot hold more than " + maxRows + " products", ENTITY_NAME, "bulktoolarge");
+        }
+        try {
+            return ResponseEntity.ok(productService.saveAll(products));
+        } catch (EntityNotFoundException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "idnotfound");
+        }
+    }
+
     /**
      * {@code PUT  /products/:id} : Updates an existing product.
      *
@@ -73,6 +142,7 @@ public class ProductResource {
      * @param product the product to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated product,
      * or with status {@code 400 (Bad Request)} if the product is not valid,
+     * or with status {@code 409 (Conflict)} if the product was updated since the version given,
      * or with status {@code 500 (Internal Server Error)} if the product couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -89,11 +159,9 @@ public class ProductResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!productRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        product = productService.update(product);
+        product = productService
+            .update(product)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, product.getId().toString()))
             .body(product);
@@ -107,6 +175,7 @@ public class ProductResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated product,
      * or with status {@code 400 (Bad Request)} if the product is not valid,
      * or with status {@code 404 (Not Found)} if the product is not found,
+     * or with status {@code 409 (Conflict)} if the product was updated since the version given,
      * or with status {@code 500 (Internal Server Error)} if the product couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -123,10 +192,6 @@ public class ProductResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!productRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
         Optional<Product> result = productService.partialUpdate(product);
 
         return ResponseUtil.wrapOrNotFound(
@@ -139,27 +204,143 @@ public class ProductResource {
      * {@code GET  /products} : get all the products.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body.
+     * @param request the request, checked for {@code If-None-Match}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body,
+     * or with status {@code 304 (Not Modified)} if the client has the current version of the catalog.
      */
     @GetMapping("")
-    public ResponseEntity<List<Product>> getAllProducts(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<List<ProductDTO>> getAllProducts(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        HttpServletRequest request
+    ) {
         LOG.debug("REST request to get a page of Products");
-        Page<Product> page = productService.findAll(pageable);
+        HttpHeaders headers = ConditionalRequestUtil.listingVersionHeaders(catalogVersionService.findVersions(CatalogVersionService.PRODUCTS));
+        if (ConditionalRequestUtil.isNotModified(request, headers)) {
+            return ConditionalRequestUtil.notModified(headers);
+        }
+        Page<ProductDTO> page = productService.findAll(pageable);
+        headers.addAll(PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page));
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /products/_search?q=:query} : search the products matching the query, best match first.
+     *
+     * @param query the free text query, matched against title, keywords and description.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of matching products in body.
+     */
+    @GetMapping("/_search")
+    public ResponseEntity<List<ProductDTO>> searchProducts(
+        @RequestParam("q") String query,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to search for a page of Products for query {}", query);
+        Page<ProductDTO> page = productSearchService.search(query, pageable).map(productMapper::toDto);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /products/_price-range?min=:min&max=:max} : get the products in a price range, sorted by {@code price} (the default) or {@code rating}.
+     *
+     * @param min the minimum price, inclusive.
+     * @param max the maximum price, inclusive.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body.
+     */
+    @GetMapping("/_price-range")
+    public ResponseEntity<List<ProductDTO>> getProductsByPriceRange(
+        @RequestParam(name = "min", required = false) BigDecimal min,
+        @RequestParam(name = "max", required = false) BigDecimal max,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to get a page of Products priced between {} and {}", min, max);
+        Page<ProductDTO> page = productPriceIndexService.search(min, max, pageable).map(productMapper::toDto);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /products/_filter} : filter the products, in id order, and count them by facet.
+     * <p>
+     * The values of a parameter are alternatives, the parameters are combined. The facet counts of a dimension are
+     * computed with the filters on the other dimensions only.
+     *
+     * @param status the statuses.
+     * @param price the price bands, such as {@code 25-50}.
+     * @param rating the ratings.
+     * @param weight the weight bands, such as {@code 1-2}.
+     * @param inStock whether the quantity in stock is positive.
+     * @param category the ids of the categories.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the page of matching products with the facet counts in body.
+     */
+    @GetMapping("/_filter")
+    public ResponseEntity<FilteredProductsDTO> filterProducts(
+        @RequestParam(name = "status", required = false) Set<ProductStatus> status,
+        @RequestParam(name = "price", required = false) Set<String> price,
+        @RequestParam(name = "rating", required = false) Set<Integer> rating,
+        @RequestParam(name = "weight", required = false) Set<String> weight,
+        @RequestParam(name = "inStock", required = false) Boolean inStock,
+        @RequestParam(name = "category", required = false) Set<Long> category,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        ProductFacetService.Filter filter = new ProductFacetService.Filter(status, price, rating, weight, inStock, category);
+        LOG.debug("REST request to filter a page of Products : {}", filter);
+        FilteredProductsDTO result = productFacetService.filter(filter, pageable);
+        Page<ProductDTO> page = new PageImpl<>(result.products(), pageable, result.totalElements());
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(result);
+    }
+
+    /**
+     * {@code GET  /products?cursor=} : get a keyset page of the products, newest first.
+     * <p>
+     * Pass an empty {@code cursor} for the first page, then follow the {@code next} link of the {@code Link} header.
+     * Unlike {@link #getAllProducts(Pageable, HttpServletRequest)}, the cost of a page does not depend on its depth.
+     *
+     * @param cursor the opaque cursor of the page to read.
+     * @param size the page size.
+     * @param count whether to compute the {@code X-Total-Count} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body.
+     */
+    @GetMapping(value = "", params = KeysetPaginationUtil.CURSOR_PARAMETER)
+    public ResponseEntity<List<ProductDTO>> getAllProductsByCursor(
+        @RequestParam(KeysetPaginationUtil.CURSOR_PARAMETER) String cursor,
+        @RequestParam(name = "size", required = false, defaultValue = "20") int size,
+        @RequestParam(name = "count", required = false, defaultValue = "false") boolean count
+    ) {
+        LOG.debug("REST request to get a keyset page of Products");
+        Slice<ProductDTO> slice = productService
+            .findAllAfter(decodeCursor(cursor), KeysetPaginationUtil.resolvePageSize(size))
+            .map(productMapper::toDto);
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            product -> KeysetCursor.of(product.dateAdded(), product.id()),
+            count ? productRepository.count() : null
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
     /**
      * {@code GET  /products/:id} : get the "id" product.
      *
      * @param id the id of the product to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the product, or with status {@code 404 (Not Found)}.
+     * @param request the request, checked for {@code If-None-Match} and {@code If-Modified-Since}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the product, or with status {@code 304 (Not Modified)}
+     * if the client has its current version, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProduct(@PathVariable("id") Long id) {
+    public ResponseEntity<ProductDTO> getProduct(@PathVariable("id") Long id, HttpServletRequest request) {
         LOG.debug("REST request to get Product : {}", id);
-        Optional<Product> product = productService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(product);
+        HttpHeaders headers = ConditionalRequestUtil.versionHeaders(id, productService.findVersion(id).orElse(null));
+        if (ConditionalRequestUtil.isNotModified(request, headers)) {
+            return ConditionalRequestUtil.notModified(headers);
+        }
+        Optional<ProductDTO> product = productService.findOne(id).map(productMapper::toDto);
+        return ResponseUtil.wrapOrNotFound(product, headers);
     }
 
     /**
@@ -176,4 +357,16 @@ public class ProductResource {
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
     }
+
+    private KeysetCursor decodeCursor(String value) {
+        try {
+            KeysetCursor cursor = KeysetCursor.decode(value);
+            if (cursor != null && (cursor.id() == null || cursor.sortKey() == null)) {
+                throw new IllegalArgumentException("Incomplete cursor: " + value);
+            }
+            return cursor;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
 }
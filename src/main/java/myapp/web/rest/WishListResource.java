@@ -9,6 +9,8 @@ import java.util.Objects;
 import java.util.Optional;
 import myapp.domain.WishList;
 import myapp.repository.WishListRepository;
+import myapp.service.dto.WishListDTO;
+import myapp.service.mapper.WishListMapper;
 import myapp.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,8 +38,11 @@ public class WishListResource {
 
     private final WishListRepository wishListRepository;
 
-    public WishListResource(WishListRepository wishListRepository) {
+    private final WishListMapper wishListMapper;
+
+    public WishListResource(WishListRepository wishListRepository, WishListMapper wishListMapper) {
         this.wishListRepository = wishListRepository;
+        this.wishListMapper = wishListMapper;
     }
 
     /**
@@ -146,9 +151,9 @@ public class WishListResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of wishLists in body.
      */
     @GetMapping("")
-    public List<WishList> getAllWishLists() {
+    public List<WishListDTO> getAllWishLists() {
         LOG.debug("REST request to get all WishLists");
-        return wishListRepository.findAll();
+        return wishListRepository.findAllProjectedBy();
     }
 
     /**
@@ -158,9 +163,9 @@ public class WishListResource {
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the wishList, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<WishList> getWishList(@PathVariable("id") Long id) {
+    public ResponseEntity<WishListDTO> getWishList(@PathVariable("id") Long id) {
         LOG.debug("REST request to get WishList : {}", id);
-        Optional<WishList> wishList = wishListRepository.findById(id);
+        Optional<WishListDTO> wishList = wishListRepository.findById(id).map(wishListMapper::toDto);
         return ResponseUtil.wrapOrNotFound(wishList);
     }
 
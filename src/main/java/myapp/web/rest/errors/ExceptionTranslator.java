@@ -10,8 +10,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpHeaders;
@@ -39,10 +42,15 @@ import tech.jhipster.web.util.HeaderUtil;
 /**
  * Controller advice to translate the server side exceptions to client-friendly json structures.
  * The error response follows RFC7807 - Problem Details for HTTP APIs (https://tools.ietf.org/html/rfc7807).
+ * <p>
+ * The exceptions translated to a server error are logged here, once per request, with their stack trace in the "dev"
+ * profile; the ones translated to a client error are not.
  */
 @ControllerAdvice
 public class ExceptionTranslator extends ResponseEntityExceptionHandler {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ExceptionTranslator.class);
+
     private static final String FIELD_ERRORS_KEY = "fieldErrors";
     private static final String MESSAGE_KEY = "message";
     private static final String PATH_KEY = "path";
@@ -53,8 +61,11 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
 
     private final Environment env;
 
+    private final boolean logStackTraces;
+
     public ExceptionTranslator(Environment env) {
         this.env = env;
+        this.logStackTraces = env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT));
     }
 
     @ExceptionHandler
@@ -73,9 +84,21 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
         WebRequest request
     ) {
         body = body == null ? wrapAndCustomizeProblem((Throwable) ex, (NativeWebRequest) request) : body;
+        if (statusCode.is5xxServerError()) {
+            logServerError(ex, (NativeWebRequest) request);
+        }
         return super.handleExceptionInternal(ex, body, headers, statusCode, request);
     }
 
+    private void logServerError(Exception ex, NativeWebRequest request) {
+        if (logStackTraces) {
+            LOG.error("Exception in {} with cause = '{}' and exception = '{}'", extractURI(request), ex.getCause(), ex.getMessage(), ex);
+        } else {
+            // The cause is formatted, as a trailing Throwable would get its stack trace logged
+            LOG.error("Exception in {} with exception = '{}' and cause = '{}'", extractURI(request), ex, String.valueOf(ex.getCause()));
+        }
+    }
+
     protected ProblemDetailWithCause wrapAndCustomizeProblem(Throwable ex, NativeWebRequest request) {
         return customizeProblem(getProblemDetailWithCause(ex), ex, request);
     }
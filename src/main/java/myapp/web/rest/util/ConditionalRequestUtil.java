@@ -0,0 +1,111 @@
+package myapp.web.rest.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.stream.Collectors;
+import myapp.service.dto.CollectionVersionDTO;
+import myapp.service.dto.EntityVersionDTO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Utility class for handling conditional GETs ({@code If-None-Match} and {@code If-Modified-Since}).
+ * <p>
+ * Validators are computed from a cheap version lookup (optimistic locking versions, the
+ * {@link myapp.domain.CatalogVersion}s of the listings, counts and sums of ids and versions of the entities related to
+ * a single one, see {@link CollectionVersionDTO}) before the resource itself is read, so that a
+ * {@code 304 (Not Modified)} response never loads the entity graph. ETags are weak: two responses with the same ETag
+ * hold the same data, but not necessarily the same bytes. {@code Last-Modified} is only sent for a single entity: the
+ * latest modification date of a collection does not change when one of its entities is deleted.
+ */
+public final class ConditionalRequestUtil {
+
+    private ConditionalRequestUtil() {}
+
+    /**
+     * Generate the {@code ETag} and {@code Last-Modified} headers of a single entity.
+     *
+     * @param id The id of the entity.
+     * @param version The version of the entity, or {@code null} if it does not exist.
+     * @return the headers, empty when the entity does not exist.
+     */
+    public static HttpHeaders versionHeaders(Long id, EntityVersionDTO version) {
+        HttpHeaders headers = versionHeaders(id, version, List.of());
+        if (version != null && version.lastModified() != null) {
+            headers.setLastModified(version.lastModified());
+        }
+        return headers;
+    }
+
+    /**
+     * Generate the {@code ETag} header of a single entity returned with related entities.
+     *
+     * @param id The id of the entity.
+     * @param version The version of the entity, or {@code null} if it does not exist.
+     * @param collections The versions of the collections of related entities returned with it.
+     * @return the headers, empty when the entity does not exist.
+     */
+    public static HttpHeaders versionHeaders(Long id, EntityVersionDTO version, List<CollectionVersionDTO> collections) {
+        if (id == null || version == null) {
+            return new HttpHeaders();
+        }
+        return versionHeaders(id + "-" + version.version(), collections);
+    }
+
+    /**
+     * Generate the {@code ETag} header of a listing.
+     *
+     * @param catalogVersions The {@link myapp.domain.CatalogVersion}s of the collections of entities listed.
+     * @return the headers.
+     */
+    public static HttpHeaders listingVersionHeaders(List<Long> catalogVersions) {
+        return eTagHeaders(catalogVersions.stream().map(String::valueOf).collect(Collectors.joining(".")));
+    }
+
+    /**
+     * Check the conditional headers of the request against the version of the resource.
+     *
+     * @param request The request.
+     * @param versionHeaders The headers generated by {@code versionHeaders}.
+     * @return {@code true} if the client already has the current version of the resource.
+     */
+    public static boolean isNotModified(HttpServletRequest request, HttpHeaders versionHeaders) {
+        if (versionHeaders.getETag() == null) {
+            return false;
+        }
+        // Without a response, the check leaves the headers and the status to the returned ResponseEntity
+        return new ServletWebRequest(request).checkNotModified(versionHeaders.getETag(), versionHeaders.getLastModified());
+    }
+
+    /**
+     * Build the {@code 304 (Not Modified)} response of a resource.
+     *
+     * @param versionHeaders The headers generated by {@code versionHeaders}.
+     * @param <T> The type of the body.
+     * @return the response, without body.
+     */
+    public static <T> ResponseEntity<T> notModified(HttpHeaders versionHeaders) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(versionHeaders).build();
+    }
+
+    private static HttpHeaders versionHeaders(String tag, List<CollectionVersionDTO> collections) {
+        StringBuilder eTag = new StringBuilder(tag);
+        for (CollectionVersionDTO collection : collections) {
+            if (!eTag.isEmpty()) {
+                eTag.append('.');
+            }
+            eTag.append(collection.count()).append('-');
+            eTag.append(collection.idSum() != null ? collection.idSum() : 0).append('-');
+            eTag.append(collection.versionSum() != null ? collection.versionSum() : 0);
+        }
+        return eTagHeaders(eTag.toString());
+    }
+
+    private static HttpHeaders eTagHeaders(String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("W/\"" + eTag + "\"");
+        return headers;
+    }
+}
@@ -0,0 +1,79 @@
+package myapp.web.rest.util;
+
+import java.text.MessageFormat;
+import java.util.function.Function;
+import myapp.service.dto.KeysetCursor;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset (cursor based) pagination.
+ * <p>
+ * Mirrors {@link tech.jhipster.web.util.PaginationUtil} but links pages through an opaque {@code cursor} query
+ * parameter instead of a page number, and only reports the total count when it was asked for.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String CURSOR_PARAMETER = "cursor";
+
+    public static final int MAX_PAGE_SIZE = 2000;
+
+    private static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Generate pagination headers for a Spring Data {@link Slice} read with a keyset cursor.
+     *
+     * @param uriBuilder The URI builder.
+     * @param slice The slice.
+     * @param cursorOf Function extracting the cursor from the last row of the slice.
+     * @param totalCount The total number of rows, or {@code null} to skip the {@code X-Total-Count} header.
+     * @param <T> The type of object.
+     * @return http header.
+     */
+    public static <T> HttpHeaders generateKeysetPaginationHttpHeaders(
+        UriComponentsBuilder uriBuilder,
+        Slice<T> slice,
+        Function<T, KeysetCursor> cursorOf,
+        Long totalCount
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        if (totalCount != null) {
+            headers.add(HEADER_X_TOTAL_COUNT, Long.toString(totalCount));
+        }
+        StringBuilder link = new StringBuilder();
+        if (slice.hasNext()) {
+            String next = cursorOf.apply(slice.getContent().get(slice.getNumberOfElements() - 1)).encode();
+            link.append(prepareLink(uriBuilder, slice.getSize(), next, "next")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, slice.getSize(), "", "first"));
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    /**
+     * Bound the requested page size the same way Spring Data bounds {@link org.springframework.data.domain.Pageable} sizes.
+     *
+     * @param size The requested page size.
+     * @return the page size to use.
+     */
+    public static int resolvePageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, int size, String cursor, String relType) {
+        return MessageFormat.format(
+            HEADER_LINK_FORMAT,
+            uriBuilder
+                .replaceQueryParam(CURSOR_PARAMETER, cursor)
+                .replaceQueryParam("size", size)
+                .toUriString()
+                .replace(",", "%2C")
+                .replace(";", "%3B"),
+            relType
+        );
+    }
+}
@@ -0,0 +1,81 @@
+package myapp.aop.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import myapp.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+public class MethodTimingInterceptorTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties.MethodTiming properties;
+
+    private Greeter greeter;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ApplicationProperties.MethodTiming();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        ProxyFactory proxyFactory = new ProxyFactory(new Greeter());
+        proxyFactory.addAdvice(new MethodTimingInterceptor(beanFactory.getBeanProvider(MeterRegistry.class), properties));
+        greeter = (Greeter) proxyFactory.getProxy();
+    }
+
+    @Test
+    public void shouldTimeEveryCallWhenSampleRateIsOne() {
+        properties.setSampleRate(1);
+
+        greeter.greet("world");
+        greeter.greet("again");
+
+        assertEquals(
+            2,
+            meterRegistry
+                .get(MethodTimingInterceptor.METER_NAME)
+                .tag("class", "Greeter")
+                .tag("method", "greet")
+                .tag("exception", "none")
+                .timer()
+                .count()
+        );
+    }
+
+    @Test
+    public void shouldTagExceptions() {
+        properties.setSampleRate(1);
+
+        assertThrows(IllegalArgumentException.class, () -> greeter.greet(null));
+
+        assertEquals(
+            1,
+            meterRegistry.get(MethodTimingInterceptor.METER_NAME).tag("exception", "IllegalArgumentException").timer().count()
+        );
+    }
+
+    @Test
+    public void shouldNotTimeCallsWhenSampleRateIsZero() {
+        properties.setSampleRate(0);
+
+        assertEquals("Hello world", greeter.greet("world"));
+
+        assertTrue(meterRegistry.find(MethodTimingInterceptor.METER_NAME).timers().isEmpty());
+    }
+
+    public static class Greeter {
+
+        public String greet(String name) {
+            if (name == null) {
+                throw new IllegalArgumentException("name is required");
+            }
+            return "Hello " + name;
+        }
+    }
+}
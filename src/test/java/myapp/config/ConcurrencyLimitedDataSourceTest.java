@@ -0,0 +1,96 @@
+package myapp.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+public class ConcurrencyLimitedDataSourceTest {
+
+    private final AtomicInteger closed = new AtomicInteger();
+
+    private boolean failing;
+
+    private final DataSource target = new AbstractDataSource() {
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (failing) {
+                throw new SQLException("database down");
+            }
+            return (Connection) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        closed.incrementAndGet();
+                    }
+                    return null;
+                }
+            );
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    };
+
+    private MeterRegistry meterRegistry;
+
+    private ConcurrencyLimitedDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new ConcurrencyLimitedDataSource(target, 2, Duration.ofMillis(50));
+        dataSource.bindTo(meterRegistry);
+    }
+
+    @Test
+    public void shouldGivePermitBackOnceWhenConnectionIsClosed() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        assertEquals(1, dataSource.getAvailablePermits());
+
+        connection.close();
+        connection.close();
+
+        assertEquals(2, dataSource.getAvailablePermits());
+        assertEquals(2, closed.get());
+    }
+
+    @Test
+    public void shouldFailWhenNoPermitIsAvailableInTime() throws SQLException {
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        assertEquals(0, dataSource.getAvailablePermits());
+        assertEquals(3, meterRegistry.get(ConcurrencyLimitedDataSource.PERMITS_WAIT_METER_NAME).timer().count());
+    }
+
+    @Test
+    public void shouldGivePermitBackWhenConnectionCannotBeObtained() {
+        failing = true;
+
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    public void shouldExposePermitGauges() throws SQLException {
+        dataSource.getConnection();
+
+        assertEquals(1, meterRegistry.get(ConcurrencyLimitedDataSource.PERMITS_METER_NAME).tag("state", "available").gauge().value());
+        assertEquals(0, meterRegistry.get(ConcurrencyLimitedDataSource.PERMITS_METER_NAME).tag("state", "waiting").gauge().value());
+    }
+}
@@ -0,0 +1,41 @@
+package myapp.config;
+
+import java.util.Collections;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.JdbcDatabaseContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.output.Slf4jLogConsumer;
+
+public class PostgreSqlTestContainer implements SqlTestContainer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PostgreSqlTestContainer.class);
+
+    private PostgreSQLContainer<?> postgreSQLContainer;
+
+    @Override
+    public void destroy() {
+        if (null != postgreSQLContainer && postgreSQLContainer.isRunning()) {
+            postgreSQLContainer.stop();
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (null == postgreSQLContainer) {
+            postgreSQLContainer = new PostgreSQLContainer<>("postgres:16.4")
+                .withDatabaseName("sampleApp")
+                .withTmpFs(Collections.singletonMap("/testtmpfs", "rw"))
+                .withLogConsumer(new Slf4jLogConsumer(LOG))
+                .withReuse(true);
+        }
+        if (!postgreSQLContainer.isRunning()) {
+            postgreSQLContainer.start();
+        }
+    }
+
+    @Override
+    public JdbcDatabaseContainer<?> getTestContainer() {
+        return postgreSQLContainer;
+    }
+}
@@ -0,0 +1,116 @@
+package myapp.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ReadReplicaRouterTest {
+
+    private final DataSource primary = h2("primary");
+
+    private final SwitchableDataSource replica = new SwitchableDataSource(h2("replica"));
+
+    private ReadReplicaRouter router;
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    public void setUp() {
+        router = new ReadReplicaRouter(Map.of("replica", replica), Duration.ofSeconds(1), Duration.ofSeconds(5));
+        dataSource = router.route(primary);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("user", "user"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void shouldRouteReadOnlyTransactionsToReplica() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("replica", databaseOf(dataSource));
+    }
+
+    @Test
+    public void shouldRouteOtherTransactionsToPrimary() throws SQLException {
+        assertEquals("primary", databaseOf(dataSource));
+    }
+
+    @Test
+    public void shouldReadYourWritesFromPrimary() throws SQLException {
+        router.afterCommit(writeTransaction(), null);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("primary", databaseOf(dataSource));
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("other", "other"));
+        assertEquals("replica", databaseOf(dataSource));
+    }
+
+    @Test
+    public void shouldFallBackToPrimaryUntilReplicaIsHealthyAgain() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        replica.down = true;
+
+        assertEquals("primary", databaseOf(dataSource));
+
+        replica.down = false;
+        assertEquals("primary", databaseOf(dataSource));
+        router.checkReplicas();
+        assertEquals("replica", databaseOf(dataSource));
+    }
+
+    private static String databaseOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getCatalog().toLowerCase();
+        }
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private static TransactionExecution writeTransaction() {
+        return new TransactionExecution() {
+            @Override
+            public boolean isNewTransaction() {
+                return true;
+            }
+        };
+    }
+
+    private static class SwitchableDataSource extends DelegatingDataSource {
+
+        private volatile boolean down;
+
+        SwitchableDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
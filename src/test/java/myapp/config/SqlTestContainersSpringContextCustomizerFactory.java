@@ -0,0 +1,46 @@
+package myapp.config;
+
+import java.util.Arrays;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.test.context.ContextConfigurationAttributes;
+import org.springframework.test.context.ContextCustomizer;
+import org.springframework.test.context.ContextCustomizerFactory;
+import tech.jhipster.config.JHipsterConstants;
+
+public class SqlTestContainersSpringContextCustomizerFactory implements ContextCustomizerFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SqlTestContainersSpringContextCustomizerFactory.class);
+
+    private static SqlTestContainer prodTestContainer;
+
+    @Override
+    public ContextCustomizer createContextCustomizer(Class<?> testClass, List<ContextConfigurationAttributes> configAttributes) {
+        return (context, mergedConfig) -> {
+            ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+            TestPropertyValues testValues = TestPropertyValues.empty();
+            EmbeddedSQL sqlAnnotation = AnnotatedElementUtils.findMergedAnnotation(testClass, EmbeddedSQL.class);
+            boolean usingTestProdProfile = Arrays.asList(context.getEnvironment().getActiveProfiles()).contains(
+                "test" + JHipsterConstants.SPRING_PROFILE_PRODUCTION
+            );
+            if (null != sqlAnnotation && usingTestProdProfile) {
+                LOG.debug("detected the EmbeddedSQL annotation on class {}", testClass.getName());
+                LOG.info("Warming up the sql database");
+                if (null == prodTestContainer) {
+                    prodTestContainer = beanFactory.createBean(PostgreSqlTestContainer.class);
+                    beanFactory.registerSingleton(PostgreSqlTestContainer.class.getName(), prodTestContainer);
+                }
+                testValues = testValues.and(
+                    "spring.datasource.url=" + prodTestContainer.getTestContainer().getJdbcUrl() + "?sslmode=disable&stringtype=unspecified"
+                );
+                testValues = testValues.and("spring.datasource.username=" + prodTestContainer.getTestContainer().getUsername());
+                testValues = testValues.and("spring.datasource.password=" + prodTestContainer.getTestContainer().getPassword());
+            }
+            testValues.applyTo(context);
+        };
+    }
+}
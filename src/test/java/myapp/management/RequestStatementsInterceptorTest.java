@@ -0,0 +1,100 @@
+package myapp.management;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import myapp.config.ApplicationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+public class RequestStatementsInterceptorTest {
+
+    private final RequestStatementsListener listener = new RequestStatementsListener();
+
+    private MeterRegistry meterRegistry;
+
+    private RequestStatementsInterceptor interceptor;
+
+    private HandlerMethod handler;
+
+    @BeforeEach
+    public void setUp() throws NoSuchMethodException {
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        interceptor = new RequestStatementsInterceptor(
+            new RequestStatementsMetersService(meterRegistry, applicationProperties),
+            applicationProperties
+        );
+        handler = new HandlerMethod(new SampleResource(), SampleResource.class.getMethod("getAll"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestStatements.end();
+    }
+
+    @Test
+    public void shouldRecordStatementsOfRequestByHandler() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/samples");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, handler);
+        listener.inspect("select s1_0.id from sample s1_0");
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+        listener.inspect("select count(s1_0.id) from sample s1_0");
+        RequestStatements.current().rowLoaded();
+        interceptor.afterCompletion(request, response, handler, null);
+
+        assertEquals(
+            2,
+            meterRegistry
+                .get(RequestStatementsMetersService.STATEMENTS_METER_NAME)
+                .tag(RequestStatementsMetersService.HANDLER_DIMENSION, "SampleResource.getAll")
+                .summary()
+                .totalAmount()
+        );
+        assertEquals(1, meterRegistry.get(RequestStatementsMetersService.ROWS_METER_NAME).summary().totalAmount());
+        assertEquals(1, meterRegistry.get(RequestStatementsMetersService.TIME_METER_NAME).timer().count());
+        assertNull(RequestStatements.current());
+    }
+
+    @Test
+    public void shouldAttributeStatementsToAssociationLoaded() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/samples");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, handler);
+        listener.inspect("select c1_0.id from category c1_0");
+        RequestStatements requestStatements = RequestStatements.current();
+        for (int i = 0; i < 3; i++) {
+            requestStatements.loadingAssociation("Category.products");
+            listener.inspect("select p1_0.category_id from product p1_0 where p1_0.category_id=?");
+            requestStatements.loadingAssociation(null);
+        }
+
+        assertEquals(4, requestStatements.getStatements());
+        assertEquals(3, requestStatements.getAssociationStatements().get("Category.products"));
+        interceptor.afterCompletion(request, response, handler, null);
+    }
+
+    @Test
+    public void shouldIgnoreStatementsOutsideOfRequests() {
+        listener.inspect("select 1");
+
+        assertNull(RequestStatements.current());
+        assertTrue(meterRegistry.find(RequestStatementsMetersService.STATEMENTS_METER_NAME).meters().isEmpty());
+    }
+
+    public static class SampleResource {
+
+        public String getAll() {
+            return "samples";
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package myapp.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import myapp.management.SecurityMetersService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+public class CachingJwtDecoderTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final AtomicInteger decodings = new AtomicInteger();
+
+    private MeterRegistry meterRegistry;
+
+    private JwtDecoder delegate = token -> {
+        decodings.incrementAndGet();
+        return jwtExpiringIn(Duration.ofMinutes(10));
+    };
+
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now;
+            }
+        };
+        decoder = new CachingJwtDecoder(token -> delegate.decode(token), 100, new SecurityMetersService(meterRegistry), clock, () ->
+            Duration.between(Instant.EPOCH, now).toNanos()
+        );
+    }
+
+    @Test
+    public void shouldDecodeTokenOnlyOnce() {
+        Jwt first = decoder.decode(TOKEN);
+        Jwt second = decoder.decode(TOKEN);
+
+        assertSame(first, second);
+        assertEquals(1, decodings.get());
+        assertEquals(1, cacheCount("hit"));
+        assertEquals(1, cacheCount("miss"));
+    }
+
+    @Test
+    public void shouldDecodeAgainOnceTokenExpired() {
+        decoder.decode(TOKEN);
+        now = now.plus(Duration.ofMinutes(11));
+        decoder.decode(TOKEN);
+
+        assertEquals(2, decodings.get());
+        assertEquals(0, cacheCount("hit"));
+    }
+
+    @Test
+    public void shouldNotCacheFailures() {
+        delegate = token -> {
+            decodings.incrementAndGet();
+            throw new BadJwtException("Invalid signature");
+        };
+
+        assertThrows(BadJwtException.class, () -> decoder.decode(TOKEN));
+        assertThrows(BadJwtException.class, () -> decoder.decode(TOKEN));
+        assertEquals(2, decodings.get());
+    }
+
+    private Jwt jwtExpiringIn(Duration duration) {
+        return Jwt.withTokenValue(TOKEN).header("alg", "HS512").subject("user").issuedAt(now).expiresAt(now.plus(duration)).build();
+    }
+
+    private double cacheCount(String result) {
+        return meterRegistry
+            .get(SecurityMetersService.TOKEN_CACHE_METER_NAME)
+            .tag(SecurityMetersService.TOKEN_CACHE_METER_RESULT_DIMENSION, result)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,189 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import myapp.config.ApplicationProperties;
+import myapp.domain.MailMessage;
+import myapp.domain.enumeration.MailMessageStatus;
+import myapp.management.MailQueueMetersService;
+import myapp.repository.MailMessageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import tech.jhipster.config.JHipsterProperties;
+
+@ExtendWith(MockitoExtension.class)
+public class MailQueueServiceTest {
+
+    @Mock
+    private MailMessageRepository mailMessageRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final StandInMailSender mailSender = new StandInMailSender();
+
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    private MeterRegistry meterRegistry;
+
+    private MailQueueService mailQueueService;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setFrom("test@localhost");
+        mailQueueService = new MailQueueService(
+            mailMessageRepository,
+            mailSender,
+            jHipsterProperties,
+            new MailQueueMetersService(meterRegistry),
+            transactionManager,
+            applicationProperties
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        mailQueueService.shutdown();
+    }
+
+    @Test
+    public void shouldSendBatchOverOneConnection() {
+        List<MailMessage> batch = List.of(message(1L, "a@example.com", 0), message(2L, "b@example.com", 0), message(3L, "c@example.com", 0));
+        when(mailMessageRepository.findDue(any(), any())).thenReturn(batch);
+
+        assertEquals(3, mailQueueService.sendDue());
+
+        assertEquals(1, mailSender.batches.size());
+        assertEquals(List.of("a@example.com", "b@example.com", "c@example.com"), mailSender.batches.get(0));
+        verify(mailMessageRepository).markSent(eq(List.of(1L, 2L, 3L)), any());
+        assertTrue(batch.stream().allMatch(mailMessage -> mailMessage.getAttempts() == 1));
+        assertEquals(3, meterRegistry.get(MailQueueMetersService.ATTEMPTS_METER_NAME).tag("result", "sent").counter().count());
+        assertEquals(3, meterRegistry.get(MailQueueMetersService.LATENCY_METER_NAME).timer().count());
+    }
+
+    @Test
+    public void shouldRetryFailedMessageWithBackoff() {
+        MailMessage failing = message(2L, "down@example.com", 0);
+        when(mailMessageRepository.findDue(any(), any())).thenReturn(List.of(message(1L, "a@example.com", 0), failing));
+        when(mailMessageRepository.findById(2L)).thenReturn(Optional.of(failing));
+        mailSender.failingRecipients.add("down@example.com");
+
+        Instant before = Instant.now();
+        mailQueueService.sendDue();
+
+        verify(mailMessageRepository).markSent(eq(List.of(1L)), any());
+        assertEquals(MailMessageStatus.PENDING, failing.getStatus());
+        assertNotNull(failing.getLastError());
+        assertFalse(failing.getNextAttemptAt().isBefore(before.plus(applicationProperties.getMailQueue().getInitialBackoff())));
+        assertEquals(1, meterRegistry.get(MailQueueMetersService.ATTEMPTS_METER_NAME).tag("result", "retried").counter().count());
+    }
+
+    @Test
+    public void shouldGiveUpAfterMaxAttempts() {
+        MailMessage failing = message(1L, "down@example.com", applicationProperties.getMailQueue().getMaxAttempts() - 1);
+        when(mailMessageRepository.findDue(any(), any())).thenReturn(List.of(failing));
+        when(mailMessageRepository.findById(1L)).thenReturn(Optional.of(failing));
+        mailSender.failingRecipients.add("down@example.com");
+
+        mailQueueService.sendDue();
+
+        verify(mailMessageRepository, never()).markSent(anyCollection(), any());
+        assertEquals(MailMessageStatus.FAILED, failing.getStatus());
+        assertEquals(1, meterRegistry.get(MailQueueMetersService.ATTEMPTS_METER_NAME).tag("result", "failed").counter().count());
+    }
+
+    @Test
+    public void shouldNotSendWhenNothingIsDue() {
+        when(mailMessageRepository.findDue(any(), any())).thenReturn(List.of());
+
+        assertEquals(0, mailQueueService.sendDue());
+
+        assertTrue(mailSender.batches.isEmpty());
+        verify(mailMessageRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    public void shouldDoubleBackoffUpToMax() {
+        ApplicationProperties.MailQueue properties = applicationProperties.getMailQueue();
+        assertEquals(properties.getInitialBackoff(), mailQueueService.backoff(1));
+        assertEquals(properties.getInitialBackoff().multipliedBy(2), mailQueueService.backoff(2));
+        assertEquals(properties.getInitialBackoff().multipliedBy(8), mailQueueService.backoff(4));
+        assertEquals(properties.getMaxBackoff(), mailQueueService.backoff(30));
+    }
+
+    private static MailMessage message(Long id, String recipient, int attempts) {
+        Instant now = Instant.now().minus(Duration.ofSeconds(1));
+        return new MailMessage()
+            .id(id)
+            .recipient(recipient)
+            .subject("subject")
+            .content("content")
+            .multipart(false)
+            .html(false)
+            .status(MailMessageStatus.PENDING)
+            .createdAt(now)
+            .nextAttemptAt(now)
+            .attempts(attempts);
+    }
+
+    /**
+     * Local stand-in for an SMTP server: records the recipients of each batch, one batch per connection, and rejects
+     * the messages to the failing recipients.
+     */
+    private static class StandInMailSender extends JavaMailSenderImpl {
+
+        private final List<List<String>> batches = new ArrayList<>();
+
+        private final Set<String> failingRecipients = new HashSet<>();
+
+        @Override
+        public void send(MimeMessage... mimeMessages) {
+            List<String> recipients = new ArrayList<>();
+            Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+            for (MimeMessage mimeMessage : mimeMessages) {
+                try {
+                    String recipient = mimeMessage.getAllRecipients()[0].toString();
+                    recipients.add(recipient);
+                    if (failingRecipients.contains(recipient)) {
+                        failedMessages.put(mimeMessage, new MessagingException("550 mailbox unavailable"));
+                    }
+                } catch (MessagingException e) {
+                    failedMessages.put(mimeMessage, e);
+                }
+            }
+            batches.add(recipients);
+            if (!failedMessages.isEmpty()) {
+                throw new MailSendException(failedMessages);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import myapp.IntegrationTest;
+import myapp.domain.Order;
+import myapp.domain.Product;
+import myapp.domain.enumeration.ProductStatus;
+import myapp.repository.OrderRepository;
+import myapp.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Integration tests of {@link OrderPartitionService} on a PostgreSQL container, where {@code jhi_order} is partitioned
+ * by the Liquibase changelog. Skipped where Docker is not available.
+ */
+@IntegrationTest
+@ActiveProfiles("testprod")
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = "application.order-partitions.archive-enabled=true")
+class OrderPartitionPostgreSqlIT {
+
+    @Autowired
+    private OrderPartitionService orderPartitionService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldMoveOrdersToMonthlyPartitionsAndArchiveOldOnes() {
+        assertTrue(orderPartitionService.isPartitioned());
+        Order future = save("2031-03-15T10:00:00Z");
+        Order stale = save("2030-01-10T10:00:00Z");
+        assertEquals(OrderPartitionService.DEFAULT_PARTITION, partitionOf(future));
+        assertEquals(OrderPartitionService.DEFAULT_PARTITION, partitionOf(stale));
+
+        orderPartitionService.maintain(YearMonth.of(2031, 3));
+
+        assertEquals("jhi_order_p203103", partitionOf(future));
+        assertFalse(orderRepository.existsById(stale.getId()));
+        assertEquals(stale.getOrderDate(), orderPartitionService.findArchived(stale.getId()).orElseThrow().orderDate());
+
+        Order old = save("2030-04-20T10:00:00Z");
+        assertEquals("jhi_order_p203004", partitionOf(old));
+
+        orderPartitionService.maintain(YearMonth.of(2031, 6));
+
+        assertFalse(orderRepository.existsById(old.getId()));
+        assertEquals(old.getOrderDate(), orderPartitionService.findArchived(old.getId()).orElseThrow().orderDate());
+        assertNull(jdbcTemplate.queryForObject("select to_regclass('jhi_order_p203004')::text", String.class));
+        assertEquals("jhi_order_p203103", partitionOf(future));
+        assertEquals(future.getOrderDate(), orderRepository.findById(future.getId()).orElseThrow().getOrderDate());
+    }
+
+    @Test
+    void shouldKeepReferencedOrdersWhenArchivingTheirPartition() {
+        Order referenced = save("2032-02-10T10:00:00Z");
+        Order unreferenced = save("2032-02-11T10:00:00Z");
+        orderPartitionService.maintain(YearMonth.of(2032, 2));
+        assertEquals("jhi_order_p203202", partitionOf(referenced));
+        Product product = productRepository.saveAndFlush(
+            new Product().title("referenced").price(BigDecimal.TEN).status(ProductStatus.IN_STOCK).dateAdded(Instant.now()).order(referenced)
+        );
+
+        orderPartitionService.maintain(YearMonth.of(2033, 6));
+
+        assertFalse(orderRepository.existsById(unreferenced.getId()));
+        assertTrue(orderPartitionService.findArchived(unreferenced.getId()).isPresent());
+        assertEquals(OrderPartitionService.DEFAULT_PARTITION, partitionOf(referenced));
+        assertTrue(orderPartitionService.findArchived(referenced.getId()).isEmpty());
+
+        productRepository.delete(product);
+        orderPartitionService.maintain(YearMonth.of(2033, 6));
+
+        assertFalse(orderRepository.existsById(referenced.getId()));
+        assertTrue(orderPartitionService.findArchived(referenced.getId()).isPresent());
+    }
+
+    @Test
+    void shouldEnforceTheReferencesToOrdersWithoutForeignKeys() {
+        Order order = save("2034-05-10T10:00:00Z");
+        orderPartitionService.maintain(YearMonth.of(2034, 5));
+        Product product = productRepository.saveAndFlush(
+            new Product().title("referencing").price(BigDecimal.TEN).status(ProductStatus.IN_STOCK).dateAdded(Instant.now()).order(order)
+        );
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+            jdbcTemplate.update("update product set order_id = -1 where id = ?", product.getId())
+        );
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update("delete from jhi_order where id = ?", order.getId()));
+        assertEquals("jhi_order_p203405", partitionOf(order));
+
+        productRepository.delete(product);
+        productRepository.flush();
+        assertEquals(1, jdbcTemplate.update("delete from jhi_order where id = ?", order.getId()));
+    }
+
+    private Order save(String orderDate) {
+        return orderRepository.saveAndFlush(
+            new Order().orderDate(Instant.parse(orderDate)).status(OrderService.STATUS_CONFIRMED).totalAmount(new BigDecimal("12.50"))
+        );
+    }
+
+    private String partitionOf(Order order) {
+        return jdbcTemplate.queryForObject("select tableoid::regclass::text from jhi_order where id = ?", String.class, order.getId());
+    }
+}
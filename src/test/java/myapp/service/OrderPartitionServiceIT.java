@@ -0,0 +1,145 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import myapp.IntegrationTest;
+import myapp.domain.Order;
+import myapp.domain.Product;
+import myapp.domain.enumeration.OrderStatsGranularity;
+import myapp.domain.enumeration.ProductStatus;
+import myapp.repository.OrderRepository;
+import myapp.repository.ProductRepository;
+import myapp.service.dto.OrderDTO;
+import myapp.service.dto.OrderStatsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests of {@link OrderPartitionService} where {@code jhi_order} is not partitioned, such as on H2.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = { "application.order-partitions.archive-enabled=true", "application.order-partitions.archive-batch-size=1" }
+)
+class OrderPartitionServiceIT {
+
+    @Autowired
+    private OrderPartitionService orderPartitionService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderStatsService orderStatsService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> orderIds = new ArrayList<>();
+
+    private Long productId;
+
+    @AfterEach
+    public void cleanup() {
+        if (productId != null) {
+            productRepository.deleteById(productId);
+        }
+        orderIds.forEach(id -> {
+            orderRepository.findById(id).ifPresent(orderRepository::delete);
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                jdbcTemplate.update("delete from jhi_order_archive where id = ?", id)
+            );
+        });
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            jdbcTemplate.update(
+                "delete from order_stats where bucket_start >= ? and bucket_start < ?",
+                LocalDateTime.of(2020, 4, 10, 0, 0),
+                LocalDateTime.of(2020, 4, 11, 0, 0)
+            )
+        );
+    }
+
+    @Test
+    void shouldArchiveOldUnreferencedOrdersByBatches() {
+        assumeFalse(orderPartitionService.isPartitioned());
+        Order first = save("2020-01-10T10:00:00Z");
+        Order second = save("2020-02-10T10:00:00Z");
+        Order referenced = save("2020-03-10T10:00:00Z");
+        Order recent = save("2021-01-10T10:00:00Z");
+        productId = productRepository
+            .saveAndFlush(
+                new Product()
+                    .title("archived")
+                    .price(BigDecimal.TEN)
+                    .status(ProductStatus.IN_STOCK)
+                    .dateAdded(Instant.now())
+                    .order(referenced)
+            )
+            .getId();
+
+        orderPartitionService.maintain(YearMonth.of(2021, 6));
+
+        for (Order archived : List.of(first, second)) {
+            assertFalse(orderRepository.existsById(archived.getId()));
+            OrderDTO dto = orderPartitionService.findArchived(archived.getId()).orElseThrow();
+            assertEquals(archived.getOrderDate(), dto.orderDate());
+            assertEquals(0, archived.getTotalAmount().compareTo(dto.totalAmount()));
+        }
+        assertTrue(orderRepository.existsById(referenced.getId()));
+        assertTrue(orderRepository.existsById(recent.getId()));
+        assertTrue(orderPartitionService.findArchived(recent.getId()).isEmpty());
+    }
+
+    @Test
+    void shouldExportAndRebuildTheStatisticsOfArchivedOrders() throws IOException {
+        assumeFalse(orderPartitionService.isPartitioned());
+        Order archived = save("2020-04-10T10:00:00Z");
+        orderPartitionService.maintain(YearMonth.of(2021, 6));
+        assertFalse(orderRepository.existsById(archived.getId()));
+        Instant day = Instant.parse("2020-04-10T00:00:00Z");
+        Instant nextDay = day.plus(Duration.ofDays(1));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(1, orderExportService.export(day, nextDay, OrderExportService.Format.CSV, out));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains(archived.getId() + ",2020-04-10T10:00:00Z,,CONFIRMED,12.50,"));
+
+        assertEquals(1, orderStatsService.rebuild(day, nextDay));
+        List<OrderStatsDTO> stats = orderStatsService.findStats(OrderStatsGranularity.DAY, day, nextDay);
+        assertEquals(1, stats.size());
+        assertEquals(1, stats.get(0).orderCount());
+        assertEquals(0, new BigDecimal("12.50").compareTo(stats.get(0).totalAmount()));
+    }
+
+    private Order save(String orderDate) {
+        Order order = orderRepository.saveAndFlush(
+            new Order().orderDate(Instant.parse(orderDate)).status(OrderService.STATUS_CONFIRMED).totalAmount(new BigDecimal("12.50"))
+        );
+        orderIds.add(order.getId());
+        return order;
+    }
+}
@@ -0,0 +1,124 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import myapp.config.ApplicationProperties;
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderPartitionServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Query query;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void shouldNamePartitionsByMonth() {
+        assertEquals("jhi_order_p202610", OrderPartitionService.partitionName(YearMonth.of(2026, 10)));
+        assertEquals(Optional.of(YearMonth.of(2026, 1)), OrderPartitionService.partitionMonth("jhi_order_p202601"));
+        assertEquals(Optional.empty(), OrderPartitionService.partitionMonth(OrderPartitionService.DEFAULT_PARTITION));
+        assertEquals(Optional.empty(), OrderPartitionService.partitionMonth("jhi_order_pold"));
+    }
+
+    @Test
+    public void shouldStartHotPeriodAtOldestHotMonth() {
+        assertEquals(Instant.parse("2026-08-01T00:00:00Z"), OrderPartitionService.hotPeriodStart(YearMonth.of(2026, 10), 3));
+        assertEquals(Instant.parse("2026-10-01T00:00:00Z"), OrderPartitionService.hotPeriodStart(YearMonth.of(2026, 10), 0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldArchiveLockedOrdersByIdWhenNotPartitioned() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.doReturningWork(any(ReturningWork.class))).thenReturn("H2");
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of(1L, 2L));
+        when(query.executeUpdate()).thenReturn(2);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getOrderPartitions().setArchiveEnabled(true);
+        applicationProperties.getOrderPartitions().setArchiveBatchSize(5);
+        OrderPartitionService orderPartitionService = new OrderPartitionService(applicationProperties, transactionManager);
+        ReflectionTestUtils.setField(orderPartitionService, "entityManager", entityManager);
+
+        orderPartitionService.maintain(YearMonth.of(2026, 10));
+
+        assertFalse(orderPartitionService.isPartitioned());
+        InOrder statements = inOrder(entityManager);
+        statements
+            .verify(entityManager)
+            .createNativeQuery(
+                "select id from jhi_order o where o.order_date < :before" +
+                " and not (exists (select 1 from product p where p.order_id = o.id)" +
+                " or exists (select 1 from stock_reservation r where r.order_id = o.id))" +
+                " order by o.id fetch first :size rows only for update"
+            );
+        statements
+            .verify(entityManager)
+            .createNativeQuery(
+                "insert into jhi_order_archive (id, order_date, shipped_date, status, total_amount, shipping_cost, tracking_number," +
+                " shipping_address_id, customer_id, version) select id, order_date, shipped_date, status, total_amount, shipping_cost," +
+                " tracking_number, shipping_address_id, customer_id, version from jhi_order where id in (:ids)"
+            );
+        statements.verify(entityManager).createNativeQuery("delete from jhi_order where id in (:ids)");
+        verify(query).setParameter("before", Instant.parse("2025-10-01T00:00:00Z"));
+        verify(query, times(2)).setParameter("ids", List.of(1L, 2L));
+    }
+
+    @Test
+    public void shouldMoveRowsInOneStatement() {
+        assertEquals(
+            "with moved as (delete from jhi_order_default o where order_date < :before returning id, order_date, shipped_date, status," +
+            " total_amount, shipping_cost, tracking_number, shipping_address_id, customer_id, version) insert into jhi_order_archive" +
+            " (id, order_date, shipped_date, status, total_amount, shipping_cost, tracking_number, shipping_address_id, customer_id," +
+            " version) select id, order_date, shipped_date, status, total_amount, shipping_cost, tracking_number, shipping_address_id," +
+            " customer_id, version from moved",
+            OrderPartitionService.moveStatement("jhi_order_default", "jhi_order_archive", "order_date < :before")
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldNotArchiveUnlessEnabled() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.doReturningWork(any(ReturningWork.class))).thenReturn("H2");
+        OrderPartitionService orderPartitionService = new OrderPartitionService(new ApplicationProperties(), transactionManager);
+        ReflectionTestUtils.setField(orderPartitionService, "entityManager", entityManager);
+
+        orderPartitionService.maintain(YearMonth.of(2026, 10));
+
+        verify(entityManager, never()).createNativeQuery(anyString());
+    }
+}
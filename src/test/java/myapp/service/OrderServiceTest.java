@@ -0,0 +1,196 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import myapp.config.ApplicationProperties;
+import myapp.domain.Order;
+import myapp.domain.Product;
+import myapp.repository.OrderRepository;
+import myapp.repository.ProductRepository;
+import myapp.service.dto.OrderPlacementDTO;
+import myapp.service.dto.OrderPlacementResultDTO;
+import myapp.service.dto.OrderPlacementResultDTO.LineStatus;
+import myapp.service.outbox.OutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderService orderService;
+
+    @BeforeEach
+    public void setUp() {
+        orderService = new OrderService(
+            orderRepository,
+            productRepository,
+            stockReservationService,
+            new ApplicationProperties(),
+            outboxService,
+            eventPublisher,
+            transactionManager
+        );
+    }
+
+    @Test
+    public void shouldReserveLinesInProductOrderAndComputeTotal() {
+        when(productRepository.findAllById(any())).thenReturn(
+            List.of(
+                new Product().id(1L).price(new BigDecimal("10.00")).quantityInStock(5),
+                new Product().id(2L).price(new BigDecimal("2.50")).quantityInStock(5)
+            )
+        );
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> ((Order) invocation.getArgument(0)).id(100L));
+        when(stockReservationService.reserve(any(), anyLong(), anyInt(), any())).thenReturn(true);
+
+        OrderPlacementResultDTO result = orderService.place(
+            new OrderPlacementDTO(
+                null,
+                null,
+                new BigDecimal("1.00"),
+                List.of(new OrderPlacementDTO.Line(2L, 2), new OrderPlacementDTO.Line(1L, 1), new OrderPlacementDTO.Line(2L, 1))
+            )
+        );
+
+        assertTrue(result.placed());
+        assertEquals(OrderService.STATUS_PENDING, result.order().getStatus());
+        assertEquals(new BigDecimal("18.50"), result.order().getTotalAmount());
+        assertNotNull(result.reservedUntil());
+        assertTrue(result.lines().stream().allMatch(line -> line.status() == LineStatus.OK));
+        InOrder reservations = inOrder(stockReservationService);
+        reservations.verify(stockReservationService).reserve(any(), eq(1L), eq(1), any());
+        reservations.verify(stockReservationService).reserve(any(), eq(2L), eq(3), any());
+    }
+
+    @Test
+    public void shouldReportFailedLinesWithoutReserving() {
+        when(productRepository.findAllById(any())).thenReturn(
+            List.of(new Product().id(1L).price(BigDecimal.TEN).quantityInStock(1), new Product().id(2L).price(BigDecimal.TEN).quantityInStock(9))
+        );
+
+        OrderPlacementResultDTO result = orderService.place(
+            new OrderPlacementDTO(
+                null,
+                null,
+                null,
+                List.of(new OrderPlacementDTO.Line(1L, 2), new OrderPlacementDTO.Line(2L, 1), new OrderPlacementDTO.Line(3L, 1))
+            )
+        );
+
+        assertFalse(result.placed());
+        assertNull(result.reservedUntil());
+        assertEquals(
+            List.of(LineStatus.OUT_OF_STOCK, LineStatus.OK, LineStatus.UNKNOWN_PRODUCT),
+            result.lines().stream().map(OrderPlacementResultDTO.LineResult::status).toList()
+        );
+        verify(orderRepository, never()).save(any());
+        verify(stockReservationService, never()).reserve(any(), anyLong(), anyInt(), any());
+    }
+
+    @Test
+    public void shouldUpdateWithTheVersionOfTheLoadedOrder() {
+        Order existing = new Order().id(1L).status("PENDING").totalAmount(BigDecimal.TEN);
+        existing.setVersion(3L);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Order result = orderService.update(new Order().id(1L).status("CONFIRMED").totalAmount(BigDecimal.TEN)).orElseThrow();
+
+        assertEquals(3L, result.getVersion());
+        verify(orderRepository).findById(1L);
+    }
+
+    @Test
+    public void shouldRejectAnUpdateAtAnotherVersion() {
+        Order existing = new Order().id(1L).status("PENDING").totalAmount(BigDecimal.TEN);
+        existing.setVersion(3L);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(existing));
+        Order stale = new Order().id(1L).status("CONFIRMED").totalAmount(BigDecimal.TEN);
+        stale.setVersion(2L);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> orderService.update(stale));
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    public void shouldNotUpdateAMissingOrder() {
+        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(orderService.update(new Order().id(1L).status("CONFIRMED").totalAmount(BigDecimal.TEN)).isEmpty());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    public void shouldReleaseEachExpiredOrderInItsOwnTransaction() {
+        when(stockReservationService.findExpiredOrderIds(any(), anyInt())).thenReturn(List.of(1L, 2L));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doThrow(new ObjectOptimisticLockingFailureException(Order.class, 1L)).doNothing().when(transactionManager).commit(any());
+        when(orderRepository.findById(anyLong())).thenAnswer(invocation ->
+            Optional.of(new Order().id(invocation.getArgument(0)).status(OrderService.STATUS_PENDING))
+        );
+        when(stockReservationService.release(anyLong())).thenReturn(1);
+
+        orderService.releaseExpiredReservations();
+
+        verify(stockReservationService).release(1L);
+        verify(stockReservationService).release(2L);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    public void shouldReleaseExpiredReservationsOfOrdersNotPendingAnymore() {
+        when(stockReservationService.findExpiredOrderIds(any(), anyInt())).thenReturn(List.of(1L, 2L));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        Order confirmed = new Order().id(1L).status(OrderService.STATUS_CONFIRMED);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(confirmed));
+        when(orderRepository.findById(2L)).thenReturn(Optional.empty());
+        when(stockReservationService.release(anyLong())).thenReturn(1);
+
+        orderService.releaseExpiredReservations();
+
+        verify(stockReservationService).release(1L);
+        verify(stockReservationService).release(2L);
+        assertEquals(OrderService.STATUS_CONFIRMED, confirmed.getStatus());
+        verify(outboxService, never()).recordSaved(any(Order.class));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+}
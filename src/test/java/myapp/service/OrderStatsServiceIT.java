@@ -0,0 +1,157 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import myapp.IntegrationTest;
+import myapp.domain.Order;
+import myapp.domain.enumeration.OrderStatsGranularity;
+import myapp.repository.OrderRepository;
+import myapp.service.dto.OrderStatsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests of {@link OrderStatsService}, the order changes being relayed through the outbox as in production.
+ */
+@IntegrationTest
+class OrderStatsServiceIT {
+
+    private static final Instant DAY = Instant.parse("2019-06-15T00:00:00Z");
+
+    private static final Instant NEXT_DAY = DAY.plus(Duration.ofDays(1));
+
+    @Autowired
+    private OrderStatsService orderStatsService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        orderIds.forEach(id -> orderRepository.findById(id).ifPresent(orderRepository::delete));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            jdbcTemplate.update(
+                "delete from order_stats where bucket_start >= ? and bucket_start < ?",
+                Timestamp.from(DAY.minus(Duration.ofDays(1))),
+                Timestamp.from(NEXT_DAY.plus(Duration.ofDays(2)))
+            )
+        );
+    }
+
+    @Test
+    void shouldRebuildTheStatisticsMaintainedByTheDeltas() {
+        Order deleted = save("2019-06-15T00:00:00Z", "PENDING", "10.00", "1.00");
+        Order updated = save("2019-06-15T13:15:00Z", "PENDING", "20.00", "2.00");
+        Order moved = save("2019-06-15T23:59:59Z", "CONFIRMED", "30.00", null);
+        save("2019-06-14T23:59:59Z", "PENDING", "40.00", "4.00");
+        save("2019-06-16T00:00:00Z", "PENDING", "50.00", "5.00");
+        orderService.delete(deleted.getId());
+        orderService.update(updated.status("CONFIRMED").totalAmount(new BigDecimal("25.00")));
+        orderService.update(moved.orderDate(Instant.parse("2019-06-15T05:30:00Z")));
+
+        List<OrderStatsDTO> hours = orderStatsService.findStats(OrderStatsGranularity.HOUR, DAY, NEXT_DAY);
+        List<OrderStatsDTO> days = orderStatsService.findStats(OrderStatsGranularity.DAY, DAY, NEXT_DAY);
+        assertEquals(
+            List.of(Instant.parse("2019-06-15T05:00:00Z"), Instant.parse("2019-06-15T13:00:00Z")),
+            hours.stream().map(OrderStatsDTO::bucketStart).toList()
+        );
+        assertEquals(1, days.size());
+        assertEquals(2, days.get(0).orderCount());
+        assertEquals(new BigDecimal("55.00"), days.get(0).totalAmount());
+        assertEquals(new BigDecimal("2.00"), days.get(0).shippingCost());
+        assertEquals(Map.of("CONFIRMED", 2L), days.get(0).orderCountByStatus());
+
+        assertEquals(2, orderStatsService.rebuild(DAY, NEXT_DAY));
+
+        assertEquals(hours, orderStatsService.findStats(OrderStatsGranularity.HOUR, DAY, NEXT_DAY));
+        assertEquals(days, orderStatsService.findStats(OrderStatsGranularity.DAY, DAY, NEXT_DAY));
+        assertEquals(1, orderStatsService.findStats(OrderStatsGranularity.DAY, DAY.minus(Duration.ofDays(1)), DAY).size());
+        assertEquals(1, orderStatsService.findStats(OrderStatsGranularity.DAY, NEXT_DAY, NEXT_DAY.plus(Duration.ofDays(1))).size());
+    }
+
+    @Test
+    void shouldUpdateABucketCreatedConcurrently() throws Exception {
+        Logger logger = (Logger) LoggerFactory.getLogger(OrderStatsService.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        Level level = logger.getLevel();
+        logger.setLevel(Level.DEBUG);
+        appender.start();
+        logger.addAppender(appender);
+        CountDownLatch inserted = new CountDownLatch(1);
+        CompletableFuture<Void> concurrentChange = CompletableFuture.runAsync(() ->
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.update(
+                    "insert into order_stats (id, granularity, bucket_start, status, order_count, total_amount, shipping_cost)" +
+                    " values (nextval('sequence_generator'), 'HOUR', ?, 'PENDING', 0, 0, 0)",
+                    Timestamp.from(Instant.parse("2019-06-16T10:00:00Z"))
+                );
+                inserted.countDown();
+                sleep(500);
+            })
+        );
+        try {
+            assertTrue(inserted.await(10, TimeUnit.SECONDS));
+            save("2019-06-16T10:20:00Z", "PENDING", "10.00", null);
+            concurrentChange.get(10, TimeUnit.SECONDS);
+        } finally {
+            logger.detachAppender(appender);
+            logger.setLevel(level);
+        }
+
+        List<OrderStatsDTO> hours = orderStatsService.findStats(OrderStatsGranularity.HOUR, NEXT_DAY, NEXT_DAY.plus(Duration.ofDays(1)));
+        assertEquals(1, hours.size());
+        assertEquals(1, hours.get(0).orderCount());
+        assertEquals(new BigDecimal("10.00"), hours.get(0).totalAmount());
+        assertTrue(appender.list.stream().anyMatch(event -> event.getFormattedMessage().contains("created concurrently")));
+    }
+
+    private Order save(String orderDate, String status, String totalAmount, String shippingCost) {
+        Order order = orderService.save(
+            new Order()
+                .orderDate(Instant.parse(orderDate))
+                .status(status)
+                .totalAmount(new BigDecimal(totalAmount))
+                .shippingCost(shippingCost == null ? null : new BigDecimal(shippingCost))
+        );
+        orderIds.add(order.getId());
+        return order;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
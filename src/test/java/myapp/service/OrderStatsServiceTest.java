@@ -0,0 +1,134 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import myapp.domain.OrderStats;
+import myapp.domain.enumeration.OrderStatsGranularity;
+import myapp.repository.OrderRepository;
+import myapp.repository.OrderStatsRepository;
+import myapp.service.dto.OrderFiguresDTO;
+import myapp.service.dto.OrderStatsDTO;
+import myapp.service.event.OrderChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderStatsServiceTest {
+
+    private static final Instant ORDER_DATE = Instant.parse("2024-03-10T14:25:00Z");
+
+    @Mock
+    private OrderStatsRepository orderStatsRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderPartitionService orderPartitionService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderStatsService orderStatsService;
+
+    @BeforeEach
+    public void setUp() {
+        orderStatsService = new OrderStatsService(orderStatsRepository, orderRepository, orderPartitionService, jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    public void shouldMoveOrderBetweenStatusBuckets() {
+        OrderFiguresDTO before = new OrderFiguresDTO(ORDER_DATE, "PENDING", new BigDecimal("50.00"), new BigDecimal("5.00"));
+        OrderFiguresDTO after = new OrderFiguresDTO(ORDER_DATE, "CONFIRMED", new BigDecimal("50.00"), new BigDecimal("5.00"));
+
+        Map<OrderStatsService.Bucket, OrderStatsService.Delta> deltas = OrderStatsService.deltas(new OrderChangedEvent(1L, before, after));
+
+        assertEquals(4, deltas.size());
+        Instant hour = Instant.parse("2024-03-10T14:00:00Z");
+        Instant day = Instant.parse("2024-03-10T00:00:00Z");
+        assertEquals(-1, deltas.get(new OrderStatsService.Bucket(OrderStatsGranularity.HOUR, hour, "PENDING")).orderCount());
+        assertEquals(1, deltas.get(new OrderStatsService.Bucket(OrderStatsGranularity.DAY, day, "CONFIRMED")).orderCount());
+        assertEquals(
+            new BigDecimal("-50.00"),
+            deltas.get(new OrderStatsService.Bucket(OrderStatsGranularity.DAY, day, "PENDING")).totalAmount()
+        );
+    }
+
+    @Test
+    public void shouldApplyOnlyAmountChangesWithinBucket() {
+        OrderFiguresDTO before = new OrderFiguresDTO(ORDER_DATE, "PENDING", new BigDecimal("50.00"), null);
+        OrderFiguresDTO after = new OrderFiguresDTO(ORDER_DATE.plusSeconds(60), "PENDING", new BigDecimal("65.00"), null);
+
+        Map<OrderStatsService.Bucket, OrderStatsService.Delta> deltas = OrderStatsService.deltas(new OrderChangedEvent(1L, before, after));
+
+        assertEquals(2, deltas.size());
+        deltas.values().forEach(delta -> assertEquals(0, delta.orderCount()));
+        deltas.values().forEach(delta -> assertEquals(new BigDecimal("15.00"), delta.totalAmount()));
+        assertTrue(OrderStatsService.deltas(new OrderChangedEvent(1L, before, before)).isEmpty());
+    }
+
+    @Test
+    public void shouldUpdateBucketCreatedConcurrently() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(0, 1);
+        when(orderStatsRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        orderStatsService.apply(new OrderChangedEvent(1L, null, new OrderFiguresDTO(ORDER_DATE, "PENDING", BigDecimal.TEN, null)));
+
+        // one failed attempt creating the hour bucket, then both buckets updated in place
+        verify(jdbcTemplate, times(3)).update(anyString(), any(Object[].class));
+        verify(orderStatsRepository).saveAndFlush(argThat(orderStats -> orderStats.getOrderCount() == 0));
+        verify(jdbcTemplate).update(anyString(), eq(1L), any(), any(), eq(OrderStatsGranularity.DAY.name()), any(), eq("PENDING"));
+    }
+
+    @Test
+    public void shouldComputeStatsFromRollups() {
+        Instant day = Instant.parse("2024-03-10T00:00:00Z");
+        when(orderStatsRepository.findRange(OrderStatsGranularity.DAY, day, day.plusSeconds(86400))).thenReturn(
+            List.of(
+                stats(day, "CANCELLED", 0, "0.00", "0.00"),
+                stats(day, "CONFIRMED", 3, "90.00", "9.00"),
+                stats(day, "PENDING", 1, "30.00", "3.00")
+            )
+        );
+
+        List<OrderStatsDTO> stats = orderStatsService.findStats(OrderStatsGranularity.DAY, day, day.plusSeconds(86400));
+
+        assertEquals(1, stats.size());
+        OrderStatsDTO dayStats = stats.get(0);
+        assertEquals(4, dayStats.orderCount());
+        assertEquals(new BigDecimal("120.00"), dayStats.totalAmount());
+        assertEquals(new BigDecimal("30.00"), dayStats.averageAmount());
+        assertEquals(new BigDecimal("0.1000"), dayStats.shippingCostShare());
+        assertEquals(Map.of("CONFIRMED", 3L, "PENDING", 1L), dayStats.orderCountByStatus());
+    }
+
+    private static OrderStats stats(Instant bucketStart, String status, long orderCount, String totalAmount, String shippingCost) {
+        return new OrderStats()
+            .granularity(OrderStatsGranularity.DAY)
+            .bucketStart(bucketStart)
+            .status(status)
+            .orderCount(orderCount)
+            .totalAmount(new BigDecimal(totalAmount))
+            .shippingCost(new BigDecimal(shippingCost));
+    }
+}
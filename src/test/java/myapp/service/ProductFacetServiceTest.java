@@ -0,0 +1,116 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import myapp.config.ApplicationProperties;
+import myapp.domain.Product;
+import myapp.domain.enumeration.ProductStatus;
+import myapp.repository.CategoryRepository;
+import myapp.repository.ProductRepository;
+import myapp.service.event.CategoryChangedEvent;
+import myapp.service.event.ProductChangedEvent;
+import myapp.service.event.ProductStockChangedEvent;
+import myapp.service.mapper.ProductMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductFacetServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    private ProductFacetService productFacetService;
+
+    @BeforeEach
+    public void setUp() {
+        productFacetService = new ProductFacetService(productRepository, categoryRepository, productMapper, new ApplicationProperties());
+        productFacetService.index(product(1L, ProductStatus.IN_STOCK, "10.00", 8, 0.3, 5));
+        productFacetService.index(product(2L, ProductStatus.IN_STOCK, "30.00", 8, 1.5, 0));
+        productFacetService.index(product(3L, ProductStatus.PREORDER, "30.00", 4, null, 2));
+        productFacetService.index(product(4L, ProductStatus.DISCONTINUED, "1500.00", null, 25.0, 1));
+        productFacetService.onCategoryChanged(CategoryChangedEvent.saved(10L, Set.of(1L, 2L)));
+        productFacetService.onCategoryChanged(CategoryChangedEvent.saved(20L, Set.of(2L, 3L)));
+    }
+
+    @Test
+    public void shouldCombineDimensions() {
+        ProductFacetService.FacetedIds result = productFacetService.filterIds(
+            new ProductFacetService.Filter(Set.of(ProductStatus.IN_STOCK, ProductStatus.PREORDER), Set.of("25-50"), null, null, null, null),
+            PageRequest.of(0, 10)
+        );
+
+        assertEquals(List.of(2L, 3L), result.ids().getContent());
+        assertEquals(2, result.ids().getTotalElements());
+    }
+
+    @Test
+    public void shouldCountFacetsWithoutTheirOwnFilter() {
+        Map<String, Map<String, Integer>> facets = productFacetService
+            .filterIds(new ProductFacetService.Filter(Set.of(ProductStatus.IN_STOCK), null, null, null, true, null), PageRequest.of(0, 10))
+            .facets();
+
+        assertEquals(1, facets.get(ProductFacetService.STATUS).get("IN_STOCK"));
+        assertEquals(1, facets.get(ProductFacetService.STATUS).get("PREORDER"));
+        assertEquals(1, facets.get(ProductFacetService.STATUS).get("DISCONTINUED"));
+        assertEquals(Map.of("true", 1, "false", 1), facets.get(ProductFacetService.IN_STOCK));
+        assertEquals(1, facets.get(ProductFacetService.PRICE).get("0-25"));
+        assertEquals(1, facets.get(ProductFacetService.WEIGHT).get("0-0.5"));
+        assertEquals(Map.of("10", 1), facets.get(ProductFacetService.CATEGORY));
+        assertEquals(1, facets.get(ProductFacetService.RATING).get("8"));
+    }
+
+    @Test
+    public void shouldFilterByCategoryAndPaginate() {
+        ProductFacetService.Filter filter = new ProductFacetService.Filter(null, null, null, null, null, Set.of(10L, 20L));
+
+        assertEquals(List.of(2L), productFacetService.filterIds(filter, PageRequest.of(1, 1)).ids().getContent());
+        assertEquals(3, productFacetService.filterIds(filter, PageRequest.of(1, 1)).ids().getTotalElements());
+    }
+
+    @Test
+    public void shouldMatchNothingForUnknownBand() {
+        ProductFacetService.Filter filter = new ProductFacetService.Filter(null, Set.of("1-2"), null, null, null, null);
+
+        assertTrue(productFacetService.filterIds(filter, PageRequest.of(0, 10)).ids().isEmpty());
+    }
+
+    @Test
+    public void shouldApplyUpdatesStockChangesAndDeletes() {
+        productFacetService.onProductChanged(ProductChangedEvent.saved(product(1L, ProductStatus.OUT_OF_STOCK, "10.00", 8, 0.3, 0)));
+        productFacetService.onProductStockChanged(new ProductStockChangedEvent(2L, 3));
+        productFacetService.onProductChanged(ProductChangedEvent.deleted(3L));
+
+        ProductFacetService.FacetedIds result = productFacetService.filterIds(
+            new ProductFacetService.Filter(null, null, null, null, true, null),
+            PageRequest.of(0, 10)
+        );
+        assertEquals(List.of(2L, 4L), result.ids().getContent());
+        assertEquals(1, result.facets().get(ProductFacetService.STATUS).get("IN_STOCK"));
+        assertEquals(Map.of("10", 1, "20", 1), result.facets().get(ProductFacetService.CATEGORY));
+    }
+
+    private static Product product(Long id, ProductStatus status, String price, Integer rating, Double weight, int quantityInStock) {
+        return new Product()
+            .id(id)
+            .status(status)
+            .price(new BigDecimal(price))
+            .rating(rating)
+            .weight(weight)
+            .quantityInStock(quantityInStock);
+    }
+}
@@ -0,0 +1,94 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import myapp.domain.Product;
+import myapp.repository.ProductRepository;
+import myapp.service.dto.ProductPriceDTO;
+import myapp.service.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductPriceIndexServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductPriceIndexService productPriceIndexService;
+
+    @BeforeEach
+    public void setUp() {
+        when(productRepository.findAllPrices()).thenReturn(
+            List.of(
+                new ProductPriceDTO(4L, new BigDecimal("9.99"), 9),
+                new ProductPriceDTO(1L, new BigDecimal("20.00"), 5),
+                new ProductPriceDTO(3L, new BigDecimal("20.00"), null),
+                new ProductPriceDTO(2L, new BigDecimal("35.50"), 8),
+                new ProductPriceDTO(5L, new BigDecimal("50.00"), 8),
+                new ProductPriceDTO(6L, new BigDecimal("50.01"), 10)
+            )
+        );
+        productPriceIndexService.rebuild();
+    }
+
+    @Test
+    public void shouldFindPriceRangeByPrice() {
+        Page<Long> page = productPriceIndexService.searchIds(new BigDecimal("20"), new BigDecimal("50"), PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L, 3L, 2L, 5L), page.getContent());
+        assertEquals(4, page.getTotalElements());
+        assertArrayEquals(new long[] { 5L, 2L }, productPriceIndexService.idsByPrice(2000, 5000, 0, 2, true));
+    }
+
+    @Test
+    public void shouldClampBoundsBeyondTheRangeOfCents() {
+        BigDecimal huge = new BigDecimal("100000000000000000000");
+
+        assertTrue(productPriceIndexService.searchIds(huge, null, PageRequest.of(0, 10)).isEmpty());
+        assertEquals(6, productPriceIndexService.searchIds(huge.negate(), huge, PageRequest.of(0, 10)).getTotalElements());
+        assertTrue(productPriceIndexService.searchIds(null, new BigDecimal("-1E+1000000"), PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    public void shouldFindPriceRangeByRating() {
+        Page<Long> page = productPriceIndexService.searchIds(
+            new BigDecimal("20"),
+            new BigDecimal("50"),
+            PageRequest.of(0, 10, Sort.by(Sort.Order.desc("rating")))
+        );
+
+        assertEquals(List.of(2L, 5L, 1L, 3L), page.getContent());
+    }
+
+    @Test
+    public void shouldPaginateAcrossRatings() {
+        Page<Long> page = productPriceIndexService.searchIds(null, null, PageRequest.of(1, 2, Sort.by(Sort.Order.desc("rating"))));
+
+        assertEquals(List.of(2L, 5L), page.getContent());
+        assertEquals(6, page.getTotalElements());
+        assertEquals(0, productPriceIndexService.idsByRating(0, Long.MAX_VALUE, 10, 5, false).length);
+    }
+
+    @Test
+    public void shouldApplyUpdatesAndDeletes() {
+        productPriceIndexService.onProductChanged(ProductChangedEvent.saved(new Product().id(1L).price(new BigDecimal("60.00")).rating(5)));
+        productPriceIndexService.onProductChanged(ProductChangedEvent.saved(new Product().id(7L).price(new BigDecimal("25.00")).rating(1)));
+        productPriceIndexService.onProductChanged(ProductChangedEvent.deleted(5L));
+
+        assertArrayEquals(new long[] { 3L, 7L, 2L }, productPriceIndexService.idsByPrice(2000, 5000, 0, 10, false));
+        assertArrayEquals(new long[] { 2L, 7L, 3L }, productPriceIndexService.idsByRating(2000, 5000, 0, 10, false));
+        assertEquals(1, productPriceIndexService.count(6000, 6000));
+    }
+}
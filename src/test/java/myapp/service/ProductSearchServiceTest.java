@@ -0,0 +1,63 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import myapp.domain.Product;
+import myapp.repository.ProductRepository;
+import myapp.service.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSearchServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductSearchService productSearchService;
+
+    @BeforeEach
+    public void setUp() {
+        productSearchService.index(new Product().id(1L).title("Red running shoes").keywords("sport, shoes"));
+        productSearchService.index(new Product().id(2L).title("Blue shirt").description("A shirt that goes well with red shoes"));
+        productSearchService.index(new Product().id(3L).title("Camiseta Básica").keywords("algodão"));
+    }
+
+    @Test
+    public void shouldRankTitleMatchesFirst() {
+        Page<Long> page = productSearchService.searchIds("red shoes", PageRequest.of(0, 10));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of(1L, 2L), page.getContent());
+    }
+
+    @Test
+    public void shouldPaginateHits() {
+        Page<Long> page = productSearchService.searchIds("shoes", PageRequest.of(1, 1));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of(2L), page.getContent());
+    }
+
+    @Test
+    public void shouldIgnoreCaseAndAccents() {
+        assertEquals(List.of(3L), productSearchService.searchIds("BASICA algodao", PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    public void shouldApplyUpdatesAndDeletes() {
+        productSearchService.onProductChanged(ProductChangedEvent.saved(new Product().id(1L).title("Green hat")));
+        productSearchService.onProductChanged(ProductChangedEvent.deleted(2L));
+
+        assertTrue(productSearchService.searchIds("shoes", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(1L), productSearchService.searchIds("hat", PageRequest.of(0, 10)).getContent());
+    }
+}
@@ -11,6 +11,7 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.Optional;
 import java.util.Set;
 import myapp.domain.Product;
 import myapp.domain.enumeration.ProductStatus;
@@ -21,6 +22,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 @ExtendWith(MockitoExtension.class)
 public class ProductServiceTest {
@@ -36,6 +39,9 @@ public class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductService productService; // Injects the mock into the service
 
@@ -1390,4 +1396,28 @@ public class ProductServiceTest {
         savedProduct = productService.save(productWithValidModifiedDate);
         assertEquals(productWithValidModifiedDate, savedProduct);
     }
+
+    @Test
+    public void testPartialUpdateWithCurrentVersion() {
+        Product existingProduct = new Product().id(1L).title("NES").rating(1).version(3L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
+        when(productRepository.save(existingProduct)).thenReturn(existingProduct);
+
+        Optional<Product> result = productService.partialUpdate(new Product().id(1L).rating(5).version(3L));
+
+        assertTrue(result.isPresent());
+        assertEquals(5, result.orElseThrow().getRating());
+        assertEquals("NES", result.orElseThrow().getTitle());
+    }
+
+    @Test
+    public void testPartialUpdateWithStaleVersion() {
+        Product existingProduct = new Product().id(1L).title("NES").rating(1).version(4L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+            productService.partialUpdate(new Product().id(1L).rating(5).version(3L))
+        );
+        assertEquals(1, existingProduct.getRating());
+    }
 }
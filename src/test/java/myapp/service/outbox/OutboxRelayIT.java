@@ -0,0 +1,318 @@
+package myapp.service.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import myapp.IntegrationTest;
+import myapp.domain.OutboxEvent;
+import myapp.domain.enumeration.OrderStatsGranularity;
+import myapp.domain.enumeration.OutboxEventType;
+import myapp.repository.OutboxEventRepository;
+import myapp.service.OrderStatsService;
+import myapp.service.dto.OrderFiguresDTO;
+import myapp.service.dto.OrderStatsDTO;
+import myapp.service.dto.OutboxMessageDTO;
+import myapp.service.event.OrderChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests of {@link OutboxRelay}, with a sink recording the messages and failing on demand.
+ */
+@IntegrationTest
+@Import(OutboxRelayIT.RecordingSinkConfiguration.class)
+@TestPropertySource(
+    properties = { "application.outbox.batch-size=2", "application.outbox.initial-backoff=1m", "application.outbox.max-backoff=5m" }
+)
+class OutboxRelayIT {
+
+    private static final String AGGREGATE_TYPE = "RelayTest";
+
+    private static final Long ORDER_ID = -1L;
+
+    private static final Instant ORDER_DATE = Instant.parse("2001-01-01T10:00:00Z");
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private RecordingOutboxSink sink;
+
+    @Autowired
+    private OrderStatsService orderStatsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void drainOtherEvents() {
+        outboxRelay.drain();
+        sink.reset();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from outbox_event where aggregate_type = ?", AGGREGATE_TYPE);
+            jdbcTemplate.update(
+                "delete from outbox_event where aggregate_type = ? and aggregate_id in (?, ?)",
+                OutboxService.ORDER_CHANGE,
+                ORDER_ID,
+                ORDER_ID - 1
+            );
+            jdbcTemplate.update("delete from order_stats where bucket_start < ?", LocalDateTime.of(2002, 1, 1, 0, 0));
+        });
+        sink.reset();
+    }
+
+    @Test
+    void shouldDeliverTheEventsOfEachAggregateInOrder() {
+        OutboxEvent a1 = save(1L);
+        OutboxEvent b1 = save(2L);
+        OutboxEvent a2 = save(1L);
+        OutboxEvent b2 = save(2L);
+        OutboxEvent a3 = save(1L);
+
+        assertEquals(5, outboxRelay.drain());
+
+        assertEquals(List.of(a1.getId(), a2.getId(), a3.getId()), sink.deliveredIds(1L));
+        assertEquals(List.of(b1.getId(), b2.getId()), sink.deliveredIds(2L));
+        for (OutboxEvent event : List.of(a1, b1, a2, b2, a3)) {
+            assertNotNull(reload(event).getDeliveredAt());
+        }
+    }
+
+    @Test
+    void shouldDrainOnceTheEventsAreCommitted() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> outboxService.recordDeleted(RelayTest.class, 3L));
+
+        List<Long> delivered = sink.deliveredIds(3L);
+        assertEquals(1, delivered.size());
+        assertNotNull(outboxEventRepository.findById(delivered.get(0)).orElseThrow().getDeliveredAt());
+    }
+
+    @Test
+    void shouldHoldBackTheFollowingEventsOfAFailingEventWithBackoff() {
+        OutboxEvent a1 = save(1L);
+        OutboxEvent b1 = save(2L);
+        OutboxEvent a2 = save(1L);
+        sink.failing.add(a1.getId());
+        Instant start = Instant.now();
+
+        assertEquals(1, outboxRelay.drain());
+
+        assertEquals(List.of(b1.getId()), sink.deliveredIds(2L));
+        OutboxEvent failed = reload(a1);
+        assertNull(failed.getDeliveredAt());
+        assertEquals(1, failed.getAttempts());
+        assertEquals("java.io.IOException: Sink down", failed.getLastError());
+        assertFalse(failed.getNextAttemptAt().isBefore(start.plus(Duration.ofMinutes(1))));
+        OutboxEvent heldBack = reload(a2);
+        assertNull(heldBack.getDeliveredAt());
+        assertEquals(0, heldBack.getAttempts());
+        assertNull(heldBack.getNextAttemptAt());
+
+        assertEquals(0, outboxRelay.drain());
+        assertEquals(List.of(a1.getId()), sink.attemptedIds);
+
+        makeDue(a1);
+        start = Instant.now();
+        assertEquals(0, outboxRelay.drain());
+
+        failed = reload(a1);
+        assertEquals(2, failed.getAttempts());
+        assertFalse(failed.getNextAttemptAt().isBefore(start.plus(Duration.ofMinutes(2))));
+        assertNull(reload(a2).getDeliveredAt());
+    }
+
+    @Test
+    void shouldRedeliverAFailedEventOnceDue() {
+        OutboxEvent a1 = save(1L);
+        OutboxEvent a2 = save(1L);
+        sink.failing.add(a1.getId());
+        assertEquals(0, outboxRelay.drain());
+
+        sink.failing.clear();
+        makeDue(a1);
+
+        assertEquals(2, outboxRelay.drain());
+        assertEquals(List.of(a1.getId(), a2.getId()), sink.deliveredIds(1L));
+        OutboxEvent delivered = reload(a1);
+        assertNotNull(delivered.getDeliveredAt());
+        assertNull(delivered.getNextAttemptAt());
+        assertEquals(1, delivered.getAttempts());
+    }
+
+    @Test
+    void shouldRedeliverTheBatchWhenASinkCannotFlush() {
+        OutboxEvent a1 = save(1L);
+        sink.failFlush = true;
+
+        assertThrows(IllegalStateException.class, outboxRelay::drain);
+        assertNull(reload(a1).getDeliveredAt());
+
+        sink.failFlush = false;
+        assertEquals(1, outboxRelay.drain());
+        assertEquals(List.of(a1.getId(), a1.getId()), sink.deliveredIds(1L));
+        assertNotNull(reload(a1).getDeliveredAt());
+    }
+
+    @Test
+    void shouldNotStallWhenHeldBackEventsFillTheBatch() {
+        OutboxEvent a1 = save(1L);
+        for (int i = 0; i < 4; i++) {
+            save(1L);
+        }
+        OutboxEvent b1 = save(2L);
+        OutboxEvent b2 = save(2L);
+        sink.failing.add(a1.getId());
+
+        assertEquals(0, outboxRelay.drain());
+        assertEquals(2, outboxRelay.drain());
+
+        assertEquals(List.of(b1.getId(), b2.getId()), sink.deliveredIds(2L));
+        assertTrue(sink.deliveredIds(1L).isEmpty());
+        assertEquals(List.of(a1.getId()), sink.attemptedIds);
+    }
+
+    @Test
+    void shouldDeliverTheOtherEventsWhenTheStatisticsOfOneCannotBeApplied() throws JsonProcessingException {
+        OutboxEvent a1 = save(1L);
+        // beyond the precision of the totals: the update of the buckets fails in the database
+        OutboxEvent overflowing = saveOrderChange(ORDER_ID, new BigDecimal("1E+25"));
+        OutboxEvent applied = saveOrderChange(ORDER_ID - 1, new BigDecimal("10.00"));
+
+        assertEquals(2, outboxRelay.drain());
+
+        assertNotNull(reload(a1).getDeliveredAt());
+        assertNotNull(reload(applied).getDeliveredAt());
+        OutboxEvent failed = reload(overflowing);
+        assertNull(failed.getDeliveredAt());
+        assertEquals(1, failed.getAttempts());
+        assertNotNull(failed.getNextAttemptAt());
+        Instant day = ORDER_DATE.truncatedTo(ChronoUnit.DAYS);
+        List<OrderStatsDTO> stats = orderStatsService.findStats(OrderStatsGranularity.DAY, day, day.plus(Duration.ofDays(1)));
+        assertEquals(1, stats.size());
+        assertEquals(1, stats.get(0).orderCount());
+        assertEquals(0, new BigDecimal("10.00").compareTo(stats.get(0).totalAmount()));
+    }
+
+    private OutboxEvent saveOrderChange(Long orderId, BigDecimal totalAmount) throws JsonProcessingException {
+        OrderChangedEvent change = new OrderChangedEvent(orderId, null, new OrderFiguresDTO(ORDER_DATE, "PENDING", totalAmount, null));
+        return outboxEventRepository.saveAndFlush(
+            new OutboxEvent()
+                .aggregateType(OutboxService.ORDER_CHANGE)
+                .aggregateId(orderId)
+                .type(OutboxEventType.CHANGED)
+                .payload(objectMapper.writeValueAsString(change))
+                .createdAt(Instant.now())
+        );
+    }
+
+    private OutboxEvent save(Long aggregateId) {
+        return outboxEventRepository.saveAndFlush(
+            new OutboxEvent()
+                .aggregateType(AGGREGATE_TYPE)
+                .aggregateId(aggregateId)
+                .type(OutboxEventType.SAVED)
+                .payload("{\"id\":" + aggregateId + "}")
+                .createdAt(Instant.now())
+        );
+    }
+
+    private OutboxEvent reload(OutboxEvent event) {
+        return outboxEventRepository.findById(event.getId()).orElseThrow();
+    }
+
+    private void makeDue(OutboxEvent event) {
+        outboxEventRepository.saveAndFlush(reload(event).nextAttemptAt(Instant.now().minusSeconds(1)));
+    }
+
+    /**
+     * The aggregate recorded through {@link OutboxService}, named after {@link #AGGREGATE_TYPE}.
+     */
+    static class RelayTest {}
+
+    static class RecordingOutboxSink implements OutboxSink {
+
+        private final List<OutboxMessageDTO> delivered = new CopyOnWriteArrayList<>();
+
+        private final List<Long> attemptedIds = new CopyOnWriteArrayList<>();
+
+        private final Set<Long> failing = ConcurrentHashMap.newKeySet();
+
+        private volatile boolean failFlush;
+
+        @Override
+        public void deliver(OutboxMessageDTO message) throws IOException {
+            if (failing.contains(message.id())) {
+                attemptedIds.add(message.id());
+                throw new IOException("Sink down");
+            }
+            delivered.add(message);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (failFlush) {
+                throw new IOException("Sink down");
+            }
+        }
+
+        List<Long> deliveredIds(Long aggregateId) {
+            return delivered
+                .stream()
+                .filter(message -> AGGREGATE_TYPE.equals(message.aggregateType()) && aggregateId.equals(message.aggregateId()))
+                .map(OutboxMessageDTO::id)
+                .toList();
+        }
+
+        void reset() {
+            delivered.clear();
+            attemptedIds.clear();
+            failing.clear();
+            failFlush = false;
+        }
+    }
+
+    @TestConfiguration
+    static class RecordingSinkConfiguration {
+
+        @Bean
+        RecordingOutboxSink recordingOutboxSink() {
+            return new RecordingOutboxSink();
+        }
+    }
+}
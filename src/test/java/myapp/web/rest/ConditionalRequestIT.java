@@ -0,0 +1,190 @@
+package myapp.web.rest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import myapp.IntegrationTest;
+import myapp.domain.Category;
+import myapp.domain.Order;
+import myapp.domain.Product;
+import myapp.domain.enumeration.CategoryStatus;
+import myapp.domain.enumeration.ProductStatus;
+import myapp.repository.OrderRepository;
+import myapp.service.CategoryService;
+import myapp.service.OrderService;
+import myapp.service.ProductService;
+import myapp.service.StockReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests of the conditional GETs of {@link ProductResource} and {@link CategoryResource}.
+ * <p>
+ * The versions of the listings are incremented when the writes commit, so the writes are committed through the
+ * services rather than made in a test transaction.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ConditionalRequestIT {
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    private Product product;
+
+    private Product otherProduct;
+
+    private Category category;
+
+    private Order order;
+
+    @BeforeEach
+    public void initTest() {
+        product = createProduct("Conditional product");
+        otherProduct = createProduct("Other conditional product");
+        category = categoryService.save(
+            new Category().description("Conditional category").dateAdded(Instant.now()).status(CategoryStatus.AVAILABLE).addProduct(product)
+        );
+    }
+
+    @AfterEach
+    public void cleanup() {
+        if (order != null) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> stockReservationService.release(order.getId()));
+            orderRepository.deleteById(order.getId());
+        }
+        categoryService.delete(category.getId());
+        productIds.forEach(productService::delete);
+    }
+
+    @Test
+    void productListingShouldChangeWhenAProductIsReplaced() throws Exception {
+        String eTag = getNotModifiedETag("/api/products");
+
+        productService.delete(otherProduct.getId());
+        productIds.remove(otherProduct.getId());
+        createProduct("Replacing product");
+
+        assertNotEquals(eTag, getModifiedETag("/api/products", eTag));
+    }
+
+    @Test
+    void productListingShouldChangeWhenAProductIsUpdated() throws Exception {
+        String eTag = getNotModifiedETag("/api/products");
+
+        productService.partialUpdate(new Product().id(product.getId()).title("Updated conditional product"));
+
+        assertNotEquals(eTag, getModifiedETag("/api/products", eTag));
+    }
+
+    @Test
+    void productListingShouldChangeWhenStockIsReserved() throws Exception {
+        order = orderRepository.saveAndFlush(
+            new Order().orderDate(Instant.now()).status(OrderService.STATUS_PENDING).totalAmount(BigDecimal.TEN)
+        );
+        String eTag = getNotModifiedETag("/api/products");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            assertTrue(stockReservationService.reserve(order, product.getId(), 1, Instant.now().plusSeconds(600)))
+        );
+
+        assertNotEquals(eTag, getModifiedETag("/api/products", eTag));
+    }
+
+    @Test
+    void productShouldChangeWhenUpdated() throws Exception {
+        String eTag = getNotModifiedETag("/api/products/" + product.getId());
+
+        productService.partialUpdate(new Product().id(product.getId()).title("Updated conditional product"));
+
+        assertNotEquals(eTag, getModifiedETag("/api/products/" + product.getId(), eTag));
+    }
+
+    @Test
+    void categoryListingShouldChangeWhenACategoryIsUpdated() throws Exception {
+        String eTag = getNotModifiedETag("/api/categories?eagerload=false");
+
+        categoryService.partialUpdate(new Category().id(category.getId()).sortOrder(7));
+
+        assertNotEquals(eTag, getModifiedETag("/api/categories?eagerload=false", eTag));
+    }
+
+    @Test
+    void categoryListingWithProductsShouldChangeWhenAProductIsUpdated() throws Exception {
+        String eTag = getNotModifiedETag("/api/categories");
+
+        productService.partialUpdate(new Product().id(product.getId()).title("Updated conditional product"));
+
+        assertNotEquals(eTag, getModifiedETag("/api/categories", eTag));
+    }
+
+    @Test
+    void categoryShouldChangeWhenItsProductsAreSwapped() throws Exception {
+        String eTag = getNotModifiedETag("/api/categories/" + category.getId());
+
+        categoryService.update(categoryService.findOne(category.getId()).orElseThrow().removeProduct(product).addProduct(otherProduct));
+
+        assertNotEquals(eTag, getModifiedETag("/api/categories/" + category.getId(), eTag));
+    }
+
+    private Product createProduct(String title) {
+        Product created = productService.save(
+            new Product().title(title).price(BigDecimal.TEN).quantityInStock(5).status(ProductStatus.IN_STOCK).dateAdded(Instant.now())
+        );
+        productIds.add(created.getId());
+        return created;
+    }
+
+    /**
+     * GET the resource, then check that it is not sent again to a client having it.
+     */
+    private String getNotModifiedETag(String url) throws Exception {
+        String eTag = restMockMvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        restMockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag)).andExpect(status().isNotModified());
+        return eTag;
+    }
+
+    /**
+     * GET the resource as a client having the given version, expecting it to be sent again.
+     */
+    private String getModifiedETag(String url, String eTag) throws Exception {
+        return restMockMvc
+            .perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,129 @@
+package myapp.web.rest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import myapp.IntegrationTest;
+import myapp.domain.Address;
+import myapp.domain.Customer;
+import myapp.domain.Order;
+import myapp.domain.Product;
+import myapp.domain.WishList;
+import myapp.domain.enumeration.ProductStatus;
+import myapp.management.RequestStatementsMetersService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests of the customer overview endpoint of {@link CustomerResource}, counting the SQL statements it issues.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class CustomerOverviewIT {
+
+    private static final String HANDLER = "CustomerResource.getCustomerOverview";
+
+    private static final int ORDERS = 12;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restCustomerMockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Customer customer;
+
+    @BeforeEach
+    public void initTest() {
+        customer = new Customer().firstName("Ada").lastName("Lovelace").email("ada@example.com");
+        em.persist(customer);
+        for (int i = 0; i < 2; i++) {
+            em.persist(new Address().address1("1 Analytical Row").city("London").postcode("N1 1AA").country("GB").customer(customer));
+            WishList wishList = new WishList().title("Wish list " + i).restricted(false).customer(customer);
+            em.persist(wishList);
+            for (int j = 0; j < 3; j++) {
+                em.persist(
+                    new Product()
+                        .title("Product " + i + j)
+                        .price(BigDecimal.TEN)
+                        .status(ProductStatus.IN_STOCK)
+                        .dateAdded(Instant.now())
+                        .wishList(wishList)
+                );
+            }
+        }
+        Instant now = Instant.now();
+        for (int i = 0; i < ORDERS; i++) {
+            em.persist(
+                new Order()
+                    .orderDate(now.minus(i, ChronoUnit.DAYS))
+                    .status("CONFIRMED")
+                    .totalAmount(new BigDecimal("10.00"))
+                    .shippingCost(BigDecimal.ONE)
+                    .customer(customer)
+            );
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @Transactional
+    void shouldReadOverviewWithFiveStatements() throws Exception {
+        Statements before = statements();
+
+        restCustomerMockMvc
+            .perform(get("/api/customers/{id}/overview", customer.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.customer.id").value(customer.getId()))
+            .andExpect(jsonPath("$.addresses.length()").value(2))
+            .andExpect(jsonPath("$.wishLists.length()").value(2))
+            .andExpect(jsonPath("$.wishLists[0].productCount").value(3))
+            .andExpect(jsonPath("$.recentOrders.length()").value(10))
+            .andExpect(jsonPath("$.orderTotals.orderCount").value(ORDERS))
+            .andExpect(jsonPath("$.orderTotals.totalAmount").value(120.0));
+
+        Statements after = statements();
+        assertEquals(1, after.requests() - before.requests());
+        assertEquals(5, after.total() - before.total());
+    }
+
+    @Test
+    @Transactional
+    void shouldStopAtOneStatementForUnknownCustomer() throws Exception {
+        Statements before = statements();
+
+        restCustomerMockMvc.perform(get("/api/customers/{id}/overview", Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        Statements after = statements();
+        assertEquals(1, after.requests() - before.requests());
+        assertEquals(1, after.total() - before.total());
+    }
+
+    private Statements statements() {
+        DistributionSummary summary = meterRegistry
+            .find(RequestStatementsMetersService.STATEMENTS_METER_NAME)
+            .tag(RequestStatementsMetersService.HANDLER_DIMENSION, HANDLER)
+            .summary();
+        return summary == null ? new Statements(0, 0) : new Statements(summary.count(), summary.totalAmount());
+    }
+
+    private record Statements(long requests, double total) {}
+}
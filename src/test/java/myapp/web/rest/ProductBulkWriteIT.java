@@ -0,0 +1,172 @@
+package myapp.web.rest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import myapp.IntegrationTest;
+import myapp.domain.Order;
+import myapp.domain.OutboxEvent;
+import myapp.domain.Product;
+import myapp.domain.enumeration.ProductStatus;
+import myapp.repository.OutboxEventRepository;
+import myapp.repository.ProductRepository;
+import myapp.service.ProductService;
+import myapp.service.dto.BulkWriteResultDTO;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.PooledOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests of the bulk writes of {@link ProductResource}.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@Transactional
+@TestPropertySource(properties = { "application.bulk.batch-size=2", "application.bulk.max-rows=3" })
+class ProductBulkWriteIT {
+
+    private static final String ENTITY_API_URL = "/api/products/_bulk";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MockMvc restProductMockMvc;
+
+    @Test
+    void shouldCreateAndUpdateProductsInBulk() throws Exception {
+        Product existing = createProduct("Existing bulk product");
+        em.persist(existing);
+        em.flush();
+        em.detach(existing);
+        existing.setTitle("Updated bulk product");
+
+        restProductMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(
+                        om.writeValueAsBytes(List.of(createProduct("First bulk product"), existing, createProduct("Second bulk product")))
+                    )
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.inserted").value(2))
+            .andExpect(jsonPath("$.updated").value(1))
+            .andExpect(jsonPath("$.ids.length()").value(3))
+            .andExpect(jsonPath("$.ids[1]").value(existing.getId()));
+
+        em.clear();
+        assertEquals("Updated bulk product", productRepository.findById(existing.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void shouldRejectAnInvalidProduct() throws Exception {
+        long count = productRepository.count();
+
+        restProductMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(List.of(createProduct("Valid bulk product"), createProduct(null))))
+            )
+            .andExpect(status().isBadRequest());
+
+        assertEquals(count, productRepository.count());
+    }
+
+    @Test
+    void shouldRejectTooManyProducts() throws Exception {
+        long count = productRepository.count();
+
+        restProductMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(
+                        om.writeValueAsBytes(
+                            List.of(
+                                createProduct("Bulk product 1"),
+                                createProduct("Bulk product 2"),
+                                createProduct("Bulk product 3"),
+                                createProduct("Bulk product 4")
+                            )
+                        )
+                    )
+            )
+            .andExpect(status().isBadRequest());
+
+        assertEquals(count, productRepository.count());
+    }
+
+    @Test
+    void shouldTakeProductIdsFromTheirOwnSequence() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        SequenceStyleGenerator productGenerator = generator(sessionFactory, Product.class);
+        assertEquals("product_sequence_generator", productGenerator.getDatabaseStructure().getPhysicalName().getObjectName().getText());
+        assertInstanceOf(PooledOptimizer.class, productGenerator.getOptimizer());
+        assertEquals(50, productGenerator.getOptimizer().getIncrementSize());
+        SequenceStyleGenerator orderGenerator = generator(sessionFactory, Order.class);
+        assertEquals("sequence_generator", orderGenerator.getDatabaseStructure().getPhysicalName().getObjectName().getText());
+    }
+
+    @Test
+    void shouldWriteTheOutboxEventsOfEachBatchBeforeTheTransactionCommits() {
+        long count = outboxEventRepository.count();
+
+        BulkWriteResultDTO result = productService.saveAll(
+            List.of(createProduct("Bulk product 1"), createProduct("Bulk product 2"), createProduct("Bulk product 3"))
+        );
+
+        // The test transaction does not commit: the events were written with the batches, not before committing
+        assertEquals(count + 3, outboxEventRepository.count());
+        List<Long> aggregateIds = outboxEventRepository
+            .findAll(Sort.by("id"))
+            .stream()
+            .filter(event -> "Product".equals(event.getAggregateType()) && result.ids().contains(event.getAggregateId()))
+            .map(OutboxEvent::getAggregateId)
+            .toList();
+        assertEquals(result.ids(), aggregateIds);
+    }
+
+    private static SequenceStyleGenerator generator(SessionFactoryImplementor sessionFactory, Class<?> entityClass) {
+        return (SequenceStyleGenerator) sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass).getGenerator();
+    }
+
+    private static Product createProduct(String title) {
+        return new Product().title(title).price(BigDecimal.TEN).status(ProductStatus.IN_STOCK).dateAdded(Instant.now());
+    }
+}
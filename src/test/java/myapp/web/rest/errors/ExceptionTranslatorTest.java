@@ -0,0 +1,89 @@
+package myapp.web.rest.errors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import java.io.IOException;
+import myapp.domain.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+public class ExceptionTranslatorTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(ExceptionTranslator.class);
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    private ExceptionTranslator exceptionTranslator;
+
+    private NativeWebRequest request;
+
+    @BeforeEach
+    public void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+        exceptionTranslator = new ExceptionTranslator(new MockEnvironment());
+        request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/products/1"), new MockHttpServletResponse());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    public void shouldLogServerErrors() {
+        ResponseEntity<Object> response = exceptionTranslator.handleAnyException(new IllegalStateException("boom"), request);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals(1, appender.list.size());
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals(Level.ERROR, event.getLevel());
+        assertTrue(event.getFormattedMessage().contains("/api/products/1"));
+        assertTrue(event.getFormattedMessage().contains("java.lang.IllegalStateException: boom"));
+    }
+
+    @Test
+    public void shouldLogServerErrorsWithoutStackTraceOutsideDev() {
+        IllegalStateException ex = new IllegalStateException("boom", new IOException("disk full"));
+
+        exceptionTranslator.handleAnyException(ex, request);
+
+        assertEquals(1, appender.list.size());
+        ILoggingEvent event = appender.list.get(0);
+        assertNull(event.getThrowableProxy());
+        assertTrue(event.getFormattedMessage().contains("cause = 'java.io.IOException: disk full'"));
+    }
+
+    @Test
+    public void shouldNotLogClientErrors() {
+        assertEquals(
+            HttpStatus.BAD_REQUEST,
+            exceptionTranslator.handleAnyException(new BadRequestAlertException("Invalid id", "product", "idnull"), request).getStatusCode()
+        );
+        assertEquals(
+            HttpStatus.NOT_FOUND,
+            exceptionTranslator.handleAnyException(new ResponseStatusException(HttpStatus.NOT_FOUND), request).getStatusCode()
+        );
+        assertEquals(
+            HttpStatus.CONFLICT,
+            exceptionTranslator.handleAnyException(new ObjectOptimisticLockingFailureException(Product.class, 1L), request).getStatusCode()
+        );
+
+        assertTrue(appender.list.isEmpty());
+    }
+}